@@ -1,8 +1,12 @@
 import { usePhotoUrl } from "../hooks/usePhotoUrl";
 import { Modal } from "./Modal";
 
-export const FullPhotoModal = ({ placeId, onClose }: { placeId: string; onClose: () => void }) => {
-  const { photoUrl, loading } = usePhotoUrl(placeId, 'photo');
+export const FullPhotoModal = ({
+  placeId,
+  photoPath,
+  onClose
+}: { placeId: string; photoPath?: string | null; onClose: () => void }) => {
+  const { photoUrl, loading } = usePhotoUrl(placeId, 'photo', photoPath);
 
   return (
     <Modal isOpen={true} onClose={onClose}>
@@ -4,7 +4,92 @@ const TOKEN_KEY = 'bean_score_token';
 
 const photoCache = new Map<string, { url: string; size: number }>();
 
-export const usePhotoUrl = (placeId: string | null, type: 'photo' | 'thumbnail' = 'thumbnail') => {
+// Thumbnails requested in the same tick are fetched together with one request
+const THUMBNAIL_BATCH_SIZE = 200;
+let pendingThumbnails = new Map<string, Array<(blob: Blob | null) => void>>();
+let thumbnailFlushScheduled = false;
+
+// Each entry: place id (36 bytes), content type length (1 byte), content type,
+// image length (4 bytes, big-endian), image
+const parsePhotoBundle = (buffer: ArrayBuffer) => {
+  const view = new DataView(buffer);
+  const decoder = new TextDecoder('ascii');
+  const photos = new Map<string, Blob>();
+  let offset = 0;
+  while (offset < buffer.byteLength) {
+    const id = decoder.decode(new Uint8Array(buffer, offset, 36));
+    offset += 36;
+    const typeLength = view.getUint8(offset);
+    offset += 1;
+    const type = decoder.decode(new Uint8Array(buffer, offset, typeLength));
+    offset += typeLength;
+    const length = view.getUint32(offset);
+    offset += 4;
+    photos.set(id, new Blob([new Uint8Array(buffer, offset, length)], { type }));
+    offset += length;
+  }
+  return photos;
+};
+
+const fetchThumbnailBundle = async (placeIds: string[], token: string) => {
+  const response = await fetch(
+    `${import.meta.env.VITE_BACKEND_SERVER}/coffee-places/thumbnails`,
+    {
+      method: 'POST',
+      headers: {
+        Authorization: `Bearer ${token}`,
+        'Content-Type': 'application/json',
+      },
+      body: JSON.stringify(placeIds),
+    }
+  );
+  if (!response.ok) {
+    throw new Error(`Failed to fetch thumbnails: ${response.status}`);
+  }
+  return parsePhotoBundle(await response.arrayBuffer());
+};
+
+const flushThumbnails = async (token: string) => {
+  const batch = pendingThumbnails;
+  pendingThumbnails = new Map();
+  thumbnailFlushScheduled = false;
+
+  const placeIds = [...batch.keys()];
+  for (let i = 0; i < placeIds.length; i += THUMBNAIL_BATCH_SIZE) {
+    const chunk = placeIds.slice(i, i + THUMBNAIL_BATCH_SIZE);
+    let thumbnails = new Map<string, Blob>();
+    try {
+      thumbnails = await fetchThumbnailBundle(chunk, token);
+    } catch (err) {
+      console.error('Error fetching thumbnails:', err);
+    }
+    chunk.forEach((placeId) => {
+      batch.get(placeId)!.forEach((resolve) => resolve(thumbnails.get(placeId) ?? null));
+    });
+  }
+};
+
+// Resolves to null when the bundle has no thumbnail for the place, e.g. while
+// it is still being generated; the single-photo endpoint covers that case
+const loadThumbnail = (placeId: string, token: string) =>
+  new Promise<Blob | null>((resolve) => {
+    const waiting = pendingThumbnails.get(placeId);
+    if (waiting) {
+      waiting.push(resolve);
+    } else {
+      pendingThumbnails.set(placeId, [resolve]);
+    }
+    if (!thumbnailFlushScheduled) {
+      thumbnailFlushScheduled = true;
+      setTimeout(() => flushThumbnails(token), 0);
+    }
+  });
+
+export const usePhotoUrl = (
+  placeId: string | null,
+  type: 'photo' | 'thumbnail' = 'thumbnail',
+  versionedPath: string | null = null
+) => {
   const [photoUrl, setPhotoUrl] = useState<string | null>(null);
   const [loading, setLoading] = useState(false);
 
@@ -32,9 +117,19 @@ export const usePhotoUrl = (placeId: string | null, type: 'photo' | 'thumbnail'
           return;
         }
 
-        const endpoint = type === 'thumbnail'
+        if (type === 'thumbnail' && !versionedPath) {
+          const thumbnail = await loadThumbnail(placeId, token);
+          if (thumbnail) {
+            const url = URL.createObjectURL(thumbnail);
+            photoCache.set(cacheKey, { url, size: thumbnail.size });
+            setPhotoUrl(url);
+            return;
+          }
+        }
+
+        const endpoint = versionedPath ?? (type === 'thumbnail'
           ? `/coffee-places/${placeId}/photo/thumbnail`
-          : `/coffee-places/${placeId}/photo`;
+          : `/coffee-places/${placeId}/photo`);
 
         const response = await fetch(
           `${import.meta.env.VITE_BACKEND_SERVER}${endpoint}`,
@@ -69,7 +164,7 @@ export const usePhotoUrl = (placeId: string | null, type: 'photo' | 'thumbnail'
     };
 
     fetchPhoto();
-  }, [placeId, type]);
+  }, [placeId, type, versionedPath]);
 
   return { photoUrl, loading };
 };
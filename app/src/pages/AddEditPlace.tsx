@@ -278,19 +278,9 @@ export const AddEditPlace = () => {
         });
         if (debugMode) addLog(`Photo resized to ${(resizedPhoto.size / 1024).toFixed(2)}KB`);
 
-        // Create thumbnail with higher quality to avoid pixelation
-        if (debugMode) addLog('Creating thumbnail...');
-        const thumbnail = await imageCompression(photoFile, {
-          maxWidthOrHeight: 800,
-          useWebWorker: true,
-          fileType: photoFile.type,
-          initialQuality: 0.95,
-          alwaysKeepResolution: true,
-        });
-        if (debugMode) addLog(`Thumbnail created: ${(thumbnail.size / 1024).toFixed(2)}KB`);
-
+        // Thumbnails are generated by the server after upload
         if (debugMode) addLog('Uploading photo...');
-        await serverApi.uploadPhoto(placeId, resizedPhoto, thumbnail);
+        await serverApi.uploadPhoto(placeId, resizedPhoto);
         clearPlacePhotoCache(placeId); // Clear cache so new photo loads fresh
         if (debugMode) addLog('Photo uploaded successfully');
       }
@@ -17,6 +17,8 @@ export const Home = () => {
   const [loading, setLoading] = useState(true);
   const [userLocation, setUserLocation] = useState<{ lat: number; lng: number } | null>(null);
   const [selectedPhoto, setSelectedPhoto] = useState<string | null>(null);
+  // Ranked matches from the server; null means filter the loaded list locally
+  const [searchResults, setSearchResults] = useState<CoffeePlace[] | null>(null);
   const [filters, setFilters] = useState<SearchFilters>({
     searchTerm: '',
     hasGlutenFree: false,
@@ -77,7 +79,33 @@ export const Home = () => {
     requestLocation();
   }, [user, loadPlaces, requestLocation]);
 
+  useEffect(() => {
+    if (!filters.searchTerm.trim() || !isOnline()) {
+      setSearchResults(null);
+      return;
+    }
+
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const results = await serverApi.searchPlaces(filters);
+        if (!cancelled) setSearchResults(results);
+      } catch (error) {
+        console.error('Search failed, filtering locally:', error);
+        if (!cancelled) setSearchResults(null);
+      }
+    }, 250);
+
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [filters, places]);
+
   const filteredPlaces = useMemo(() => {
+    // The server applies the same filters, with typo tolerance and ranking
+    if (searchResults) return searchResults;
+
     return places.filter((place) => {
       if (filters.searchTerm) {
         const searchLower = filters.searchTerm.toLowerCase();
@@ -96,7 +124,7 @@ export const Home = () => {
 
       return true;
     });
-  }, [places, filters]);
+  }, [places, filters, searchResults]);
 
   const sortedPlaces = useMemo(() => {
     debugLog('🔄 sortedPlaces recalculating');
@@ -105,8 +133,8 @@ export const Home = () => {
     debugLog('filteredPlaces count:', filteredPlaces.length);
 
     // Only sort by distance when online and location is available
-    // Otherwise, keep natural order (recently added)
-    if (userLocation && isOnline()) {
+    // Otherwise, keep natural order (recently added, or relevance for server search)
+    if (userLocation && isOnline() && !searchResults) {
       debugLog('✅ Conditions met for distance sorting');
       const sorted = [...filteredPlaces];
 
@@ -141,7 +169,7 @@ export const Home = () => {
 
     debugLog('⚠️ Not sorting by distance - returning natural order');
     return filteredPlaces;
-  }, [filteredPlaces, userLocation]);
+  }, [filteredPlaces, userLocation, searchResults]);
 
   if (loading) {
     return (
@@ -281,7 +309,13 @@ export const Home = () => {
         )}
       </div>
 
-      {selectedPhoto && <FullPhotoModal placeId={selectedPhoto} onClose={() => setSelectedPhoto(null)} />}
+      {selectedPhoto && (
+        <FullPhotoModal
+          placeId={selectedPhoto}
+          photoPath={places.find((place) => place.id === selectedPhoto)?.photoUrls?.full}
+          onClose={() => setSelectedPhoto(null)}
+        />
+      )}
     </>
   );
 };
@@ -1,4 +1,4 @@
-import type { CoffeePlace, CoffeePlaceFormData, User } from "../types";
+import type { CoffeePlace, CoffeePlaceFormData, SearchFilters, User } from "../types";
 
 const TOKEN_KEY = 'bean_score_token';
 
@@ -77,16 +77,51 @@ export const serverApi = {
     const token = localStorage.getItem(TOKEN_KEY);
     if (!token) throw new Error('Not authenticated');
 
-    const response = await fetch(`${import.meta.env.VITE_BACKEND_SERVER}/coffee-places`, {
+    const places: CoffeePlace[] = [];
+    let cursor: string | null = null;
+
+    do {
+      const params = new URLSearchParams({ limit: '200' });
+      if (cursor) params.set('cursor', cursor);
+
+      const response = await fetch(`${import.meta.env.VITE_BACKEND_SERVER}/coffee-places?${params}`, {
+        headers: { Authorization: `Bearer ${token}` },
+      });
+
+      if (!response.ok) {
+        throw new Error('Failed to fetch places: ' + response.statusText);
+      }
+
+      places.push(...(await response.json()));
+      cursor = response.headers.get('X-Next-Cursor');
+    } while (cursor);
+
+    return places;
+  },
+
+  searchPlaces: async (filters: SearchFilters): Promise<CoffeePlace[]> => {
+    const token = localStorage.getItem(TOKEN_KEY);
+    if (!token) throw new Error('Not authenticated');
+
+    const params = new URLSearchParams({ q: filters.searchTerm.trim(), limit: '50' });
+    if (filters.hasGlutenFree) params.set('hasGlutenFree', 'true');
+    if (filters.hasVegMilk) params.set('hasVegMilk', 'true');
+    if (filters.hasVeganFood) params.set('hasVeganFood', 'true');
+    if (filters.hasSugarFree) params.set('hasSugarFree', 'true');
+    if (filters.minCoffeeQuality !== null) {
+      // Ratings are whole numbers, so "3.5+" means 4 or more
+      params.set('minCoffeeQuality', String(Math.ceil(filters.minCoffeeQuality)));
+    }
+
+    const response = await fetch(`${import.meta.env.VITE_BACKEND_SERVER}/coffee-places/search?${params}`, {
       headers: { Authorization: `Bearer ${token}` },
     });
 
     if (!response.ok) {
-      throw new Error('Failed to fetch places: ' + response.statusText);
+      throw new Error('Failed to search places: ' + response.statusText);
     }
 
-    const places = await response.json();
-    return places;
+    return response.json();
   },
 
   getPlace: async (id: string): Promise<CoffeePlace | null> => {
@@ -166,13 +201,12 @@ export const serverApi = {
     }
   },
 
-  uploadPhoto: async (placeId: string, photoBlob: Blob, thumbnailBlob: Blob): Promise<void> => {
+  uploadPhoto: async (placeId: string, photoBlob: Blob): Promise<void> => {
     const token = localStorage.getItem(TOKEN_KEY);
     if (!token) throw new Error('Not authenticated');
 
     const formData = new FormData();
     formData.append('photo', photoBlob);
-    formData.append('thumbnail', thumbnailBlob);
     formData.append('contentType', photoBlob.type);
 
     const response = await fetch(
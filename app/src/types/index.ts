@@ -21,6 +21,9 @@ export interface CoffeePlace {
   latitude?: number;
   longitude?: number;
   hasPhoto?: boolean;
+  photoStatus?: 'PROCESSING' | 'READY' | 'FAILED';
+  // Content-hashed paths, cached by the browser without revalidation
+  photoUrls?: { thumbnail: string; medium: string; full: string } | null;
 }
 
 export interface AuthContextType {
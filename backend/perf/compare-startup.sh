@@ -0,0 +1,145 @@
+#!/bin/bash
+#
+# Compares how fast a new instance becomes useful in the three images we can
+# deploy: JVM (Dockerfile.jvm), JVM with the trained class-data archive
+# (Dockerfile.jvm-appcds) and native (Dockerfile.native). Each image is started
+# several times against the same PostgreSQL; the table holds the medians of:
+#   started  - the time StartupLogger reports ("Started Successfully in ...")
+#   ready    - from `docker run` until /q/health/ready answers
+#   register - the first request (POST /auth/register)
+#   list     - the first authenticated read (GET /coffee-places)
+#   rss      - resident memory of the container's processes after those requests
+#
+# Starts its own PostgreSQL on port 5433 (perf/load/docker-compose.yml). The
+# containers use the host network, so this runs on Linux only.
+#
+# Requires: docker compose, curl, jq and a JDK. The native build runs in a
+# container unless GraalVM is installed.
+#
+# Usage: perf/compare-startup.sh [runs]
+#   SKIP_BUILD=1 reuses the beanscore-api-{jvm,appcds,native} images;
+#   KEEP_DB=1 leaves PostgreSQL running.
+
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8089}
+BASE_URL="http://localhost:${PORT}"
+JDBC_URL=jdbc:postgresql://localhost:5433/beanscore
+
+cd "$(dirname "$0")/.."
+RESULTS_DIR=target/perf
+mkdir -p "$RESULTS_DIR"
+REPORT="$RESULTS_DIR/startup-$(date +%Y%m%d-%H%M%S).txt"
+COMPOSE=(docker compose -f perf/load/docker-compose.yml)
+
+for tool in docker curl jq java; do
+  command -v "$tool" >/dev/null || { echo "$tool is required" >&2; exit 1; }
+done
+
+cleanup() {
+  [ -n "${CONTAINER:-}" ] && docker rm -f "$CONTAINER" >/dev/null 2>&1 || true
+  [ -z "${KEEP_DB:-}" ] && "${COMPOSE[@]}" down -v >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+echo "Starting PostgreSQL on port 5433"
+"${COMPOSE[@]}" up -d --wait postgres
+
+if [ -z "${SKIP_BUILD:-}" ]; then
+  # The archive is recorded against the same database the runs use
+  TRAINING_JDBC_URL="$JDBC_URL" ./mvnw -B -q package -DskipTests -Pappcds
+  docker build -q -f src/main/docker/Dockerfile.jvm -t beanscore-api-jvm . >/dev/null
+  docker build -q -f src/main/docker/Dockerfile.jvm-appcds -t beanscore-api-appcds . >/dev/null
+  ./mvnw -B -q package -DskipTests -Dnative -Dquarkus.native.container-build=true
+  docker build -q -f src/main/docker/Dockerfile.native -t beanscore-api-native . >/dev/null
+fi
+
+now_ms() {
+  echo $(($(date +%s%N) / 1000000))
+}
+
+median() {
+  sort -n | awk '{v[NR] = $1} END {
+    if (NR == 0) print "-"; else if (NR % 2) print v[(NR + 1) / 2];
+    else printf "%.3f\n", (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+rss_mb() {
+  local total=0 pid kb
+  for pid in $(docker top "$CONTAINER" -o pid | tail -n +2); do
+    kb=$(awk '/^VmRSS:/ {print $2}' "/proc/$pid/status" 2>/dev/null || echo 0)
+    total=$((total + ${kb:-0}))
+  done
+  echo $((total / 1024))
+}
+
+run_once() {
+  local mode=$1 run=$2
+  local log="$RESULTS_DIR/startup-$mode-$run.log"
+  local begin ready started register list rss email token
+
+  begin=$(now_ms)
+  CONTAINER=$(docker run -d --network host \
+    -e QUARKUS_HTTP_PORT="$PORT" \
+    -e QUARKUS_DATASOURCE_JDBC_URL="$JDBC_URL" \
+    -e QUARKUS_DATASOURCE_USERNAME=beanscore \
+    -e QUARKUS_DATASOURCE_PASSWORD=beanscore123 \
+    "beanscore-api-$mode")
+  for _ in $(seq 1 3000); do
+    curl -sf -o /dev/null "$BASE_URL/q/health/ready" && break
+    sleep 0.02
+  done
+  curl -sf -o /dev/null "$BASE_URL/q/health/ready" || {
+    docker logs "$CONTAINER" >"$log" 2>&1
+    echo "$mode did not become ready, see $log" >&2
+    exit 1
+  }
+  ready=$(($(now_ms) - begin))
+
+  email="startup-$mode-$run-$(date +%s%N)@beanscore.com"
+  register=$(curl -sf -w '\n%{time_total}' -X POST "$BASE_URL/auth/register" \
+    -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$email\",\"password\":\"startup-password\",\"name\":\"Startup\"}")
+  token=$(echo "${register%$'\n'*}" | jq -r .token)
+  register=${register##*$'\n'}
+  list=$(curl -sf -o /dev/null -w '%{time_total}' -H "Authorization: Bearer $token" \
+    "$BASE_URL/coffee-places")
+  rss=$(rss_mb)
+
+  docker logs "$CONTAINER" >"$log" 2>&1
+  docker rm -f "$CONTAINER" >/dev/null
+  CONTAINER=
+  started=$(sed -n 's/.*Started Successfully in \([0-9.]*\) seconds.*/\1/p' "$log" | head -1)
+  # The JVM prints a [cds] warning and carries on without an archive it cannot map
+  if grep -q '\[cds\]' "$log"; then
+    echo "warning: $mode did not use its class-data archive, see $log" >&2
+  fi
+
+  printf "%s %s %s %s %s\n" "${started:--}" "$ready" \
+    "$(awk -v t="$register" 'BEGIN {printf "%.0f", t * 1000}')" \
+    "$(awk -v t="$list" 'BEGIN {printf "%.0f", t * 1000}')" "$rss"
+}
+
+{
+  echo "runs=$RUNS $(date -u +%Y-%m-%dT%H:%M:%SZ)"
+  printf "%-8s %9s %10s %10s %12s %8s %9s\n" \
+    "mode" "image MB" "started s" "ready ms" "register ms" "list ms" "RSS MB"
+} | tee "$REPORT"
+
+for mode in jvm appcds native; do
+  results="$RESULTS_DIR/startup-$mode.txt"
+  : >"$results"
+  for run in $(seq 1 "$RUNS"); do
+    run_once "$mode" "$run" >>"$results"
+  done
+  image_mb=$(($(docker image inspect -f '{{.Size}}' "beanscore-api-$mode") / 1024 / 1024))
+  printf "%-8s %9s %10s %10s %12s %8s %9s\n" "$mode" "$image_mb" \
+    "$(cut -d' ' -f1 "$results" | grep -v '^-$' | median)" \
+    "$(cut -d' ' -f2 "$results" | median)" \
+    "$(cut -d' ' -f3 "$results" | median)" \
+    "$(cut -d' ' -f4 "$results" | median)" \
+    "$(cut -d' ' -f5 "$results" | median)" | tee -a "$REPORT"
+done
+
+echo "Report written to $REPORT; per-run values and container logs are next to it."
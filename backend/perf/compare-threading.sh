@@ -0,0 +1,130 @@
+#!/bin/bash
+#
+# Compares throughput and p99 latency of the API on the worker pool versus
+# virtual threads. Builds both variants, runs each with the prod profile
+# against the same database with the same seeded data, and prints one line
+# per mode.
+#
+# Starts its own PostgreSQL on port 5433 (perf/load/docker-compose.yml).
+#
+# Requires: docker compose, curl, jq and hey (https://github.com/rakyll/hey).
+#
+# Usage: perf/compare-threading.sh [concurrency] [duration] [places]
+#   PINNED=1 adds a separate, unmeasured run per mode with
+#   -Djdk.tracePinnedThreads=short and reports how many pins it printed; the
+#   stack dumps would skew the measured run. KEEP_DB=1 leaves PostgreSQL running.
+
+set -euo pipefail
+
+CONCURRENCY=${1:-200}
+DURATION=${2:-60s}
+PLACES=${3:-500}
+PORT=${PORT:-8089}
+BASE_URL="http://localhost:${PORT}"
+
+cd "$(dirname "$0")/.."
+RESULTS_DIR=target/perf
+mkdir -p "$RESULTS_DIR"
+REPORT="$RESULTS_DIR/threading-$(date +%Y%m%d-%H%M%S).txt"
+COMPOSE=(docker compose -f perf/load/docker-compose.yml)
+
+for tool in docker curl jq hey; do
+  command -v "$tool" >/dev/null || { echo "$tool is required" >&2; exit 1; }
+done
+
+build() {
+  local mode=$1
+  local flags=()
+  [ "$mode" = "virtual" ] && flags=(-Pvirtual-threads)
+  ./mvnw -B -q package -DskipTests "${flags[@]}"
+  rm -rf "$RESULTS_DIR/app-$mode"
+  cp -r target/quarkus-app "$RESULTS_DIR/app-$mode"
+}
+
+# Usage: start <mode> <log> [java options...]
+start() {
+  local mode=$1 log=$2
+  shift 2
+  # Same settings as a deployment: prod profile, database from the environment
+  QUARKUS_DATASOURCE_JDBC_URL=jdbc:postgresql://localhost:5433/beanscore \
+  QUARKUS_DATASOURCE_USERNAME=beanscore \
+  QUARKUS_DATASOURCE_PASSWORD=beanscore123 \
+    java "$@" -Dquarkus.http.port="$PORT" -jar "$RESULTS_DIR/app-$mode/quarkus-run.jar" \
+    >"$log" 2>&1 &
+  SERVER_PID=$!
+  for _ in $(seq 1 60); do
+    curl -sf "$BASE_URL/q/health/ready" >/dev/null && return 0
+    sleep 1
+  done
+  echo "Server ($mode) did not become ready, see $log" >&2
+  exit 1
+}
+
+stop() {
+  [ -n "${SERVER_PID:-}" ] || return 0
+  kill "$SERVER_PID" 2>/dev/null || true
+  wait "$SERVER_PID" 2>/dev/null || true
+  SERVER_PID=
+}
+
+cleanup() {
+  stop
+  [ -z "${KEEP_DB:-}" ] && "${COMPOSE[@]}" down -v >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+seed() {
+  local email="perf-$(date +%s%N)@beanscore.com"
+  TOKEN=$(curl -sf -X POST "$BASE_URL/auth/register" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$email\",\"password\":\"perf-password\",\"name\":\"Perf\"}" | jq -r .token)
+  for i in $(seq 1 "$PLACES"); do
+    curl -sf -o /dev/null -X POST "$BASE_URL/coffee-places" \
+      -H "Authorization: Bearer $TOKEN" -H 'Content-Type: application/json' \
+      -d "{\"name\":\"Place $i\",\"address\":\"Street $i\",\"coffeeQuality\":$((i % 5 + 1)),\"ambient\":$((i % 5 + 1)),\"hasGlutenFree\":false,\"hasVegMilk\":true,\"hasVeganFood\":false,\"hasSugarFree\":false}"
+  done
+}
+
+URL_PATH="/coffee-places?limit=50"
+
+measure() {
+  local mode=$1
+  hey -z 15s -c "$CONCURRENCY" -H "Authorization: Bearer $TOKEN" "$BASE_URL$URL_PATH" >/dev/null
+  hey -z "$DURATION" -c "$CONCURRENCY" -H "Authorization: Bearer $TOKEN" "$BASE_URL$URL_PATH" \
+    >"$RESULTS_DIR/hey-$mode.txt"
+
+  RPS=$(awk '/Requests\/sec/ {print $2}' "$RESULTS_DIR/hey-$mode.txt")
+  P99=$(awk '/ 99% in / {printf "%.1f", $3 * 1000}' "$RESULTS_DIR/hey-$mode.txt")
+  ERRORS=$(awk '/Status code distribution/ {f=1; next} f && /\[[0-9]+\]/ && $1 != "[200]" {s+=$2} END {print s+0}' \
+    "$RESULTS_DIR/hey-$mode.txt")
+}
+
+# Pinned virtual threads are printed with their stack; counted after a short traced run
+count_pinned() {
+  local mode=$1
+  local log="$RESULTS_DIR/server-$mode-pinned.log"
+  start "$mode" "$log" -Djdk.tracePinnedThreads=short
+  hey -z 15s -c "$CONCURRENCY" -H "Authorization: Bearer $TOKEN" "$BASE_URL$URL_PATH" >/dev/null
+  stop
+  grep -c "reason:\|<== monitors" "$log" || true
+}
+
+echo "Starting PostgreSQL on port 5433"
+"${COMPOSE[@]}" up -d --wait postgres
+
+{
+  echo "concurrency=$CONCURRENCY duration=$DURATION places=$PLACES $(java -version 2>&1 | head -1)"
+  printf "%-10s %12s %10s %8s %8s\n" "mode" "req/s" "p99 ms" "non-200" "pinned"
+} | tee "$REPORT"
+
+for mode in platform virtual; do
+  build "$mode"
+  start "$mode" "$RESULTS_DIR/server-$mode.log"
+  seed
+  measure "$mode"
+  stop
+  pinned=-
+  [ -n "${PINNED:-}" ] && pinned=$(count_pinned "$mode")
+  printf "%-10s %12s %10s %8s %8s\n" "$mode" "$RPS" "$P99" "$ERRORS" "$pinned" | tee -a "$REPORT"
+done
+
+echo "Report written to $REPORT; raw hey output and server logs are next to it."
@@ -0,0 +1,33 @@
+#!/bin/bash
+#
+# Compares two JMH JSON result files (mvn -Pbenchmarks test-compile exec:exec@jmh
+# writes target/jmh-result.json) and prints the change per benchmark and parameter set.
+# Lower is better for all benchmarks here (average time per operation).
+#
+# Usage: perf/jmh-compare.sh baseline.json candidate.json
+
+set -euo pipefail
+export LC_ALL=C
+
+if [ $# -ne 2 ]; then
+  echo "Usage: $0 baseline.json candidate.json" >&2
+  exit 1
+fi
+command -v jq >/dev/null || { echo "jq is required" >&2; exit 1; }
+
+summarise() {
+  jq -r '.[] | [
+      (.benchmark | sub("^com\\.beanscore\\."; "")) +
+        ((.params // {}) | to_entries | map("[" + .key + "=" + .value + "]") | join("")),
+      .primaryMetric.score,
+      .primaryMetric.scoreUnit
+    ] | @tsv' "$1" | sort
+}
+
+join -t $'\t' <(summarise "$1") <(summarise "$2") |
+  awk -F'\t' '
+    BEGIN { printf "%-72s %14s %14s %9s\n", "benchmark", "baseline", "candidate", "change" }
+    {
+      change = ($2 == 0) ? 0 : ($4 - $2) / $2 * 100
+      printf "%-72s %11.3f %-2s %11.3f %-2s %+8.1f%%\n", $1, $2, $3, $4, $5, change
+    }'
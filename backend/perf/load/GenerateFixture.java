@@ -0,0 +1,47 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import javax.imageio.ImageIO;
+
+/**
+ * Writes the JPEG uploaded by the photo-upload scenario. Noise plus gradients keeps the encoded
+ * size close to a phone photo of the same dimensions.
+ *
+ * <p>Usage: {@code java GenerateFixture.java <output.jpg> [width] [height]}
+ */
+public class GenerateFixture {
+
+  public static void main(String[] args) throws IOException {
+    File output = new File(args[0]);
+    int width = args.length > 1 ? Integer.parseInt(args[1]) : 1600;
+    int height = args.length > 2 ? Integer.parseInt(args[2]) : 1200;
+
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = image.createGraphics();
+    Random random = new Random(42);
+    for (int y = 0; y < height; y += 2) {
+      for (int x = 0; x < width; x += 2) {
+        int base = (x * 255 / width + y * 255 / height) / 2;
+        graphics.setColor(
+            new Color(
+                clamp(base + random.nextInt(60) - 30),
+                clamp(base / 2 + random.nextInt(60) - 30),
+                clamp(255 - base + random.nextInt(60) - 30)));
+        graphics.fillRect(x, y, 2, 2);
+      }
+    }
+    graphics.dispose();
+
+    if (!ImageIO.write(image, "jpg", output)) {
+      throw new IOException("No JPEG writer available");
+    }
+    System.out.printf("%s: %dx%d, %d KB%n", output, width, height, output.length() / 1024);
+  }
+
+  private static int clamp(int value) {
+    return Math.max(0, Math.min(255, value));
+  }
+}
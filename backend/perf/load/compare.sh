@@ -0,0 +1,33 @@
+#!/bin/bash
+#
+# Compares two load-test reports written by perf/load/run.sh and prints the
+# change in p50/p95/p99 latency and throughput per operation.
+#
+# Usage: perf/load/compare.sh baseline.json candidate.json
+
+set -euo pipefail
+export LC_ALL=C
+
+if [ $# -ne 2 ]; then
+  echo "Usage: $0 baseline.json candidate.json" >&2
+  exit 1
+fi
+command -v jq >/dev/null || { echo "jq is required" >&2; exit 1; }
+
+summarise() {
+  jq -r '(.operations | to_entries[] | [.key, .value.p50, .value.p95, .value.p99, .value.rps]),
+         ["total", 0, 0, 0, .total.rps] | @tsv' "$1" | sort
+}
+
+echo "baseline:  $(jq -c '{label: .label, config: .config}' "$1")"
+echo "candidate: $(jq -c '{label: .label, config: .config}' "$2")"
+join -t $'\t' <(summarise "$1") <(summarise "$2") |
+  awk -F'\t' '
+    function cell(a, b) {
+      return sprintf(" %8.1f %8.1f %+6.1f%%", a, b, (a == 0) ? 0 : (b - a) / a * 100)
+    }
+    BEGIN {
+      printf "%-11s %25s %25s %25s %25s\n", "operation", "p50 ms", "p95 ms", "p99 ms", "req/s"
+    }
+    $1 == "total" { printf "%-11s %25s %25s %25s%s\n", $1, "-", "-", "-", cell($5, $9); next }
+    { printf "%-11s%s%s%s%s\n", $1, cell($2, $6), cell($3, $7), cell($4, $8), cell($5, $9) }'
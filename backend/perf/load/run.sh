@@ -0,0 +1,81 @@
+#!/bin/bash
+#
+# Runs the load-test mix against a freshly seeded database and writes a JSON
+# report (p50/p95/p99 and throughput per operation) that compare.sh can diff
+# against a report from another release.
+#
+# Starts its own PostgreSQL on port 5433 (docker compose), seeds it, builds and
+# starts the API on $PORT, generates the upload fixture and runs k6.
+#
+# Requires: docker compose, k6 (https://k6.io), curl and a JDK.
+#
+# Usage: perf/load/run.sh [label]
+#   USERS=200 PLACES_PER_USER=150 PHOTO_RATIO=0.5 PHOTO_KB=400 THUMBNAIL_KB=40
+#   RATE=200 DURATION=2m UPLOAD_SIZE=1600x1200 BUILD_FLAGS="-Pvirtual-threads"
+#   SKIP_BUILD=1 reuses target/quarkus-app; KEEP_DB=1 leaves PostgreSQL running.
+
+set -euo pipefail
+
+LABEL=${1:-$(git rev-parse --short HEAD 2>/dev/null || echo local)}
+USERS=${USERS:-200}
+PLACES_PER_USER=${PLACES_PER_USER:-150}
+PHOTO_RATIO=${PHOTO_RATIO:-0.5}
+PHOTO_KB=${PHOTO_KB:-400}
+THUMBNAIL_KB=${THUMBNAIL_KB:-40}
+UPLOAD_SIZE=${UPLOAD_SIZE:-1600x1200}
+PORT=${PORT:-8089}
+BASE_URL="http://localhost:${PORT}"
+
+LOAD_DIR="$(cd "$(dirname "$0")" && pwd)"
+cd "$LOAD_DIR/../.."
+RESULTS_DIR="$LOAD_DIR/target"
+mkdir -p "$RESULTS_DIR/results"
+RESULT_FILE="$RESULTS_DIR/results/${LABEL}-$(date +%Y%m%d-%H%M%S).json"
+COMPOSE=(docker compose -f "$LOAD_DIR/docker-compose.yml")
+
+for tool in docker k6 curl java; do
+  command -v "$tool" >/dev/null || { echo "$tool is required" >&2; exit 1; }
+done
+
+cleanup() {
+  [ -n "${SERVER_PID:-}" ] && { kill "$SERVER_PID" 2>/dev/null || true; wait "$SERVER_PID" 2>/dev/null || true; }
+  [ -z "${KEEP_DB:-}" ] && "${COMPOSE[@]}" down -v >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+echo "Starting PostgreSQL on port 5433"
+"${COMPOSE[@]}" up -d --wait postgres
+
+echo "Seeding $USERS users x $PLACES_PER_USER places (photos: ${PHOTO_RATIO} of places, ${PHOTO_KB}KB/${THUMBNAIL_KB}KB)"
+"${COMPOSE[@]}" exec -T postgres psql -q -U beanscore -d beanscore \
+  -v users="$USERS" -v places_per_user="$PLACES_PER_USER" -v photo_ratio="$PHOTO_RATIO" \
+  -v photo_kb="$PHOTO_KB" -v thumbnail_kb="$THUMBNAIL_KB" -f /seed.sql
+
+java "$LOAD_DIR/GenerateFixture.java" "$RESULTS_DIR/fixture.jpg" "${UPLOAD_SIZE%x*}" "${UPLOAD_SIZE#*x}"
+
+if [ -z "${SKIP_BUILD:-}" ]; then
+  # shellcheck disable=SC2086
+  ./mvnw -B -q package -DskipTests ${BUILD_FLAGS:-}
+fi
+
+QUARKUS_DATASOURCE_JDBC_URL=jdbc:postgresql://localhost:5433/beanscore \
+QUARKUS_DATASOURCE_USERNAME=beanscore \
+QUARKUS_DATASOURCE_PASSWORD=beanscore123 \
+  java ${JAVA_OPTS:-} -Dquarkus.http.port="$PORT" -jar target/quarkus-app/quarkus-run.jar \
+  >"$RESULTS_DIR/server.log" 2>&1 &
+SERVER_PID=$!
+for _ in $(seq 1 60); do
+  curl -sf "$BASE_URL/q/health/ready" >/dev/null && break
+  sleep 1
+done
+curl -sf "$BASE_URL/q/health/ready" >/dev/null || {
+  echo "Server did not become ready, see $RESULTS_DIR/server.log" >&2
+  exit 1
+}
+
+LABEL="$LABEL" BASE_URL="$BASE_URL" USERS="$USERS" \
+PLACES_PER_USER="$PLACES_PER_USER" PHOTO_KB="$PHOTO_KB" \
+PHOTO_FIXTURE="$RESULTS_DIR/fixture.jpg" RESULT_FILE="$RESULT_FILE" \
+  k6 run --quiet "$LOAD_DIR/scenarios.js"
+
+echo "Report written to $RESULT_FILE; server log in $RESULTS_DIR/server.log"
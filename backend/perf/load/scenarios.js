@@ -0,0 +1,218 @@
+// Replays the mobile app's traffic mix against a seeded database (see run.sh).
+// Each VU signs in as one of the seeded users and picks an operation per
+// iteration using the weights below. Every request is tagged with name:<op>
+// so the summary reports p50/p95/p99 per operation.
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { SharedArray } from 'k6/data';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8089';
+const USERS = parseInt(__ENV.USERS || '200', 10);
+const PASSWORD = 'loadtest-password';
+const PHOTO = open(__ENV.PHOTO_FIXTURE || './target/fixture.jpg', 'b');
+
+// Relative weights; the default roughly matches "open the app, scroll, look at a few places"
+const MIX = new SharedArray('mix', () => {
+  const weights = {
+    login: parseInt(__ENV.W_LOGIN || '2', 10),
+    list: parseInt(__ENV.W_LIST || '30', 10),
+    thumbnails: parseInt(__ENV.W_THUMBNAILS || '40', 10),
+    get: parseInt(__ENV.W_GET || '15', 10),
+    create: parseInt(__ENV.W_CREATE || '5', 10),
+    update: parseInt(__ENV.W_UPDATE || '6', 10),
+    upload: parseInt(__ENV.W_UPLOAD || '2', 10),
+  };
+  const entries = [];
+  let total = 0;
+  for (const [op, weight] of Object.entries(weights)) {
+    total += weight;
+    entries.push({ op, upTo: total });
+  }
+  return entries.map((e) => ({ op: e.op, upTo: e.upTo / total }));
+});
+
+const OPS = ['login', 'list', 'thumbnails', 'get', 'create', 'update', 'upload'];
+
+// A threshold per tag makes k6 emit the tagged sub-metric in the summary
+const thresholds = { http_req_failed: ['rate<0.01'] };
+for (const op of OPS) {
+  thresholds[`http_req_duration{name:${op}}`] = ['max>=0'];
+  thresholds[`http_reqs{name:${op}}`] = ['count>=0'];
+}
+
+export const options = {
+  scenarios: {
+    mix: {
+      executor: 'constant-arrival-rate',
+      rate: parseInt(__ENV.RATE || '200', 10),
+      timeUnit: '1s',
+      duration: __ENV.DURATION || '2m',
+      preAllocatedVUs: parseInt(__ENV.VUS || '100', 10),
+      maxVUs: parseInt(__ENV.MAX_VUS || '400', 10),
+    },
+  },
+  summaryTrendStats: ['avg', 'min', 'med', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds,
+};
+
+// Per-VU state: token plus the place ids seen in the last listing
+let token = null;
+let places = [];
+
+function user() {
+  return `load-user-${((__VU - 1) % USERS) + 1}@beanscore.test`;
+}
+
+function authHeaders(extra) {
+  return Object.assign({ Authorization: `Bearer ${token}` }, extra || {});
+}
+
+function login() {
+  const res = http.post(
+    `${BASE_URL}/auth/login`,
+    JSON.stringify({ email: user(), password: PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' }, tags: { name: 'login' } },
+  );
+  if (check(res, { 'login 200': (r) => r.status === 200 })) {
+    token = res.json('token');
+  }
+}
+
+function list() {
+  const res = http.get(`${BASE_URL}/coffee-places?limit=50`, {
+    headers: authHeaders(),
+    tags: { name: 'list' },
+  });
+  if (check(res, { 'list 200': (r) => r.status === 200 })) {
+    places = res.json('items').map((p) => ({ id: p.id, hasPhoto: p.hasPhoto, place: p }));
+  }
+}
+
+function thumbnails() {
+  const withPhotos = places.filter((p) => p.hasPhoto).slice(0, 12);
+  if (withPhotos.length === 0) {
+    return;
+  }
+  const responses = http.batch(
+    withPhotos.map((p) => ({
+      method: 'GET',
+      url: `${BASE_URL}/coffee-places/${p.id}/photo/thumbnail`,
+      params: { headers: authHeaders(), tags: { name: 'thumbnails' } },
+    })),
+  );
+  check(responses, { 'thumbnails 200': (rs) => rs.every((r) => r.status === 200) });
+}
+
+function pick() {
+  return places[Math.floor(Math.random() * places.length)];
+}
+
+function get() {
+  const p = pick();
+  const res = http.get(`${BASE_URL}/coffee-places/${p.id}`, {
+    headers: authHeaders(),
+    tags: { name: 'get' },
+  });
+  check(res, { 'get 200': (r) => r.status === 200 });
+}
+
+function body(name) {
+  return {
+    name,
+    address: `Rua ${__VU}, ${__ITER} - Porto Alegre`,
+    instagramHandle: null,
+    coffeeQuality: 1 + (__ITER % 5),
+    ambient: 1 + ((__ITER * 7) % 5),
+    hasGlutenFree: __ITER % 4 === 0,
+    hasVegMilk: __ITER % 2 === 0,
+    hasVeganFood: __ITER % 6 === 0,
+    hasSugarFree: __ITER % 5 === 0,
+    latitude: -30.0346 + (Math.random() - 0.5) * 0.3,
+    longitude: -51.2177 + (Math.random() - 0.5) * 0.3,
+  };
+}
+
+function create() {
+  const res = http.post(
+    `${BASE_URL}/coffee-places`,
+    JSON.stringify(body(`Load ${__VU}-${__ITER}`)),
+    { headers: authHeaders({ 'Content-Type': 'application/json' }), tags: { name: 'create' } },
+  );
+  check(res, { 'create 201': (r) => r.status === 201 });
+}
+
+function update() {
+  const p = pick();
+  const res = http.put(
+    `${BASE_URL}/coffee-places/${p.id}`,
+    JSON.stringify(body(p.place.name)),
+    { headers: authHeaders({ 'Content-Type': 'application/json' }), tags: { name: 'update' } },
+  );
+  check(res, { 'update 200': (r) => r.status === 200 });
+}
+
+function upload() {
+  const p = pick();
+  const res = http.post(
+    `${BASE_URL}/coffee-places/${p.id}/photo`,
+    { photo: http.file(PHOTO, 'photo.jpg', 'image/jpeg'), contentType: 'image/jpeg' },
+    { headers: authHeaders(), tags: { name: 'upload' } },
+  );
+  check(res, { 'upload 202': (r) => r.status === 202 });
+}
+
+const HANDLERS = { login, list, thumbnails, get, create, update, upload };
+
+export default function () {
+  if (token === null) {
+    login();
+    list();
+    return;
+  }
+  const roll = Math.random();
+  const op = MIX.find((e) => roll < e.upTo).op;
+  if (op !== 'login' && op !== 'list' && op !== 'create' && places.length === 0) {
+    list();
+    return;
+  }
+  HANDLERS[op]();
+}
+
+// Keeps only what compare.sh needs so result files stay small and diffable
+export function handleSummary(data) {
+  const metric = (name) => (data.metrics[name] ? data.metrics[name].values : null);
+  const operations = {};
+  for (const op of OPS) {
+    const duration = metric(`http_req_duration{name:${op}}`);
+    const reqs = metric(`http_reqs{name:${op}}`);
+    if (duration && reqs && reqs.count > 0) {
+      operations[op] = {
+        count: reqs.count,
+        rps: reqs.rate,
+        p50: duration['p(50)'],
+        p95: duration['p(95)'],
+        p99: duration['p(99)'],
+        max: duration.max,
+      };
+    }
+  }
+  const total = metric('http_reqs');
+  const failed = metric('http_req_failed');
+  const report = {
+    label: __ENV.LABEL || 'unlabelled',
+    config: {
+      users: USERS,
+      rate: options.scenarios.mix.rate,
+      duration: options.scenarios.mix.duration,
+      placesPerUser: __ENV.PLACES_PER_USER || null,
+      photoKb: __ENV.PHOTO_KB || null,
+    },
+    total: { count: total.count, rps: total.rate, failedRate: failed ? failed.rate : 0 },
+    operations,
+  };
+  const out = {};
+  out[__ENV.RESULT_FILE || 'target/result.json'] = JSON.stringify(report, null, 2);
+  out.stdout = `\n${JSON.stringify(report.operations, null, 2)}\n`;
+  return out;
+}
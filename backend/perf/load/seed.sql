@@ -0,0 +1,75 @@
+-- Synthetic dataset for load tests. Run with psql variables, for example:
+--   psql -v users=200 -v places_per_user=150 -v photo_ratio=0.5 \
+--        -v photo_kb=400 -v thumbnail_kb=40 -f seed.sql
+-- Every user is load-user-<n>@beanscore.test with password "loadtest-password".
+-- Re-running replaces the previous synthetic users and their places.
+
+\set ON_ERROR_STOP on
+
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+BEGIN;
+
+DELETE FROM users WHERE email LIKE 'load-user-%@beanscore.test';
+
+-- One bcrypt hash for everyone: hashing per row would dominate seeding time
+INSERT INTO users (email, name, password, created_at, updated_at)
+SELECT 'load-user-' || n || '@beanscore.test',
+       'Load User ' || n,
+       (SELECT crypt('loadtest-password', gen_salt('bf', 10))),
+       NOW() - (n || ' minutes')::interval,
+       NOW() - (n || ' minutes')::interval
+FROM generate_series(1, :users) AS n;
+
+-- Places spread over ~30km around Porto Alegre, created over the last year
+INSERT INTO coffee_places (
+    user_id, name, address, instagram_handle, coffee_quality, ambient,
+    has_gluten_free, has_veg_milk, has_vegan_food, has_sugar_free,
+    latitude, longitude, created_at, updated_at)
+SELECT u.id,
+       'Cafe ' || u.n || '-' || p,
+       'Rua ' || (p % 97) || ', ' || (p * 13 % 2000) || ' - Porto Alegre',
+       CASE WHEN p % 3 = 0 THEN '@cafe' || u.n || '_' || p END,
+       1 + (p % 5),
+       1 + ((p * 7) % 5),
+       p % 4 = 0,
+       p % 2 = 0,
+       p % 6 = 0,
+       p % 5 = 0,
+       -30.0346 + (random() - 0.5) * 0.3,
+       -51.2177 + (random() - 0.5) * 0.3,
+       NOW() - (random() * 365 || ' days')::interval,
+       NOW() - (random() * 30 || ' days')::interval
+FROM (SELECT id, row_number() OVER (ORDER BY email) AS n
+      FROM users WHERE email LIKE 'load-user-%@beanscore.test') AS u
+CROSS JOIN generate_series(1, :places_per_user) AS p;
+
+-- Photos for a share of the places, as JPEG-tagged bytes of the requested sizes
+UPDATE coffee_places c
+SET photo_content_type = 'image/jpeg',
+    photo_updated_at = c.updated_at,
+    photo_status = 'READY'
+FROM users u
+WHERE c.user_id = u.id
+  AND u.email LIKE 'load-user-%@beanscore.test'
+  AND random() < :photo_ratio;
+
+INSERT INTO coffee_place_photos (coffee_place_id, photo, photo_thumbnail)
+SELECT c.id,
+       '\xffd8ffe0'::bytea || decode(repeat(md5(c.id::text), :photo_kb * 32), 'hex'),
+       '\xffd8ffe0'::bytea || decode(repeat(md5(c.id::text), :thumbnail_kb * 32), 'hex')
+FROM coffee_places c
+JOIN users u ON u.id = c.user_id
+WHERE u.email LIKE 'load-user-%@beanscore.test'
+  AND c.photo_content_type IS NOT NULL;
+
+COMMIT;
+
+ANALYZE users;
+ANALYZE coffee_places;
+ANALYZE coffee_place_photos;
+
+SELECT (SELECT count(*) FROM users WHERE email LIKE 'load-user-%@beanscore.test') AS users,
+       (SELECT count(*) FROM coffee_places c JOIN users u ON u.id = c.user_id
+         WHERE u.email LIKE 'load-user-%@beanscore.test') AS places,
+       (SELECT count(*) FROM coffee_place_photos) AS photos;
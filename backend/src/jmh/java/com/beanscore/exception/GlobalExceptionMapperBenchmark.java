@@ -0,0 +1,50 @@
+package com.beanscore.exception;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.Response;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Mapping of the exceptions thrown on the common 4xx paths. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionMapperBenchmark {
+
+  @Param({"not-found", "unauthorized", "bad-request"})
+  String kind;
+
+  private final GlobalExceptionMapper mapper = new GlobalExceptionMapper();
+
+  private Exception exception;
+
+  @Setup
+  public void setUp() {
+    exception =
+        switch (kind) {
+          case "not-found" -> new NotFoundException("Coffee place not found");
+          case "unauthorized" -> new NotAuthorizedException("Invalid email or password");
+          default -> new BadRequestException("limit must be between 1 and 200");
+        };
+  }
+
+  @Benchmark
+  public Response toResponse() {
+    return mapper.toResponse(exception);
+  }
+}
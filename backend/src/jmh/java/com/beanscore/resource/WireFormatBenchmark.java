@@ -0,0 +1,165 @@
+package com.beanscore.resource;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.beanscore.dto.response.CoffeePlaceResponse;
+import com.beanscore.storage.ContentHash;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CPU cost of encoding a listing response in each format and content encoding a client can
+ * negotiate. Compression uses the server's defaults: gzip level 6 and brotli quality 4. Run
+ * {@link #main} for the payload sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+  private static final int GZIP_LEVEL = 6;
+
+  private static final int BROTLI_QUALITY = 4;
+
+  @Param({"100", "1000", "10000"})
+  int size;
+
+  @Param({"json", "cbor"})
+  String format;
+
+  @Param({"identity", "gzip", "br"})
+  String encoding;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final CborMessageBodyWriter cborWriter = new CborMessageBodyWriter(objectMapper);
+
+  private List<CoffeePlaceResponse> responses;
+
+  @Setup
+  public void setUp() {
+    Brotli4jLoader.ensureAvailability();
+    responses = responses(size);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return encode(serialize(format, responses), encoding);
+  }
+
+  /** Prints the payload size of each format and content encoding. */
+  public static void main(String[] args) throws IOException {
+    Brotli4jLoader.ensureAvailability();
+    WireFormatBenchmark benchmark = new WireFormatBenchmark();
+    System.out.printf("%8s %-6s %12s %12s %12s%n", "places", "format", "identity", "gzip", "br");
+    for (int size : new int[] {100, 1000, 10000}) {
+      List<CoffeePlaceResponse> responses = responses(size);
+      for (String format : List.of("json", "cbor")) {
+        byte[] payload = benchmark.serialize(format, responses);
+        System.out.printf(
+            "%8d %-6s %12d %12d %12d%n",
+            size,
+            format,
+            payload.length,
+            encode(payload, "gzip").length,
+            encode(payload, "br").length);
+      }
+    }
+  }
+
+  private byte[] serialize(String format, List<CoffeePlaceResponse> responses)
+      throws IOException {
+    if (format.equals("json")) {
+      return objectMapper.writeValueAsBytes(responses);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    cborWriter.writeTo(
+        responses,
+        List.class,
+        List.class,
+        new Annotation[0],
+        CborMessageBodyWriter.APPLICATION_CBOR_TYPE,
+        null,
+        out);
+    return out.toByteArray();
+  }
+
+  private static byte[] encode(byte[] payload, String encoding) throws IOException {
+    return switch (encoding) {
+      case "identity" -> payload;
+      case "gzip" -> {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip =
+            new GZIPOutputStream(out) {
+              {
+                def.setLevel(GZIP_LEVEL);
+              }
+            }) {
+          gzip.write(payload);
+        }
+        yield out.toByteArray();
+      }
+      case "br" ->
+          Encoder.compress(
+              payload,
+              new Encoder.Parameters().setQuality(BROTLI_QUALITY).setMode(Encoder.Mode.GENERIC));
+      default -> throw new IllegalArgumentException("Unknown encoding " + encoding);
+    };
+  }
+
+  private static List<CoffeePlaceResponse> responses(int size) {
+    List<CoffeePlaceResponse> responses = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      String id = UUID.randomUUID().toString();
+      responses.add(
+          new CoffeePlaceResponse(
+              id,
+              "Coffee Place " + i,
+              "Rua das Flores " + i + ", Porto Alegre",
+              "@coffee" + i,
+              i % 5 + 1,
+              (i + 2) % 5 + 1,
+              i % 2 == 0,
+              i % 3 == 0,
+              i % 4 == 0,
+              i % 5 == 0,
+              new BigDecimal("-30.0346").add(BigDecimal.valueOf(i, 6)),
+              new BigDecimal("-51.2177").subtract(BigDecimal.valueOf(i, 6)),
+              i % 2 == 0,
+              i % 2 == 0 ? "READY" : null,
+              i % 2 == 0 ? photoUrls(id) : null));
+    }
+    return responses;
+  }
+
+  private static CoffeePlaceResponse.PhotoUrls photoUrls(String id) {
+    String photo = "/coffee-places/" + id + "/photo/";
+    return new CoffeePlaceResponse.PhotoUrls(
+        photo + "thumbnail/" + ContentHash.of(id.getBytes(StandardCharsets.UTF_8)),
+        photo + "medium/" + ContentHash.of((id + "m").getBytes(StandardCharsets.UTF_8)),
+        photo + "full/" + ContentHash.of((id + "f").getBytes(StandardCharsets.UTF_8)));
+  }
+}
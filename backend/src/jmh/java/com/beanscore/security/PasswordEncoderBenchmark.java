@@ -0,0 +1,43 @@
+package com.beanscore.security;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Cost of a login's password check at the bcrypt costs worth considering. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+  @Param({"8", "10", "12"})
+  int cost;
+
+  private PasswordEncoder passwordEncoder;
+
+  private String hash;
+
+  @Setup
+  public void setUp() {
+    passwordEncoder = new PasswordEncoder();
+    passwordEncoder.cost = cost;
+    hash = passwordEncoder.encode("correct horse battery staple");
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return passwordEncoder.matches("correct horse battery staple", hash);
+  }
+}
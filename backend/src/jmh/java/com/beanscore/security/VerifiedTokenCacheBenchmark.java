@@ -0,0 +1,57 @@
+package com.beanscore.security;
+
+import com.beanscore.entity.User;
+import com.beanscore.service.JwtService;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.ParseException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** A cached bearer token check, to compare with {@code JwtBenchmark.verify}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifiedTokenCacheBenchmark {
+
+  private VerifiedTokenCache cache;
+
+  private String token;
+
+  @Setup
+  public void setUp() throws ParseException {
+    System.setProperty("smallrye.jwt.sign.key.location", "META-INF/resources/privateKey.pem");
+
+    User user = new User();
+    user.id = UUID.randomUUID();
+    user.email = "benchmark@beanscore.com";
+    user.name = "Benchmark";
+    token = new JwtService().generateToken(user);
+
+    DefaultJWTParser parser =
+        new DefaultJWTParser(
+            new JWTAuthContextInfo("META-INF/resources/publicKey.pem", "https://beanscore.com"));
+    cache = new VerifiedTokenCache();
+    cache.maxSize = 10_000;
+    cache.put(token, parser.parse(token));
+  }
+
+  @Benchmark
+  public JsonWebToken verifyCached() {
+    return cache.get(token);
+  }
+}
@@ -0,0 +1,87 @@
+package com.beanscore.service;
+
+import com.beanscore.dto.response.CoffeePlaceResponse;
+import com.beanscore.entity.CoffeePlace;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Entity-to-DTO mapping and JSON serialization of a listing response. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoffeePlaceResponseBenchmark {
+
+  @Param({"10", "1000", "10000"})
+  int size;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private List<CoffeePlace> coffeePlaces;
+
+  private List<CoffeePlaceResponse> responses;
+
+  @Setup
+  public void setUp() {
+    coffeePlaces = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      CoffeePlace coffeePlace = new CoffeePlace();
+      coffeePlace.id = UUID.randomUUID();
+      coffeePlace.userId = UUID.randomUUID();
+      coffeePlace.name = "Coffee Place " + i;
+      coffeePlace.address = "Rua das Flores " + i + ", Porto Alegre";
+      coffeePlace.instagramHandle = "@coffee" + i;
+      coffeePlace.coffeeQuality = i % 5 + 1;
+      coffeePlace.ambient = (i + 2) % 5 + 1;
+      coffeePlace.hasGlutenFree = i % 2 == 0;
+      coffeePlace.hasVegMilk = i % 3 == 0;
+      coffeePlace.hasVeganFood = i % 4 == 0;
+      coffeePlace.hasSugarFree = i % 5 == 0;
+      coffeePlace.latitude = new BigDecimal("-30.0346").add(BigDecimal.valueOf(i, 6));
+      coffeePlace.longitude = new BigDecimal("-51.2177").subtract(BigDecimal.valueOf(i, 6));
+      coffeePlace.photoContentType = i % 2 == 0 ? "image/jpeg" : null;
+      coffeePlace.createdAt = LocalDateTime.now();
+      coffeePlace.updatedAt = coffeePlace.createdAt;
+      coffeePlaces.add(coffeePlace);
+    }
+    responses = map();
+  }
+
+  @Benchmark
+  public List<CoffeePlaceResponse> map() {
+    List<CoffeePlaceResponse> mapped = new ArrayList<>(coffeePlaces.size());
+    for (CoffeePlace coffeePlace : coffeePlaces) {
+      mapped.add(CoffeePlaceService.mapToCoffeePlaceResponse(coffeePlace));
+    }
+    return mapped;
+  }
+
+  @Benchmark
+  public byte[] serialize() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(responses);
+  }
+
+  @Benchmark
+  public byte[] mapAndSerialize() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(map());
+  }
+}
@@ -0,0 +1,66 @@
+package com.beanscore.service;
+
+import com.beanscore.entity.User;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.ParseException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Token signing on login and the signature check every authenticated request pays. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+  private static final String ISSUER = "https://beanscore.com";
+
+  private JwtService jwtService;
+
+  private User user;
+
+  private DefaultJWTParser parser;
+
+  private String token;
+
+  @Setup
+  public void setUp() {
+    // Same keys as application.properties; outside Quarkus they are read from system properties
+    System.setProperty("smallrye.jwt.sign.key.location", "META-INF/resources/privateKey.pem");
+
+    jwtService = new JwtService();
+    user = new User();
+    user.id = UUID.randomUUID();
+    user.email = "benchmark@beanscore.com";
+    user.name = "Benchmark";
+
+    parser =
+        new DefaultJWTParser(
+            new JWTAuthContextInfo("META-INF/resources/publicKey.pem", ISSUER));
+    token = jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  public JsonWebToken verify() throws ParseException {
+    return parser.parse(token);
+  }
+}
@@ -31,9 +31,123 @@ CREATE TABLE IF NOT EXISTS coffee_places (
 
 CREATE INDEX IF NOT EXISTS idx_coffee_places_user_id ON coffee_places(user_id);
 CREATE INDEX IF NOT EXISTS idx_coffee_places_created_at ON coffee_places(created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_coffee_places_user_created ON coffee_places(user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_coffee_places_user_updated ON coffee_places(user_id, updated_at DESC, id DESC);
 
--- Add photo columns to coffee_places table
+-- Add photo content type and version to coffee_places table
 ALTER TABLE coffee_places
-  ADD COLUMN photo BYTEA,
-  ADD COLUMN photo_thumbnail BYTEA,
-  ADD COLUMN photo_content_type VARCHAR(50);
+  ADD COLUMN IF NOT EXISTS photo_content_type VARCHAR(50),
+  ADD COLUMN IF NOT EXISTS photo_updated_at TIMESTAMP,
+  ADD COLUMN IF NOT EXISTS photo_status VARCHAR(20);
+
+-- Geohash of (latitude, longitude) for nearby lookups; backfilled by the API on startup
+ALTER TABLE coffee_places
+  ADD COLUMN IF NOT EXISTS geohash VARCHAR(9);
+
+CREATE INDEX IF NOT EXISTS idx_coffee_places_user_geohash ON coffee_places(user_id, geohash varchar_pattern_ops);
+
+-- Coffee Place Photos Table (image bytes kept out of coffee_places)
+CREATE TABLE IF NOT EXISTS coffee_place_photos (
+    coffee_place_id UUID PRIMARY KEY REFERENCES coffee_places(id) ON DELETE CASCADE,
+    photo BYTEA,
+    photo_thumbnail BYTEA
+);
+
+-- Move photos stored inline on coffee_places into coffee_place_photos
+DO $$
+BEGIN
+  IF EXISTS (
+    SELECT 1 FROM information_schema.columns
+    WHERE table_name = 'coffee_places' AND column_name = 'photo'
+  ) THEN
+    INSERT INTO coffee_place_photos (coffee_place_id, photo, photo_thumbnail)
+      SELECT id, photo, photo_thumbnail FROM coffee_places WHERE photo IS NOT NULL
+      ON CONFLICT (coffee_place_id) DO NOTHING;
+
+    ALTER TABLE coffee_places
+      DROP COLUMN photo,
+      DROP COLUMN photo_thumbnail;
+  END IF;
+END $$;
+
+-- Server-generated renditions (the thumbnail column holds the generated one once ready)
+ALTER TABLE coffee_place_photos
+  ADD COLUMN IF NOT EXISTS photo_medium BYTEA,
+  ADD COLUMN IF NOT EXISTS photo_full BYTEA;
+
+-- Deleted place ids, so delta sync can tell clients what to drop; pruned after the retention period
+CREATE TABLE IF NOT EXISTS coffee_place_deletions (
+    coffee_place_id UUID PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    deleted_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_coffee_place_deletions_user_deleted ON coffee_place_deletions(user_id, deleted_at);
+CREATE INDEX IF NOT EXISTS idx_coffee_place_deletions_deleted ON coffee_place_deletions(deleted_at);
+
+-- Trigram search over name, address and Instagram handle (GET /coffee-places/search).
+-- The indexed expression must match CoffeePlaceQueries.SEARCH_DOCUMENT.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_coffee_places_search_trgm ON coffee_places
+  USING gin ((lower(name || ' ' || address || ' ' || coalesce(instagram_handle, ''))) gin_trgm_ops);
+
+-- Per-user rating statistics (GET /coffee-places/stats), kept in step with coffee_places by the
+-- API in the same transaction as each write; checked against a full scan by a scheduled job
+CREATE TABLE IF NOT EXISTS coffee_place_stats (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    place_count BIGINT NOT NULL DEFAULT 0,
+    coffee_quality_sum BIGINT NOT NULL DEFAULT 0,
+    ambient_sum BIGINT NOT NULL DEFAULT 0,
+    coffee_quality_1 BIGINT NOT NULL DEFAULT 0,
+    coffee_quality_2 BIGINT NOT NULL DEFAULT 0,
+    coffee_quality_3 BIGINT NOT NULL DEFAULT 0,
+    coffee_quality_4 BIGINT NOT NULL DEFAULT 0,
+    coffee_quality_5 BIGINT NOT NULL DEFAULT 0,
+    ambient_1 BIGINT NOT NULL DEFAULT 0,
+    ambient_2 BIGINT NOT NULL DEFAULT 0,
+    ambient_3 BIGINT NOT NULL DEFAULT 0,
+    ambient_4 BIGINT NOT NULL DEFAULT 0,
+    ambient_5 BIGINT NOT NULL DEFAULT 0,
+    gluten_free_count BIGINT NOT NULL DEFAULT 0,
+    veg_milk_count BIGINT NOT NULL DEFAULT 0,
+    vegan_food_count BIGINT NOT NULL DEFAULT 0,
+    sugar_free_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Places per month of creation, for the same statistics
+CREATE TABLE IF NOT EXISTS coffee_place_monthly_stats (
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    month DATE NOT NULL,
+    place_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, month)
+);
+
+-- Accounts pending deletion are blocked at once and keep their row until the purge job has
+-- removed their places
+ALTER TABLE users
+  ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+-- Progress of account purges (DELETE /user, GET /user/deletion). Not tied to users by a foreign
+-- key: the row outlives the account so the outcome stays queryable until the retention period ends
+CREATE TABLE IF NOT EXISTS account_deletions (
+    user_id UUID PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    places_total BIGINT NOT NULL,
+    places_deleted BIGINT NOT NULL DEFAULT 0,
+    photos_deleted BIGINT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    requested_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_account_deletions_status ON account_deletions(status, requested_at);
+
+-- Content hash of the image each photo URL serves (the rendition, or the original until it is
+-- generated); versioned photo URLs embed it and are cached as immutable
+ALTER TABLE coffee_places
+  ADD COLUMN IF NOT EXISTS photo_thumbnail_hash VARCHAR(32),
+  ADD COLUMN IF NOT EXISTS photo_medium_hash VARCHAR(32),
+  ADD COLUMN IF NOT EXISTS photo_full_hash VARCHAR(32);
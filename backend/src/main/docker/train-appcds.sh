@@ -0,0 +1,149 @@
+#!/bin/bash
+#
+# Records the class-data archive used by Dockerfile.jvm-appcds. The application
+# runs in the Dockerfile.jvm image, so the archive matches the exact JDK and the
+# /deployments class path it is used with, while a client drives the real
+# endpoints (auth, listing in JSON and CBOR, search, nearby, CRUD, batch, photo
+# upload and renditions, thumbnail bundles, changes, stats, export/import and
+# account deletion). Every class they load is archived when the JVM exits, not
+# only the ones needed to reach "started".
+#
+# Writes target/quarkus-app/app-cds.jsa (-XX:ArchiveClassesAtExit); on a JDK 25+
+# base image it writes a Leyden AOT cache, target/quarkus-app/app.aot
+# (-XX:AOTCacheOutput), instead.
+#
+# Run by `./mvnw package -Pappcds` after the application is packaged. Requires
+# docker, curl, jq and a PostgreSQL with the schema of init.sql; the training
+# user and its places are deleted at the end.
+#
+# Usage: src/main/docker/train-appcds.sh [rounds]
+#   TRAINING_JDBC_URL=jdbc:postgresql://localhost:5432/beanscore
+#   TRAINING_DB_USERNAME=beanscore TRAINING_DB_PASSWORD=beanscore123 PORT=8089
+
+set -euo pipefail
+
+ROUNDS=${1:-${TRAINING_ROUNDS:-20}}
+PORT=${PORT:-8089}
+BASE_URL="http://localhost:${PORT}"
+IMAGE=beanscore-api-training
+
+cd "$(dirname "$0")/../../.."
+APP_DIR="$PWD/target/quarkus-app"
+TRAINING_DIR="$PWD/target/appcds-training"
+mkdir -p "$TRAINING_DIR"
+
+for tool in docker curl jq java; do
+  command -v "$tool" >/dev/null || { echo "$tool is required" >&2; exit 1; }
+done
+[ -f "$APP_DIR/quarkus-run.jar" ] || { echo "Package the application first" >&2; exit 1; }
+
+docker build -q -f src/main/docker/Dockerfile.jvm -t "$IMAGE" . >/dev/null
+
+JAVA_FEATURE=$(docker run --rm --entrypoint java "$IMAGE" -XshowSettings:properties -version 2>&1 |
+  awk -F= '/java.specification.version/ {gsub(/ /, "", $2); print $2}')
+if [ "$JAVA_FEATURE" -ge 25 ]; then
+  ARCHIVE=app.aot
+  RECORD="-XX:AOTCacheOutput=/training/$ARCHIVE"
+else
+  ARCHIVE=app-cds.jsa
+  RECORD="-XX:ArchiveClassesAtExit=/training/$ARCHIVE"
+fi
+rm -f "$APP_DIR/app-cds.jsa" "$APP_DIR/app.aot"
+
+# Same options as Dockerfile.jvm, plus the recording flag
+CONTAINER=$(docker run -d --network host --user "$(id -u)" \
+  -v "$APP_DIR:/training" \
+  -e QUARKUS_HTTP_PORT="$PORT" \
+  -e QUARKUS_DATASOURCE_JDBC_URL="${TRAINING_JDBC_URL:-jdbc:postgresql://localhost:5432/beanscore}" \
+  -e QUARKUS_DATASOURCE_USERNAME="${TRAINING_DB_USERNAME:-beanscore}" \
+  -e QUARKUS_DATASOURCE_PASSWORD="${TRAINING_DB_PASSWORD:-beanscore123}" \
+  -e JAVA_OPTS_APPEND="-Dquarkus.http.host=0.0.0.0 -Djava.util.logging.manager=org.jboss.logmanager.LogManager $RECORD" \
+  "$IMAGE")
+
+cleanup() {
+  docker logs "$CONTAINER" >"$TRAINING_DIR/server.log" 2>&1 || true
+  docker rm -f "$CONTAINER" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+for _ in $(seq 1 120); do
+  curl -sf "$BASE_URL/q/health/ready" >/dev/null && break
+  sleep 1
+done
+curl -sf "$BASE_URL/q/health/ready" >/dev/null || {
+  docker logs "$CONTAINER" >"$TRAINING_DIR/server.log" 2>&1
+  echo "Server did not become ready, see $TRAINING_DIR/server.log" >&2
+  exit 1
+}
+
+[ -f "$TRAINING_DIR/photo.jpg" ] || java perf/load/GenerateFixture.java "$TRAINING_DIR/photo.jpg" 1200 900
+
+EMAIL="appcds-$(date +%s%N)@beanscore.com"
+PASSWORD=training-password
+call() {
+  curl -sf -o /dev/null -H "Authorization: Bearer $TOKEN" "$@"
+}
+json() {
+  curl -sf -H "Authorization: Bearer $TOKEN" -H 'Content-Type: application/json' "$@"
+}
+place() {
+  echo "{\"name\":\"Training $1\",\"address\":\"Street $1\",\"instagramHandle\":\"@training$1\",\"coffeeQuality\":$(($1 % 5 + 1)),\"ambient\":$((($1 + 2) % 5 + 1)),\"hasGlutenFree\":true,\"hasVegMilk\":false,\"hasVeganFood\":true,\"hasSugarFree\":false,\"latitude\":-30.03$1,\"longitude\":-51.21$1}"
+}
+
+TOKEN=$(curl -sf -X POST "$BASE_URL/auth/register" -H 'Content-Type: application/json' \
+  -d "{\"email\":\"$EMAIL\",\"password\":\"$PASSWORD\",\"name\":\"Training\"}" | jq -r .token)
+
+echo "Training $ARCHIVE with $ROUNDS rounds against $BASE_URL"
+for round in $(seq 1 "$ROUNDS"); do
+  TOKEN=$(curl -sf -X POST "$BASE_URL/auth/login" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$EMAIL\",\"password\":\"$PASSWORD\"}" | jq -r .token)
+  call "$BASE_URL/auth/me"
+
+  ID=$(json -X POST "$BASE_URL/coffee-places" -d "$(place "$round")" | jq -r .id)
+  json -o /dev/null -X PUT "$BASE_URL/coffee-places/$ID" -d "$(place "$((round + 1))")"
+  json -o /dev/null -X POST "$BASE_URL/coffee-places/batch" \
+    -d "[{\"op\":\"create\",\"place\":$(place "$((round + 2))")},{\"op\":\"update\",\"id\":\"$ID\",\"place\":$(place "$round")}]"
+  call -X POST "$BASE_URL/coffee-places/$ID/photo" \
+    -F "photo=@$TRAINING_DIR/photo.jpg;type=application/octet-stream" -F "contentType=image/jpeg"
+
+  ETAG=$(curl -sf -D - -o /dev/null -H "Authorization: Bearer $TOKEN" "$BASE_URL/coffee-places" |
+    awk 'tolower($1) == "etag:" {print $2}' | tr -d '\r')
+  call -H "If-None-Match: $ETAG" "$BASE_URL/coffee-places"
+  call -H 'Accept: application/cbor' -H 'Accept-Encoding: br' "$BASE_URL/coffee-places?limit=20"
+  call -H 'Accept-Encoding: gzip' "$BASE_URL/coffee-places?sort=updated&hasGlutenFree=true"
+  call "$BASE_URL/coffee-places/search?q=Training"
+  call "$BASE_URL/coffee-places/nearby?lat=-30.03&lng=-51.21&radiusKm=10"
+  call "$BASE_URL/coffee-places/changes"
+  call -H 'Accept: application/cbor' "$BASE_URL/coffee-places/stats"
+
+  PLACE=$(json "$BASE_URL/coffee-places/$ID")
+  call "$BASE_URL/coffee-places/$ID/photo/thumbnail"
+  call "$BASE_URL/coffee-places/$ID/photo/medium"
+  call "$BASE_URL/coffee-places/$ID/photo"
+  for url in $(echo "$PLACE" | jq -r '.photoUrls // {} | .[]'); do
+    call "$BASE_URL$url"
+  done
+  call -X POST -H 'Content-Type: application/json' -d "[\"$ID\"]" "$BASE_URL/coffee-places/thumbnails"
+
+  # Only a couple of the exported lines are imported back, so the export stays small
+  curl -sf -H "Authorization: Bearer $TOKEN" -o "$TRAINING_DIR/export.ndjson" \
+    "$BASE_URL/coffee-places/export"
+  head -n 2 "$TRAINING_DIR/export.ndjson" >"$TRAINING_DIR/import.ndjson"
+  call -X POST -H 'Content-Type: application/x-ndjson' --data-binary "@$TRAINING_DIR/import.ndjson" \
+    "$BASE_URL/coffee-places/import"
+
+  call -X DELETE "$BASE_URL/coffee-places/$ID/photo"
+  call -X DELETE "$BASE_URL/coffee-places/$ID"
+done
+
+call -X DELETE "$BASE_URL/user"
+sleep 2
+call "$BASE_URL/user/deletion" || true
+
+# The archive is written while the JVM exits on SIGTERM
+docker stop -t 120 "$CONTAINER" >/dev/null
+[ -s "$APP_DIR/$ARCHIVE" ] || {
+  echo "No archive was written, see $TRAINING_DIR/server.log" >&2
+  exit 1
+}
+echo "Wrote $APP_DIR/$ARCHIVE ($(du -h "$APP_DIR/$ARCHIVE" | cut -f1))"
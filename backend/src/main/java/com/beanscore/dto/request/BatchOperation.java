@@ -0,0 +1,12 @@
+package com.beanscore.dto.request;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.UUID;
+
+/**
+ * One queued change in a {@code POST /coffee-places/batch} request. {@code op} is {@code create}
+ * (with {@code place}), {@code update} (with {@code id} and {@code place}) or {@code delete} (with
+ * {@code id}).
+ */
+@RegisterForReflection
+public record BatchOperation(String op, UUID id, CreateCoffeePlaceRequest place) {}
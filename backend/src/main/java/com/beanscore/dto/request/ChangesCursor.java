@@ -0,0 +1,54 @@
+package com.beanscore.dto.request;
+
+import jakarta.ws.rs.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque delta sync position. {@code since} is when the client's copy was last known complete:
+ * deletes from then on are reported, and so are changes unless the client is part-way through a
+ * change set, in which case {@code afterTimestamp}/{@code afterId} mark the last place it received
+ * in {@code (updatedAt, id)} order.
+ */
+public record ChangesCursor(LocalDateTime since, LocalDateTime afterTimestamp, UUID afterId) {
+
+  public static ChangesCursor from(LocalDateTime since) {
+    return new ChangesCursor(since, null, null);
+  }
+
+  public boolean midChangeSet() {
+    return afterId != null;
+  }
+
+  public String encode() {
+    String raw =
+        "changes|"
+            + since
+            + "|"
+            + (afterTimestamp == null ? "" : afterTimestamp)
+            + "|"
+            + (afterId == null ? "" : afterId);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static ChangesCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\|", -1);
+      if (parts.length != 4 || !parts[0].equals("changes")) {
+        throw new IllegalArgumentException("Malformed cursor");
+      }
+      boolean mid = !parts[3].isEmpty();
+      return new ChangesCursor(
+          LocalDateTime.parse(parts[1]),
+          mid ? LocalDateTime.parse(parts[2]) : null,
+          mid ? UUID.fromString(parts[3]) : null);
+    } catch (RuntimeException e) {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.beanscore.dto.request;
+
+/**
+ * Optional criteria for narrowing a user's coffee places. Dietary flags only filter when {@code
+ * true}; a {@code null} search term or minimum quality means "any".
+ */
+public record CoffeePlaceFilter(
+    String search,
+    boolean hasGlutenFree,
+    boolean hasVegMilk,
+    boolean hasVeganFood,
+    boolean hasSugarFree,
+    Integer minCoffeeQuality) {
+
+  public static final CoffeePlaceFilter NONE =
+      new CoffeePlaceFilter(null, false, false, false, false, null);
+
+  public boolean hasSearch() {
+    return search != null && !search.isBlank();
+  }
+}
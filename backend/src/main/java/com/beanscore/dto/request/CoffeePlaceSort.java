@@ -0,0 +1,54 @@
+package com.beanscore.dto.request;
+
+import io.quarkus.panache.common.Sort;
+import jakarta.ws.rs.BadRequestException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/** Orderings supported by the coffee place listing; each one is backed by a keyset index. */
+public enum CoffeePlaceSort {
+  NEWEST("newest", "createdAt", Sort.Direction.Descending),
+  OLDEST("oldest", "createdAt", Sort.Direction.Ascending),
+  RECENTLY_UPDATED("updated", "updatedAt", Sort.Direction.Descending);
+
+  private final String param;
+  private final String column;
+  private final Sort.Direction direction;
+
+  CoffeePlaceSort(String param, String column, Sort.Direction direction) {
+    this.param = param;
+    this.column = column;
+    this.direction = direction;
+  }
+
+  public String param() {
+    return param;
+  }
+
+  public String column() {
+    return column;
+  }
+
+  public boolean descending() {
+    return direction == Sort.Direction.Descending;
+  }
+
+  public Sort toSort() {
+    return Sort.by(column, direction).and("id", direction);
+  }
+
+  public static CoffeePlaceSort fromParam(String value) {
+    return Arrays.stream(values())
+        .filter(sort -> sort.param.equalsIgnoreCase(value))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new BadRequestException(
+                    "Unknown sort '"
+                        + value
+                        + "', expected one of: "
+                        + Arrays.stream(values())
+                            .map(CoffeePlaceSort::param)
+                            .collect(Collectors.joining(", "))));
+  }
+}
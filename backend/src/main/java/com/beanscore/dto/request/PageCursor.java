@@ -0,0 +1,44 @@
+package com.beanscore.dto.request;
+
+import jakarta.ws.rs.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position: the sort column value and id of the last row a client has seen. The
+ * sort is encoded too, so a cursor cannot be replayed against a different ordering.
+ */
+public record PageCursor(CoffeePlaceSort sort, LocalDateTime timestamp, UUID id) {
+
+  public String encode() {
+    String raw = sort.param() + "|" + timestamp + "|" + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static PageCursor decode(String cursor, CoffeePlaceSort expectedSort) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\|");
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Malformed cursor");
+      }
+      PageCursor pageCursor =
+          new PageCursor(
+              CoffeePlaceSort.fromParam(parts[0]),
+              LocalDateTime.parse(parts[1]),
+              UUID.fromString(parts[2]));
+      if (pageCursor.sort() != expectedSort) {
+        throw new BadRequestException("Cursor was issued for a different sort order");
+      }
+      return pageCursor;
+    } catch (BadRequestException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+}
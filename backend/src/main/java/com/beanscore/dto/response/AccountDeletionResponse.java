@@ -0,0 +1,18 @@
+package com.beanscore.dto.response;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of an account deletion. {@code status} is {@code IN_PROGRESS} until every place and
+ * photo is gone, then {@code COMPLETED}.
+ */
+@RegisterForReflection
+public record AccountDeletionResponse(
+    String status,
+    long placesTotal,
+    long placesDeleted,
+    long photosDeleted,
+    LocalDateTime requestedAt,
+    LocalDateTime updatedAt,
+    LocalDateTime completedAt) {}
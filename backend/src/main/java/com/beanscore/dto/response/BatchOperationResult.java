@@ -0,0 +1,11 @@
+package com.beanscore.dto.response;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Outcome of the operation at {@code index} in a batch, with the status the equivalent single
+ * request would have returned. {@code place} is set for creates and updates, {@code error} for
+ * rejected operations.
+ */
+@RegisterForReflection
+public record BatchOperationResult(int index, int status, CoffeePlaceResponse place, String error) {}
@@ -0,0 +1,13 @@
+package com.beanscore.dto.response;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.List;
+
+/**
+ * Places created or updated since a delta sync cursor, ids of places deleted since then, and the
+ * cursor for the next call. When {@code hasMore} is set, call again right away with {@code
+ * cursor}.
+ */
+@RegisterForReflection
+public record CoffeePlaceChanges(
+    List<CoffeePlaceResponse> places, List<String> deleted, String cursor, boolean hasMore) {}
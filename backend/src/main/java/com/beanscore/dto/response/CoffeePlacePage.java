@@ -0,0 +1,5 @@
+package com.beanscore.dto.response;
+
+import java.util.List;
+
+public record CoffeePlacePage(List<CoffeePlaceResponse> items, String nextCursor) {}
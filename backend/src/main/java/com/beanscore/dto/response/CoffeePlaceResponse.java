@@ -17,4 +17,14 @@ public record CoffeePlaceResponse(
     Boolean hasSugarFree,
     BigDecimal latitude,
     BigDecimal longitude,
-    Boolean hasPhoto) {}
+    Boolean hasPhoto,
+    String photoStatus,
+    PhotoUrls photoUrls) {
+
+  /**
+   * Paths of the photo renditions with their content hash embedded, served as immutable. A new
+   * upload or a generated rendition changes the path. {@code null} until the photo has hashes.
+   */
+  @RegisterForReflection
+  public record PhotoUrls(String thumbnail, String medium, String full) {}
+}
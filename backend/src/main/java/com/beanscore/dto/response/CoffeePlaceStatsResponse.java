@@ -0,0 +1,27 @@
+package com.beanscore.dto.response;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics over the current user's places. Averages are {@code null} when there are no places;
+ * histograms map each rating from 1 to 5 to how many places have it.
+ */
+@RegisterForReflection
+public record CoffeePlaceStatsResponse(
+    long placeCount,
+    Double averageCoffeeQuality,
+    Double averageAmbient,
+    Map<Integer, Long> coffeeQualityHistogram,
+    Map<Integer, Long> ambientHistogram,
+    DietaryOptions dietaryOptions,
+    List<MonthCount> placesPerMonth) {
+
+  @RegisterForReflection
+  public record DietaryOptions(long glutenFree, long vegMilk, long veganFood, long sugarFree) {}
+
+  /** Places created in {@code month} ({@code yyyy-MM}) that still exist. */
+  @RegisterForReflection
+  public record MonthCount(String month, long count) {}
+}
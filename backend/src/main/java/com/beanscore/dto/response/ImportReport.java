@@ -0,0 +1,17 @@
+package com.beanscore.dto.response;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.util.List;
+
+/**
+ * Outcome of an NDJSON import. Line numbers are 1-based; at most {@code MAX_ERRORS} failures are
+ * listed, {@code failed} always has the full count.
+ */
+@RegisterForReflection
+public record ImportReport(int imported, int failed, List<LineError> errors) {
+
+  public static final int MAX_ERRORS = 1000;
+
+  @RegisterForReflection
+  public record LineError(long line, String message) {}
+}
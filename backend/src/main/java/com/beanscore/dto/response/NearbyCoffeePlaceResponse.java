@@ -0,0 +1,6 @@
+package com.beanscore.dto.response;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public record NearbyCoffeePlaceResponse(CoffeePlaceResponse place, double distanceKm) {}
@@ -0,0 +1,55 @@
+package com.beanscore.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A requested account deletion and how far its purge has got. The account is blocked as soon as
+ * this is created; the purge job then removes its places chunk by chunk and finally the user row.
+ */
+@Entity
+@Table(name = "account_deletions")
+public class AccountDeletion extends PanacheEntityBase {
+
+  @Id
+  @Column(name = "user_id")
+  public UUID userId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  public AccountDeletionStatus status;
+
+  @Column(name = "places_total", nullable = false)
+  public long placesTotal;
+
+  @Column(name = "places_deleted", nullable = false)
+  public long placesDeleted;
+
+  @Column(name = "photos_deleted", nullable = false)
+  public long photosDeleted;
+
+  @Column(name = "last_error", length = 500)
+  public String lastError;
+
+  @Column(name = "requested_at", nullable = false, updatable = false)
+  public LocalDateTime requestedAt;
+
+  @Column(name = "updated_at", nullable = false)
+  public LocalDateTime updatedAt;
+
+  @Column(name = "completed_at")
+  public LocalDateTime completedAt;
+
+  @PrePersist
+  protected void onCreate() {
+    requestedAt = LocalDateTime.now();
+    updatedAt = LocalDateTime.now();
+  }
+
+  @PreUpdate
+  protected void onUpdate() {
+    updatedAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,7 @@
+package com.beanscore.entity;
+
+/** Progress of the background purge of a deleted account. */
+public enum AccountDeletionStatus {
+  IN_PROGRESS,
+  COMPLETED
+}
@@ -1,5 +1,7 @@
 package com.beanscore.entity;
 
+import com.beanscore.geo.GeoHash;
+import com.beanscore.storage.ContentHash;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
@@ -54,15 +56,31 @@ public class CoffeePlace extends PanacheEntityBase {
   @Column(precision = 11, scale = 8)
   public BigDecimal longitude;
 
-  @Column(name = "photo", columnDefinition = "bytea")
-  public byte[] photo;
-
-  @Column(name = "photo_thumbnail", columnDefinition = "bytea")
-  public byte[] photoThumbnail;
+  @Column(length = GeoHash.STORED_PRECISION)
+  public String geohash;
 
   @Column(name = "photo_content_type")
   public String photoContentType;
 
+  @Column(name = "photo_updated_at")
+  public LocalDateTime photoUpdatedAt;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "photo_status", length = 20)
+  public PhotoStatus photoStatus;
+
+  // Content hashes of what each photo URL serves: the rendition, or the original until the
+  // rendition is generated. Null for photos stored before hashing, until they are backfilled.
+
+  @Column(name = "photo_thumbnail_hash", length = ContentHash.LENGTH)
+  public String photoThumbnailHash;
+
+  @Column(name = "photo_medium_hash", length = ContentHash.LENGTH)
+  public String photoMediumHash;
+
+  @Column(name = "photo_full_hash", length = ContentHash.LENGTH)
+  public String photoFullHash;
+
   @Column(name = "created_at", nullable = false, updatable = false)
   public LocalDateTime createdAt;
 
@@ -73,10 +91,20 @@ public class CoffeePlace extends PanacheEntityBase {
   protected void onCreate() {
     createdAt = LocalDateTime.now();
     updatedAt = LocalDateTime.now();
+    updateGeohash();
   }
 
   @PreUpdate
   protected void onUpdate() {
     updatedAt = LocalDateTime.now();
+    updateGeohash();
+  }
+
+  public void updateGeohash() {
+    geohash =
+        latitude == null || longitude == null
+            ? null
+            : GeoHash.encode(
+                latitude.doubleValue(), longitude.doubleValue(), GeoHash.STORED_PRECISION);
   }
 }
@@ -0,0 +1,33 @@
+package com.beanscore.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Tombstone of a deleted coffee place. Delta sync hands these to clients that synced before the
+ * delete; they are pruned once older than {@code beanscore.changes.tombstone-retention}.
+ */
+@Entity
+@Table(name = "coffee_place_deletions")
+public class CoffeePlaceDeletion extends PanacheEntityBase {
+
+  @Id
+  @Column(name = "coffee_place_id")
+  public UUID coffeePlaceId;
+
+  @Column(name = "user_id", nullable = false)
+  public UUID userId;
+
+  @Column(name = "deleted_at", nullable = false)
+  public LocalDateTime deletedAt;
+
+  public CoffeePlaceDeletion() {}
+
+  public CoffeePlaceDeletion(UUID coffeePlaceId, UUID userId) {
+    this.coffeePlaceId = coffeePlaceId;
+    this.userId = userId;
+    this.deletedAt = LocalDateTime.now();
+  }
+}
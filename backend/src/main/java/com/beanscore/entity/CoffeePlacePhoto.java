@@ -0,0 +1,31 @@
+package com.beanscore.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * Image bytes of a coffee place, kept apart from {@link CoffeePlace} so listing and editing places
+ * never pulls photo data from the database. Whether a place has a photo is answered by {@link
+ * CoffeePlace#photoContentType}.
+ */
+@Entity
+@Table(name = "coffee_place_photos")
+public class CoffeePlacePhoto extends PanacheEntityBase {
+
+  @Id
+  @Column(name = "coffee_place_id")
+  public UUID coffeePlaceId;
+
+  @Column(name = "photo", columnDefinition = "bytea")
+  public byte[] photo;
+
+  @Column(name = "photo_thumbnail", columnDefinition = "bytea")
+  public byte[] photoThumbnail;
+
+  @Column(name = "photo_medium", columnDefinition = "bytea")
+  public byte[] photoMedium;
+
+  @Column(name = "photo_full", columnDefinition = "bytea")
+  public byte[] photoFull;
+}
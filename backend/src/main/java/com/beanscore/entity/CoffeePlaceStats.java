@@ -0,0 +1,99 @@
+package com.beanscore.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Stored statistics over one user's coffee places. Rows are only ever changed through the
+ * increments and rebuilds of {@code CoffeePlaceStatsRepository}, so concurrent writes add up
+ * instead of overwriting each other; the entity itself is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "coffee_place_stats")
+public class CoffeePlaceStats extends PanacheEntityBase {
+
+  @Id
+  @Column(name = "user_id")
+  public UUID userId;
+
+  @Column(name = "place_count", nullable = false)
+  public long placeCount;
+
+  @Column(name = "coffee_quality_sum", nullable = false)
+  public long coffeeQualitySum;
+
+  @Column(name = "ambient_sum", nullable = false)
+  public long ambientSum;
+
+  @Column(name = "coffee_quality_1", nullable = false)
+  public long coffeeQuality1;
+
+  @Column(name = "coffee_quality_2", nullable = false)
+  public long coffeeQuality2;
+
+  @Column(name = "coffee_quality_3", nullable = false)
+  public long coffeeQuality3;
+
+  @Column(name = "coffee_quality_4", nullable = false)
+  public long coffeeQuality4;
+
+  @Column(name = "coffee_quality_5", nullable = false)
+  public long coffeeQuality5;
+
+  @Column(name = "ambient_1", nullable = false)
+  public long ambient1;
+
+  @Column(name = "ambient_2", nullable = false)
+  public long ambient2;
+
+  @Column(name = "ambient_3", nullable = false)
+  public long ambient3;
+
+  @Column(name = "ambient_4", nullable = false)
+  public long ambient4;
+
+  @Column(name = "ambient_5", nullable = false)
+  public long ambient5;
+
+  @Column(name = "gluten_free_count", nullable = false)
+  public long glutenFreeCount;
+
+  @Column(name = "veg_milk_count", nullable = false)
+  public long vegMilkCount;
+
+  @Column(name = "vegan_food_count", nullable = false)
+  public long veganFoodCount;
+
+  @Column(name = "sugar_free_count", nullable = false)
+  public long sugarFreeCount;
+
+  @Column(name = "updated_at", nullable = false)
+  public LocalDateTime updatedAt;
+
+  /** The counters in column order, as {@code CoffeePlaceTotals} expects them. */
+  public long[] counters() {
+    return new long[] {
+      placeCount,
+      coffeeQualitySum,
+      ambientSum,
+      coffeeQuality1,
+      coffeeQuality2,
+      coffeeQuality3,
+      coffeeQuality4,
+      coffeeQuality5,
+      ambient1,
+      ambient2,
+      ambient3,
+      ambient4,
+      ambient5,
+      glutenFreeCount,
+      vegMilkCount,
+      veganFoodCount,
+      sugarFreeCount
+    };
+  }
+}
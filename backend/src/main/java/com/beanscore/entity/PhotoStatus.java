@@ -0,0 +1,8 @@
+package com.beanscore.entity;
+
+/** Progress of the resized renditions generated for an uploaded photo. */
+public enum PhotoStatus {
+  PROCESSING,
+  READY,
+  FAILED
+}
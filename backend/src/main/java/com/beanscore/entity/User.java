@@ -26,6 +26,10 @@ public class User extends PanacheEntityBase {
   @Column(name = "updated_at", nullable = false)
   public LocalDateTime updatedAt;
 
+  /** Set when the account is deleted; it stays blocked until the purge job removes the row. */
+  @Column(name = "deleted_at")
+  public LocalDateTime deletedAt;
+
   @PrePersist
   protected void onCreate() {
     createdAt = LocalDateTime.now();
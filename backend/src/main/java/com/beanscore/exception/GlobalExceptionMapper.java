@@ -4,8 +4,11 @@ import com.beanscore.dto.response.ErrorResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
 import jakarta.ws.rs.NotAuthorizedException;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
@@ -38,6 +41,27 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
           new ErrorResponse(
               status.getStatusCode(), "Bad Request", exception.getMessage(), LocalDateTime.now());
 
+    } else if (exception instanceof ClientErrorException gone
+        && gone.getResponse().getStatus() == Response.Status.GONE.getStatusCode()) {
+      status = Response.Status.GONE;
+      errorResponse =
+          new ErrorResponse(
+              status.getStatusCode(), "Gone", exception.getMessage(), LocalDateTime.now());
+
+    } else if (exception instanceof ServiceUnavailableException unavailable) {
+      status = Response.Status.SERVICE_UNAVAILABLE;
+      errorResponse =
+          new ErrorResponse(
+              status.getStatusCode(),
+              "Service Unavailable",
+              "The server is busy, please retry shortly",
+              LocalDateTime.now());
+      String retryAfter = unavailable.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER);
+      return Response.status(status)
+          .entity(errorResponse)
+          .header(HttpHeaders.RETRY_AFTER, retryAfter)
+          .build();
+
     } else if (exception instanceof ConstraintViolationException) {
       status = Response.Status.BAD_REQUEST;
       ConstraintViolationException cve = (ConstraintViolationException) exception;
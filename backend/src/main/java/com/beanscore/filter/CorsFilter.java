@@ -35,6 +35,7 @@ public class CorsFilter implements ContainerResponseFilter {
     responseContext
         .getHeaders()
         .add("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, PATCH");
+    responseContext.getHeaders().add("Access-Control-Expose-Headers", "X-Next-Cursor, Retry-After");
     responseContext.getHeaders().add("Access-Control-Max-Age", "86400");
   }
 }
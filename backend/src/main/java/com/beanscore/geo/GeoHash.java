@@ -0,0 +1,132 @@
+package com.beanscore.geo;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Minimal geohash encoder. Places store a full-precision hash so that "what is near me" becomes a
+ * handful of prefix lookups on a B-tree index instead of a scan over every coordinate.
+ */
+public final class GeoHash {
+
+  public static final int STORED_PRECISION = 9;
+
+  private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+  private static final double EARTH_RADIUS_KM = 6371.0088;
+  private static final double KM_PER_DEGREE = 111.32;
+
+  private GeoHash() {}
+
+  public static String encode(double latitude, double longitude, int precision) {
+    double minLat = -90, maxLat = 90;
+    double minLng = -180, maxLng = 180;
+    StringBuilder hash = new StringBuilder(precision);
+    boolean evenBit = true;
+    int bit = 0;
+    int ch = 0;
+
+    while (hash.length() < precision) {
+      if (evenBit) {
+        double mid = (minLng + maxLng) / 2;
+        if (longitude >= mid) {
+          ch = (ch << 1) | 1;
+          minLng = mid;
+        } else {
+          ch = ch << 1;
+          maxLng = mid;
+        }
+      } else {
+        double mid = (minLat + maxLat) / 2;
+        if (latitude >= mid) {
+          ch = (ch << 1) | 1;
+          minLat = mid;
+        } else {
+          ch = ch << 1;
+          maxLat = mid;
+        }
+      }
+      evenBit = !evenBit;
+
+      if (++bit == 5) {
+        hash.append(BASE32.charAt(ch));
+        bit = 0;
+        ch = 0;
+      }
+    }
+    return hash.toString();
+  }
+
+  /**
+   * Returns the cells that together cover every point within {@code radiusKm} of the given
+   * location: the cell containing it and its eight neighbours, at the finest precision whose cells
+   * are still at least {@code radiusKm} wide. Returns an empty set when the radius is too large for
+   * any precision, meaning callers should not restrict by cell at all.
+   */
+  public static Set<String> coveringCells(double latitude, double longitude, double radiusKm) {
+    int precision = precisionFor(latitude, radiusKm);
+    Set<String> cells = new LinkedHashSet<>();
+    if (precision == 0) {
+      return cells;
+    }
+
+    double cellHeight = cellHeightDegrees(precision);
+    double cellWidth = cellWidthDegrees(precision);
+    for (int dLat = -1; dLat <= 1; dLat++) {
+      for (int dLng = -1; dLng <= 1; dLng++) {
+        double lat = clamp(latitude + dLat * cellHeight, -90, 90);
+        double lng = wrapLongitude(longitude + dLng * cellWidth);
+        cells.add(encode(lat, lng, precision));
+      }
+    }
+    return cells;
+  }
+
+  public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLng = Math.toRadians(lng2 - lng1);
+    double a =
+        Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1))
+                * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2)
+                * Math.sin(dLng / 2);
+    return 2 * EARTH_RADIUS_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+  }
+
+  static int precisionFor(double latitude, double radiusKm) {
+    // Longitude degrees shrink towards the poles; floor the factor so cells stay usable there
+    double lngScale = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+    for (int precision = STORED_PRECISION; precision >= 1; precision--) {
+      double heightKm = cellHeightDegrees(precision) * KM_PER_DEGREE;
+      double widthKm = cellWidthDegrees(precision) * KM_PER_DEGREE * lngScale;
+      if (heightKm >= radiusKm && widthKm >= radiusKm) {
+        return precision;
+      }
+    }
+    return 0;
+  }
+
+  private static double cellHeightDegrees(int precision) {
+    int latBits = (precision * 5) / 2;
+    return 180.0 / (1L << latBits);
+  }
+
+  private static double cellWidthDegrees(int precision) {
+    int lngBits = (precision * 5 + 1) / 2;
+    return 360.0 / (1L << lngBits);
+  }
+
+  private static double clamp(double value, double min, double max) {
+    return Math.max(min, Math.min(max, value));
+  }
+
+  private static double wrapLongitude(double longitude) {
+    if (longitude < -180) {
+      return longitude + 360;
+    }
+    if (longitude >= 180) {
+      return longitude - 360;
+    }
+    return longitude;
+  }
+}
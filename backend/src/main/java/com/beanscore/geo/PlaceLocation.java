@@ -0,0 +1,7 @@
+package com.beanscore.geo;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** Coordinates of a coffee place, projected without loading the rest of the row. */
+public record PlaceLocation(UUID id, BigDecimal latitude, BigDecimal longitude) {}
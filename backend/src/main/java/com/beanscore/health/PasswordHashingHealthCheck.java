@@ -0,0 +1,31 @@
+package com.beanscore.health;
+
+import com.beanscore.security.PasswordHashingExecutor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.Locale;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+@Readiness
+@ApplicationScoped
+public class PasswordHashingHealthCheck implements HealthCheck {
+
+    @Inject
+    PasswordHashingExecutor passwordHashingExecutor;
+
+    @Override
+    public HealthCheckResponse call() {
+        // Always up: a full queue sheds logins with 503 but the node can still serve other traffic
+        return HealthCheckResponse.named("password-hashing")
+                .up()
+                .withData("queueDepth", passwordHashingExecutor.queueDepth())
+                .withData("active", passwordHashingExecutor.activeCount())
+                .withData("completed", passwordHashingExecutor.completed())
+                .withData("rejected", passwordHashingExecutor.rejected())
+                .withData("meanMillis", String.format(Locale.ROOT, "%.1f", passwordHashingExecutor.meanMillis()))
+                .withData("maxMillis", String.format(Locale.ROOT, "%.1f", passwordHashingExecutor.maxMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.beanscore.health;
+
+import com.beanscore.security.LiveUserCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+@Readiness
+@ApplicationScoped
+public class UserCacheHealthCheck implements HealthCheck {
+
+    @Inject
+    LiveUserCache liveUserCache;
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named("live-user-cache")
+                .up()
+                .withData("size", liveUserCache.size())
+                .withData("hits", liveUserCache.hits())
+                .withData("misses", liveUserCache.misses())
+                .build();
+    }
+}
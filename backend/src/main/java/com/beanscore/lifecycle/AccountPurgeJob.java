@@ -0,0 +1,61 @@
+package com.beanscore.lifecycle;
+
+import com.beanscore.repository.AccountDeletionRepository;
+import com.beanscore.service.AccountPurgeService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Works through requested account deletions until each is complete. Progress is committed chunk
+ * by chunk, so a purge interrupted by a restart or a failure carries on from where it stopped on
+ * the next run. Nodes running it at the same time never purge the same account together.
+ */
+@ApplicationScoped
+public class AccountPurgeJob {
+
+  private static final Logger logger = Logger.getLogger(AccountPurgeJob.class);
+
+  @ConfigProperty(name = "beanscore.account-deletion.retention", defaultValue = "P7D")
+  Duration retention;
+
+  @Inject AccountDeletionRepository accountDeletionRepository;
+
+  @Inject AccountPurgeService accountPurgeService;
+
+  @Scheduled(
+      every = "${beanscore.account-deletion.interval:5s}",
+      delayed = "5s",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void run() {
+    List<UUID> pending =
+        QuarkusTransaction.requiringNew().call(accountDeletionRepository::findUserIdsInProgress);
+    for (UUID userId : pending) {
+      purge(userId);
+    }
+
+    long forgotten =
+        accountPurgeService.deleteCompletedBefore(LocalDateTime.now().minus(retention));
+    if (forgotten > 0) {
+      logger.infof("Removed %d completed account deletions", forgotten);
+    }
+  }
+
+  private void purge(UUID userId) {
+    try {
+      while (!accountPurgeService.purgeChunk(userId)) {
+        // Each chunk commits on its own; keep going until the account is gone
+      }
+    } catch (RuntimeException e) {
+      logger.errorf(e, "Purge of user with ID %s failed, retrying on the next run", userId);
+      accountPurgeService.recordFailure(userId, e);
+    }
+  }
+}
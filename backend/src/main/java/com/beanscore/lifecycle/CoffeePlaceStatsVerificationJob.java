@@ -0,0 +1,60 @@
+package com.beanscore.lifecycle;
+
+import com.beanscore.repository.UserRepository;
+import com.beanscore.service.CoffeePlaceStatsService;
+import com.beanscore.service.CoffeePlaceStatsService.Verification;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.jboss.logging.Logger;
+
+/**
+ * Checks every user's stored statistics against a full scan of their places, rebuilding any that
+ * drifted, and seeds them for users who have none yet. Each user is checked in a transaction of
+ * their own, so writes are only held up for the duration of one user's scan.
+ */
+@ApplicationScoped
+public class CoffeePlaceStatsVerificationJob {
+
+  private static final Logger logger = Logger.getLogger(CoffeePlaceStatsVerificationJob.class);
+
+  private static final int CHUNK_SIZE = 500;
+
+  @Inject UserRepository userRepository;
+
+  @Inject CoffeePlaceStatsService coffeePlaceStatsService;
+
+  @Scheduled(
+      every = "${beanscore.stats.verify-interval:24h}",
+      delayed = "1m",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void verify() {
+    Map<Verification, Integer> outcomes = new EnumMap<>(Verification.class);
+    // The nil UUID sorts before every other in PostgreSQL
+    UUID after = new UUID(0, 0);
+    List<UUID> chunk;
+    do {
+      UUID from = after;
+      chunk =
+          QuarkusTransaction.requiringNew()
+              .call(() -> userRepository.findIdsAfter(from, CHUNK_SIZE));
+      for (UUID userId : chunk) {
+        outcomes.merge(coffeePlaceStatsService.verify(userId), 1, Integer::sum);
+        after = userId;
+      }
+    } while (chunk.size() == CHUNK_SIZE);
+
+    if (outcomes.containsKey(Verification.SEEDED) || outcomes.containsKey(Verification.REBUILT)) {
+      logger.infof(
+          "Checked coffee place stats: %d matched, %d seeded, %d rebuilt",
+          outcomes.getOrDefault(Verification.MATCHED, 0),
+          outcomes.getOrDefault(Verification.SEEDED, 0),
+          outcomes.getOrDefault(Verification.REBUILT, 0));
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.beanscore.lifecycle;
+
+import com.beanscore.repository.CoffeePlaceDeletionRepository;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Prunes delta sync tombstones older than the retention period. Cursors from before the cutoff are
+ * answered with 410 Gone, so nothing still needs them. Safe to run on every node at once.
+ */
+@ApplicationScoped
+public class DeletionLogPurgeJob {
+
+  private static final Logger logger = Logger.getLogger(DeletionLogPurgeJob.class);
+
+  @ConfigProperty(name = "beanscore.changes.tombstone-retention", defaultValue = "P30D")
+  Duration tombstoneRetention;
+
+  @Inject CoffeePlaceDeletionRepository coffeePlaceDeletionRepository;
+
+  @Scheduled(
+      every = "${beanscore.changes.purge-interval:1h}",
+      delayed = "1m",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  @Transactional
+  void purge() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention);
+    long purged = coffeePlaceDeletionRepository.deleteOlderThan(cutoff);
+    if (purged > 0) {
+      logger.infof("Purged %d coffee place tombstones", purged);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.beanscore.lifecycle;
+
+import com.beanscore.geo.GeoHash;
+import com.beanscore.geo.PlaceLocation;
+import com.beanscore.repository.CoffeePlaceRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.List;
+import org.jboss.logging.Logger;
+
+/**
+ * Fills in the geohash of places that have coordinates but were stored before the column existed.
+ * Runs in small transactions on startup; it is a no-op once every row is indexed.
+ */
+@ApplicationScoped
+public class GeohashBackfill {
+
+  private static final Logger logger = Logger.getLogger(GeohashBackfill.class);
+
+  private static final int CHUNK_SIZE = 500;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  void onStart(@Observes StartupEvent ev) {
+    long updated = 0;
+    List<PlaceLocation> chunk;
+    do {
+      chunk =
+          QuarkusTransaction.requiringNew()
+              .call(
+                  () -> {
+                    List<PlaceLocation> locations =
+                        coffeePlaceRepository.findLocationsMissingGeohash(CHUNK_SIZE);
+                    for (PlaceLocation location : locations) {
+                      coffeePlaceRepository.updateGeohash(
+                          location.id(),
+                          GeoHash.encode(
+                              location.latitude().doubleValue(),
+                              location.longitude().doubleValue(),
+                              GeoHash.STORED_PRECISION));
+                    }
+                    return locations;
+                  });
+      updated += chunk.size();
+    } while (chunk.size() == CHUNK_SIZE);
+
+    if (updated > 0) {
+      logger.infof("Backfilled geohash for %d coffee places", updated);
+    }
+  }
+}
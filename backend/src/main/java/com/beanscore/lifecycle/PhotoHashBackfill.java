@@ -0,0 +1,104 @@
+package com.beanscore.lifecycle;
+
+import com.beanscore.repository.CoffeePlaceRepository;
+import com.beanscore.storage.ContentHash;
+import com.beanscore.storage.PhotoStore;
+import com.beanscore.storage.PhotoVariant;
+import com.beanscore.storage.StoredPhoto;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Hashes the photos stored before their URLs were versioned, so they get immutable URLs too.
+ * Enabled with {@code beanscore.photo-store.hash-on-start}; runs on its own thread so startup is
+ * not delayed, one place per short transaction, and is a no-op once every photo has its hashes.
+ * Places keep their {@code updatedAt}, so clients see the new URLs the next time the list changes.
+ */
+@ApplicationScoped
+public class PhotoHashBackfill {
+
+  private static final Logger logger = Logger.getLogger(PhotoHashBackfill.class);
+
+  private static final int CHUNK_SIZE = 100;
+
+  @ConfigProperty(name = "beanscore.photo-store.hash-on-start", defaultValue = "true")
+  boolean hashOnStart;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  @Inject PhotoStore photoStore;
+
+  void onStart(@Observes StartupEvent ev) {
+    if (hashOnStart) {
+      Thread.ofPlatform().name("photo-hash-backfill").daemon().start(this::backfill);
+    }
+  }
+
+  public long backfill() {
+    long hashed = 0;
+    UUID afterId = new UUID(0, 0);
+    List<UUID> ids;
+    do {
+      UUID after = afterId;
+      ids =
+          QuarkusTransaction.requiringNew()
+              .call(() -> coffeePlaceRepository.findIdsMissingPhotoHash(after, CHUNK_SIZE));
+      for (UUID id : ids) {
+        try {
+          hashed += QuarkusTransaction.requiringNew().call(() -> backfillOne(id));
+        } catch (RuntimeException e) {
+          logger.errorf(e, "Failed to hash photo of coffee place %s", id);
+        }
+      }
+      if (!ids.isEmpty()) {
+        afterId = ids.get(ids.size() - 1);
+      }
+    } while (ids.size() == CHUNK_SIZE);
+
+    if (hashed > 0) {
+      logger.infof("Backfilled photo hashes for %d coffee places", hashed);
+    }
+    return hashed;
+  }
+
+  private long backfillOne(UUID coffeePlaceId) {
+    Optional<Object[]> state = coffeePlaceRepository.findPhotoState(coffeePlaceId);
+    if (state.isEmpty()) {
+      return 0;
+    }
+    LocalDateTime version = (LocalDateTime) state.get()[1];
+    String original = hash(coffeePlaceId, version, PhotoVariant.ORIGINAL).orElse(null);
+    if (original == null) {
+      return 0;
+    }
+    // Each URL serves its rendition if there is one, like CoffeePlaceService.getPhoto
+    return coffeePlaceRepository.updateMissingPhotoHashes(
+        coffeePlaceId,
+        hash(coffeePlaceId, version, PhotoVariant.THUMBNAIL).orElse(original),
+        hash(coffeePlaceId, version, PhotoVariant.MEDIUM).orElse(original),
+        hash(coffeePlaceId, version, PhotoVariant.FULL).orElse(original));
+  }
+
+  private Optional<String> hash(UUID coffeePlaceId, LocalDateTime version, PhotoVariant variant) {
+    Optional<StoredPhoto> photo = photoStore.read(coffeePlaceId, version, variant);
+    if (photo.isEmpty()) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(ContentHash.of(photo.get()));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.beanscore.lifecycle;
+
+import com.beanscore.repository.CoffeePlacePhotoRepository;
+import com.beanscore.repository.CoffeePlaceRepository;
+import com.beanscore.storage.DatabasePhotoStore;
+import com.beanscore.storage.FileSystemPhotoStore;
+import com.beanscore.storage.PhotoVariant;
+import com.beanscore.storage.StoredPhoto;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Moves photos stored as {@code bytea} into the filesystem store, one row per short transaction,
+ * deleting each row once its files are in place. Enabled with {@code
+ * beanscore.photo-store.migrate-on-start=true} together with {@code
+ * beanscore.photo-store.type=filesystem}; runs on its own thread so startup is not delayed, and is
+ * safe to interrupt and rerun.
+ */
+@ApplicationScoped
+public class PhotoMigrationJob {
+
+  private static final Logger logger = Logger.getLogger(PhotoMigrationJob.class);
+
+  private static final int CHUNK_SIZE = 100;
+
+  @ConfigProperty(name = "beanscore.photo-store.type", defaultValue = "database")
+  String type;
+
+  @ConfigProperty(name = "beanscore.photo-store.migrate-on-start", defaultValue = "false")
+  boolean migrateOnStart;
+
+  @Inject CoffeePlacePhotoRepository coffeePlacePhotoRepository;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  @Inject DatabasePhotoStore databasePhotoStore;
+
+  @Inject FileSystemPhotoStore fileSystemPhotoStore;
+
+  void onStart(@Observes StartupEvent ev) {
+    if (migrateOnStart && "filesystem".equals(type)) {
+      Thread.ofPlatform().name("photo-migration").daemon().start(this::migrate);
+    }
+  }
+
+  public long migrate() {
+    logger.info("Starting migration of database photos to the filesystem store");
+    long migrated = 0;
+    UUID afterId = null;
+    List<UUID> ids;
+    do {
+      UUID after = afterId;
+      ids =
+          QuarkusTransaction.requiringNew()
+              .call(() -> coffeePlacePhotoRepository.findIdsAfter(after, CHUNK_SIZE));
+      for (UUID id : ids) {
+        try {
+          QuarkusTransaction.requiringNew().run(() -> migrateOne(id));
+          migrated++;
+        } catch (RuntimeException e) {
+          logger.errorf(e, "Failed to migrate photo of coffee place %s, leaving it in place", id);
+        }
+      }
+      if (!ids.isEmpty()) {
+        afterId = ids.get(ids.size() - 1);
+      }
+    } while (ids.size() == CHUNK_SIZE);
+
+    logger.infof("Migrated %d photos to the filesystem store", migrated);
+    return migrated;
+  }
+
+  private void migrateOne(UUID coffeePlaceId) {
+    LocalDateTime version =
+        coffeePlaceRepository
+            .findPhotoState(coffeePlaceId)
+            .map(state -> (LocalDateTime) state[1])
+            .orElse(null);
+    for (PhotoVariant variant : PhotoVariant.values()) {
+      Optional<StoredPhoto> photo = databasePhotoStore.read(coffeePlaceId, version, variant);
+      if (photo.isPresent()) {
+        try {
+          fileSystemPhotoStore.write(
+              coffeePlaceId, version, variant, new ByteArrayInputStream(photo.get().bytes()));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    }
+    databasePhotoStore.delete(coffeePlaceId);
+  }
+}
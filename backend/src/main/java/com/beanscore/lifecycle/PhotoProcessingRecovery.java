@@ -0,0 +1,85 @@
+package com.beanscore.lifecycle;
+
+import com.beanscore.repository.CoffeePlaceRepository;
+import com.beanscore.service.PhotoProcessingService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Finishes photos whose processing was lost with a restart: the queue of {@link
+ * PhotoProcessingService} lives in memory, so an upload committed just before a shutdown would stay
+ * {@code PROCESSING} for good. Enabled with {@code beanscore.photo-processing.resume-on-start};
+ * processes the photos uploaded before startup one at a time on its own thread, and marks those it
+ * cannot finish {@code FAILED}. Photos uploaded after startup are left to the queue.
+ */
+@ApplicationScoped
+public class PhotoProcessingRecovery {
+
+  private static final Logger logger = Logger.getLogger(PhotoProcessingRecovery.class);
+
+  private static final int CHUNK_SIZE = 100;
+
+  @ConfigProperty(name = "beanscore.photo-processing.resume-on-start", defaultValue = "true")
+  boolean resumeOnStart;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  @Inject PhotoProcessingService photoProcessingService;
+
+  void onStart(@Observes StartupEvent ev) {
+    if (resumeOnStart) {
+      LocalDateTime startedAt = LocalDateTime.now();
+      Thread.ofPlatform()
+          .name("photo-processing-recovery")
+          .daemon()
+          .start(() -> resume(startedAt));
+    }
+  }
+
+  /** Processes the photos uploaded before {@code startedAt} that still wait; returns how many. */
+  public long resume(LocalDateTime startedAt) {
+    long resumed = 0;
+    long failed = 0;
+    UUID afterId = new UUID(0, 0);
+    List<UUID> ids;
+    do {
+      UUID after = afterId;
+      ids =
+          QuarkusTransaction.requiringNew()
+              .call(
+                  () ->
+                      coffeePlaceRepository.findIdsWithPhotoProcessing(
+                          startedAt, after, CHUNK_SIZE));
+      for (UUID id : ids) {
+        resumed++;
+        try {
+          photoProcessingService.process(id);
+        } catch (RuntimeException e) {
+          logger.errorf(e, "Failed to resume processing of the photo of coffee place %s", id);
+        }
+        // An original that is missing or unreadable would otherwise be retried on every start
+        failed +=
+            QuarkusTransaction.requiringNew()
+                .call(() -> coffeePlaceRepository.failPhotoProcessing(id, startedAt));
+      }
+      if (!ids.isEmpty()) {
+        afterId = ids.get(ids.size() - 1);
+      }
+    } while (ids.size() == CHUNK_SIZE);
+
+    if (resumed > 0) {
+      logger.infof(
+          "Resumed processing of %d photos left over from before the restart, %d failed",
+          resumed, failed);
+    }
+    return resumed;
+  }
+}
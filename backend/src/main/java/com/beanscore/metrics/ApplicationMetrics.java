@@ -0,0 +1,53 @@
+package com.beanscore.metrics;
+
+import com.beanscore.security.LiveUserCache;
+import com.beanscore.security.VerifiedTokenCache;
+import com.beanscore.service.PhotoProcessingService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/** Exposes the in-process caches and queues that already keep their own counters. */
+@Singleton
+public class ApplicationMetrics implements MeterBinder {
+
+  @Inject LiveUserCache liveUserCache;
+
+  @Inject VerifiedTokenCache verifiedTokenCache;
+
+  @Inject PhotoProcessingService photoProcessingService;
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("beanscore.user.cache.requests", liveUserCache, LiveUserCache::hits)
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder("beanscore.user.cache.requests", liveUserCache, LiveUserCache::misses)
+        .tag("result", "miss")
+        .register(registry);
+    Gauge.builder("beanscore.user.cache.size", liveUserCache, LiveUserCache::size)
+        .register(registry);
+
+    FunctionCounter.builder(
+            "beanscore.jwt.cache.requests", verifiedTokenCache, VerifiedTokenCache::hits)
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder(
+            "beanscore.jwt.cache.requests", verifiedTokenCache, VerifiedTokenCache::misses)
+        .tag("result", "miss")
+        .description("Bearer tokens that needed a full signature check")
+        .register(registry);
+    Gauge.builder("beanscore.jwt.cache.size", verifiedTokenCache, VerifiedTokenCache::size)
+        .register(registry);
+
+    Gauge.builder(
+            "beanscore.photo.processing.queue",
+            photoProcessingService,
+            PhotoProcessingService::queueDepth)
+        .description("Uploaded photos waiting for their renditions")
+        .register(registry);
+  }
+}
@@ -0,0 +1,44 @@
+package com.beanscore.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.List;
+
+@Singleton
+public class MetricsConfiguration {
+
+  /** Routes that get latency histograms; everything else keeps the default summary only. */
+  private static final List<String> HISTOGRAM_ROUTES = List.of("/coffee-places", "/auth");
+
+  /**
+   * Publishes latency histogram buckets for the API routes so p95/p99 can be aggregated across
+   * instances. Buckets are bounded to 1ms..10s to keep the series count per route small.
+   */
+  @Produces
+  @Singleton
+  public MeterFilter routeLatencyHistograms() {
+    return new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(
+          Meter.Id id, DistributionStatisticConfig config) {
+        if (!id.getName().equals("http.server.requests") || !isApiRoute(id.getTag("uri"))) {
+          return config;
+        }
+        return DistributionStatisticConfig.builder()
+            .percentilesHistogram(true)
+            .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+            .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+            .build()
+            .merge(config);
+      }
+    };
+  }
+
+  private static boolean isApiRoute(String uri) {
+    return uri != null && HISTOGRAM_ROUTES.stream().anyMatch(uri::startsWith);
+  }
+}
@@ -0,0 +1,43 @@
+package com.beanscore.repository;
+
+import com.beanscore.entity.AccountDeletion;
+import com.beanscore.entity.AccountDeletionStatus;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.hibernate.Timeouts;
+import org.hibernate.jpa.SpecHints;
+
+@ApplicationScoped
+public class AccountDeletionRepository implements PanacheRepositoryBase<AccountDeletion, UUID> {
+
+  /** Users whose purge has not finished, oldest request first. */
+  public List<UUID> findUserIdsInProgress() {
+    return getEntityManager()
+        .createQuery(
+            "select d.userId from AccountDeletion d where d.status = :status"
+                + " order by d.requestedAt",
+            UUID.class)
+        .setParameter("status", AccountDeletionStatus.IN_PROGRESS)
+        .getResultList();
+  }
+
+  /**
+   * Locks the deletion for the rest of the transaction if it is still in progress. Empty when it
+   * has completed or another node holds the lock, so each purge has a single worker at a time.
+   */
+  public Optional<AccountDeletion> lockInProgress(UUID userId) {
+    return find("userId = ?1 and status = ?2", userId, AccountDeletionStatus.IN_PROGRESS)
+        .withLock(LockModeType.PESSIMISTIC_WRITE)
+        .withHint(SpecHints.HINT_SPEC_LOCK_TIMEOUT, Timeouts.SKIP_LOCKED_MILLI)
+        .firstResultOptional();
+  }
+
+  public long deleteCompletedBefore(LocalDateTime cutoff) {
+    return delete("status = ?1 and completedAt < ?2", AccountDeletionStatus.COMPLETED, cutoff);
+  }
+}
@@ -0,0 +1,31 @@
+package com.beanscore.repository;
+
+import com.beanscore.entity.CoffeePlaceDeletion;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@ApplicationScoped
+public class CoffeePlaceDeletionRepository
+    implements PanacheRepositoryBase<CoffeePlaceDeletion, UUID> {
+
+  /** Ids of the user's places deleted after {@code since}, in deletion order. */
+  public List<UUID> findDeletedIdsSince(UUID userId, LocalDateTime since, int limit) {
+    return getEntityManager()
+        .createQuery(
+            "select d.coffeePlaceId from CoffeePlaceDeletion d"
+                + " where d.userId = :userId and d.deletedAt > :since"
+                + " order by d.deletedAt, d.coffeePlaceId",
+            UUID.class)
+        .setParameter("userId", userId)
+        .setParameter("since", since)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  public long deleteOlderThan(LocalDateTime cutoff) {
+    return delete("deletedAt < ?1", cutoff);
+  }
+}
@@ -0,0 +1,79 @@
+package com.beanscore.repository;
+
+import com.beanscore.entity.CoffeePlacePhoto;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.hibernate.Session;
+
+@ApplicationScoped
+public class CoffeePlacePhotoRepository implements PanacheRepositoryBase<CoffeePlacePhoto, UUID> {
+
+  /** Reads a single image column, e.g. {@code photoThumbnail}, without loading the others. */
+  public Optional<byte[]> findBytes(String attribute, UUID coffeePlaceId) {
+    return getEntityManager()
+        .createQuery(
+            "select p." + attribute + " from CoffeePlacePhoto p where p.coffeePlaceId = :id",
+            byte[].class)
+        .setParameter("id", coffeePlaceId)
+        .getResultStream()
+        .filter(bytes -> bytes != null)
+        .findFirst();
+  }
+
+  /**
+   * Writes a single image column, e.g. {@code photo_thumbnail}, in place, creating the row if the
+   * place has none yet. The image is streamed to the driver rather than read into a byte array.
+   */
+  public void saveStream(String column, UUID coffeePlaceId, InputStream content) {
+    if (count("coffeePlaceId", coffeePlaceId) == 0) {
+      CoffeePlacePhoto coffeePlacePhoto = new CoffeePlacePhoto();
+      coffeePlacePhoto.coffeePlaceId = coffeePlaceId;
+      persistAndFlush(coffeePlacePhoto);
+    }
+    getEntityManager()
+        .unwrap(Session.class)
+        .doWork(
+            connection -> {
+              try (PreparedStatement statement =
+                  connection.prepareStatement(
+                      "update coffee_place_photos set "
+                          + column
+                          + " = ? where coffee_place_id = ?")) {
+                statement.setBinaryStream(1, content);
+                statement.setObject(2, coffeePlaceId);
+                statement.executeUpdate();
+              }
+            });
+  }
+
+  /** Returns the next ids after {@code afterId} in id order, without touching photo bytes. */
+  public List<UUID> findIdsAfter(UUID afterId, int limit) {
+    String where = afterId == null ? "" : " where p.coffeePlaceId > :afterId";
+    var query =
+        getEntityManager()
+            .createQuery(
+                "select p.coffeePlaceId from CoffeePlacePhoto p"
+                    + where
+                    + " order by p.coffeePlaceId",
+                UUID.class)
+            .setMaxResults(limit);
+    if (afterId != null) {
+      query.setParameter("afterId", afterId);
+    }
+    return query.getResultList();
+  }
+
+  public long deleteByCoffeePlaceId(UUID coffeePlaceId) {
+    return delete("coffeePlaceId", coffeePlaceId);
+  }
+
+  public long deleteByCoffeePlaceIds(Collection<UUID> coffeePlaceIds) {
+    return delete("coffeePlaceId in ?1", coffeePlaceIds);
+  }
+}
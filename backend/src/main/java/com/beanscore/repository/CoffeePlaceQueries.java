@@ -0,0 +1,150 @@
+package com.beanscore.repository;
+
+import com.beanscore.dto.request.CoffeePlaceFilter;
+import com.beanscore.dto.request.CoffeePlaceSort;
+import com.beanscore.dto.request.PageCursor;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Queries for the coffee place listing, search and nearby lookups, shared by the blocking
+ * repository and the reactive one built with {@code -Preactive}.
+ */
+final class CoffeePlaceQueries {
+
+  record Query(String hql, Map<String, Object> parameters) {}
+
+  record NativeQuery(String sql, Map<String, Object> parameters) {}
+
+  /**
+   * Text searched by {@link #search}; must stay identical to the expression of the {@code
+   * idx_coffee_places_search_trgm} index in init.sql, or the index is not used.
+   */
+  private static final String SEARCH_DOCUMENT =
+      "lower(name || ' ' || address || ' ' || coalesce(instagram_handle, ''))";
+
+  private CoffeePlaceQueries() {}
+
+  static Query page(UUID userId, CoffeePlaceFilter filter, CoffeePlaceSort sort, PageCursor after) {
+    StringBuilder query = new StringBuilder("userId = :userId");
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("userId", userId);
+
+    appendFilter(query, parameters, filter);
+
+    if (after != null) {
+      String comparison = sort.descending() ? "<" : ">";
+      query
+          .append(" and (")
+          .append(sort.column())
+          .append(", id) ")
+          .append(comparison)
+          .append(" (:afterTimestamp, :afterId)");
+      parameters.put("afterTimestamp", after.timestamp());
+      parameters.put("afterId", after.id());
+    }
+
+    return new Query(query.toString(), parameters);
+  }
+
+  /**
+   * Native SQL ranking a user's places against a search term with {@code pg_trgm}: places whose
+   * text contains the term come first, then the closest word matches ({@code <%}, which tolerates
+   * typos up to {@code pg_trgm.word_similarity_threshold}). Both predicates use the trigram index.
+   * The dietary and quality criteria of {@code filter} apply; its own search term is ignored.
+   */
+  static NativeQuery search(UUID userId, String term, CoffeePlaceFilter filter, int limit) {
+    String normalized = term.trim().toLowerCase();
+    StringBuilder query =
+        new StringBuilder("select * from coffee_places where user_id = :userId and (:term <% ")
+            .append(SEARCH_DOCUMENT)
+            .append(" or ")
+            .append(SEARCH_DOCUMENT)
+            .append(" like :pattern)");
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("userId", userId);
+    parameters.put("term", normalized);
+    parameters.put("pattern", "%" + escapeLike(normalized) + "%");
+    parameters.put("limit", limit);
+
+    if (filter.hasGlutenFree()) {
+      query.append(" and has_gluten_free = true");
+    }
+    if (filter.hasVegMilk()) {
+      query.append(" and has_veg_milk = true");
+    }
+    if (filter.hasVeganFood()) {
+      query.append(" and has_vegan_food = true");
+    }
+    if (filter.hasSugarFree()) {
+      query.append(" and has_sugar_free = true");
+    }
+    if (filter.minCoffeeQuality() != null) {
+      query.append(" and coffee_quality >= :minCoffeeQuality");
+      parameters.put("minCoffeeQuality", filter.minCoffeeQuality());
+    }
+
+    query
+        .append(" order by (")
+        .append(SEARCH_DOCUMENT)
+        .append(" like :pattern) desc, word_similarity(:term, ")
+        .append(SEARCH_DOCUMENT)
+        .append(") desc, id limit :limit");
+
+    return new NativeQuery(query.toString(), parameters);
+  }
+
+  static Query locationsInCells(UUID userId, Set<String> cells) {
+    StringBuilder query = new StringBuilder("userId = :userId and geohash is not null");
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("userId", userId);
+
+    if (!cells.isEmpty()) {
+      query.append(" and (");
+      int i = 0;
+      for (String cell : cells) {
+        if (i > 0) {
+          query.append(" or ");
+        }
+        query.append("geohash like :cell").append(i);
+        parameters.put("cell" + i, cell + "%");
+        i++;
+      }
+      query.append(")");
+    }
+
+    return new Query(query.toString(), parameters);
+  }
+
+  private static void appendFilter(
+      StringBuilder query, Map<String, Object> parameters, CoffeePlaceFilter filter) {
+    if (filter.hasSearch()) {
+      query.append(
+          " and (lower(name) like :search or lower(address) like :search"
+              + " or lower(instagramHandle) like :search)");
+      parameters.put("search", "%" + escapeLike(filter.search().trim().toLowerCase()) + "%");
+    }
+    if (filter.hasGlutenFree()) {
+      query.append(" and hasGlutenFree = true");
+    }
+    if (filter.hasVegMilk()) {
+      query.append(" and hasVegMilk = true");
+    }
+    if (filter.hasVeganFood()) {
+      query.append(" and hasVeganFood = true");
+    }
+    if (filter.hasSugarFree()) {
+      query.append(" and hasSugarFree = true");
+    }
+    if (filter.minCoffeeQuality() != null) {
+      query.append(" and coffeeQuality >= :minCoffeeQuality");
+      parameters.put("minCoffeeQuality", filter.minCoffeeQuality());
+    }
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
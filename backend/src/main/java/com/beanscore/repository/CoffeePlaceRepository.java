@@ -1,11 +1,26 @@
 package com.beanscore.repository;
 
+import com.beanscore.dto.request.CoffeePlaceFilter;
+import com.beanscore.dto.request.CoffeePlaceSort;
+import com.beanscore.dto.request.PageCursor;
 import com.beanscore.entity.CoffeePlace;
+import com.beanscore.entity.PhotoStatus;
+import com.beanscore.geo.PlaceLocation;
+import com.beanscore.storage.PhotoVariant;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
 
 @ApplicationScoped
 public class CoffeePlaceRepository implements PanacheRepositoryBase<CoffeePlace, UUID> {
@@ -14,15 +29,286 @@ public class CoffeePlaceRepository implements PanacheRepositoryBase<CoffeePlace,
     return list("userId", userId);
   }
 
+  /**
+   * Streams all of a user's places, oldest first, through a server-side cursor that fetches
+   * {@code fetchSize} rows at a time. PostgreSQL only uses a cursor inside a transaction; the
+   * caller must also detach each place once written, or the persistence context keeps them all.
+   */
+  public Stream<CoffeePlace> streamByUserId(UUID userId, int fetchSize) {
+    return find("userId", Sort.by("createdAt").and("id"), userId)
+        .withHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .withHint(HibernateHints.HINT_READ_ONLY, true)
+        .stream();
+  }
+
+  /**
+   * Reads one page of a user's places in {@code sort} order, starting right after {@code after}
+   * (or from the beginning when it is {@code null}). The keyset predicate and ordering match the
+   * {@code (user_id, created_at, id)} / {@code (user_id, updated_at, id)} indexes, so the cost
+   * depends on {@code limit} rather than on how many places the user has.
+   */
+  public List<CoffeePlace> findPageByUserId(
+      UUID userId, CoffeePlaceFilter filter, CoffeePlaceSort sort, PageCursor after, int limit) {
+    CoffeePlaceQueries.Query query = CoffeePlaceQueries.page(userId, filter, sort, after);
+    return find(query.hql(), sort.toSort(), query.parameters()).range(0, limit - 1).list();
+  }
+
+  /**
+   * Reads the user's places changed after {@code since} in {@code (updatedAt, id)} order, over the
+   * {@code (user_id, updated_at, id)} index. Without {@code afterId} every place updated at or
+   * after {@code since} is included; a {@code null} {@code since} starts from the beginning.
+   */
+  public List<CoffeePlace> findChangedSince(
+      UUID userId, LocalDateTime since, UUID afterId, int limit) {
+    Sort order = Sort.by("updatedAt").and("id");
+    if (since == null) {
+      return find("userId = ?1", order, userId).range(0, limit - 1).list();
+    }
+    if (afterId == null) {
+      return find("userId = ?1 and updatedAt >= ?2", order, userId, since)
+          .range(0, limit - 1)
+          .list();
+    }
+    return find("userId = ?1 and (updatedAt, id) > (?2, ?3)", order, userId, since, afterId)
+        .range(0, limit - 1)
+        .list();
+  }
+
+  /**
+   * Ranks the user's places matching {@code term} by relevance; see {@link
+   * CoffeePlaceQueries#search}. Served by the trigram index on name, address and Instagram handle.
+   */
+  public List<CoffeePlace> search(UUID userId, String term, CoffeePlaceFilter filter, int limit) {
+    CoffeePlaceQueries.NativeQuery query = CoffeePlaceQueries.search(userId, term, filter, limit);
+    NativeQuery<CoffeePlace> nativeQuery =
+        getEntityManager().unwrap(Session.class).createNativeQuery(query.sql(), CoffeePlace.class);
+    query.parameters().forEach(nativeQuery::setParameter);
+    return nativeQuery.getResultList();
+  }
+
+  /**
+   * Projects the locations of a user's places that fall in any of the given geohash cells. Each
+   * cell is a prefix match on the {@code (user_id, geohash)} index. An empty cell set means the
+   * search area is too large to restrict by cell, and every place with coordinates is returned.
+   */
+  public List<PlaceLocation> findLocationsInCells(UUID userId, Set<String> cells) {
+    CoffeePlaceQueries.Query query = CoffeePlaceQueries.locationsInCells(userId, cells);
+    return find(query.hql(), query.parameters()).project(PlaceLocation.class).list();
+  }
+
+  public List<PlaceLocation> findLocationsMissingGeohash(int limit) {
+    return find("geohash is null and latitude is not null and longitude is not null")
+        .project(PlaceLocation.class)
+        .page(0, limit)
+        .list();
+  }
+
+  /** Sets the geohash without going through entity callbacks, so {@code updatedAt} is kept. */
+  public void updateGeohash(UUID id, String geohash) {
+    update("geohash = ?1 where id = ?2", geohash, id);
+  }
+
+  public List<CoffeePlace> findByIds(Collection<UUID> ids) {
+    return list("id in ?1", ids);
+  }
+
+  public List<CoffeePlace> findByIdsAndUserId(Collection<UUID> ids, UUID userId) {
+    return list("id in ?1 and userId = ?2", ids, userId);
+  }
+
+  /** Up to {@code limit} ids of the user's places, in no particular order. */
+  public List<UUID> findIdsByUserId(UUID userId, int limit) {
+    return getEntityManager()
+        .createQuery("select c.id from CoffeePlace c where c.userId = :userId", UUID.class)
+        .setParameter("userId", userId)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  /** The ones among {@code ids} that have a photo. */
+  public List<UUID> findIdsWithPhoto(Collection<UUID> ids) {
+    return getEntityManager()
+        .createQuery(
+            "select c.id from CoffeePlace c where c.id in :ids and c.photoContentType is not null",
+            UUID.class)
+        .setParameter("ids", ids)
+        .getResultList();
+  }
+
+  /**
+   * Summarises the state of a user's places as "count@last update" in a single aggregate over the
+   * {@code (user_id, updated_at)} index. Any create, update or delete changes it.
+   */
+  public String findListVersion(UUID userId) {
+    Object[] row =
+        getEntityManager()
+            .createQuery(
+                "select count(c), max(c.updatedAt) from CoffeePlace c where c.userId = :userId",
+                Object[].class)
+            .setParameter("userId", userId)
+            .getSingleResult();
+    return row[0] + "@" + row[1];
+  }
+
+  public Optional<LocalDateTime> findUpdatedAt(UUID id, UUID userId) {
+    return getEntityManager()
+        .createQuery(
+            "select c.updatedAt from CoffeePlace c where c.id = :id and c.userId = :userId",
+            LocalDateTime.class)
+        .setParameter("id", id)
+        .setParameter("userId", userId)
+        .getResultStream()
+        .findFirst();
+  }
+
+  /**
+   * Returns {@code [photoContentType, photo version, photoStatus, content hash]} for a place, where
+   * the version falls back to {@code updatedAt} for photos stored before {@code photo_updated_at}
+   * existed and the hash is that of what the URL of {@code variant} serves.
+   */
+  public Optional<Object[]> findPhotoVersion(UUID id, UUID userId, PhotoVariant variant) {
+    return getEntityManager()
+        .createQuery(
+            "select c.photoContentType, coalesce(c.photoUpdatedAt, c.updatedAt), c.photoStatus, c."
+                + hashAttribute(variant)
+                + " from CoffeePlace c where c.id = :id and c.userId = :userId",
+            Object[].class)
+        .setParameter("id", id)
+        .setParameter("userId", userId)
+        .getResultStream()
+        .findFirst();
+  }
+
+  /** Returns {@code [id, photoContentType, photoUpdatedAt]} for those of the user's places that have a photo. */
+  public List<Object[]> findPhotoContentTypes(Collection<UUID> ids, UUID userId) {
+    return getEntityManager()
+        .createQuery(
+            "select c.id, c.photoContentType, c.photoUpdatedAt from CoffeePlace c"
+                + " where c.id in :ids and c.userId = :userId and c.photoContentType is not null",
+            Object[].class)
+        .setParameter("ids", ids)
+        .setParameter("userId", userId)
+        .getResultList();
+  }
+
+  /** Returns {@code [photoContentType, photoUpdatedAt]} for a place that currently has a photo. */
+  public Optional<Object[]> findPhotoState(UUID id) {
+    return getEntityManager()
+        .createQuery(
+            "select c.photoContentType, c.photoUpdatedAt from CoffeePlace c"
+                + " where c.id = :id and c.photoContentType is not null",
+            Object[].class)
+        .setParameter("id", id)
+        .getResultStream()
+        .findFirst();
+  }
+
+  public boolean hasPhotoVersion(UUID id, LocalDateTime photoUpdatedAt) {
+    return count("id = ?1 and photoUpdatedAt = ?2", id, photoUpdatedAt) > 0;
+  }
+
+  /**
+   * Records the outcome of photo processing, unless a newer upload or a delete has replaced the
+   * photo in the meantime. Bumps {@code updatedAt} so listing ETags pick up the new status.
+   */
+  public long updatePhotoStatus(UUID id, LocalDateTime photoUpdatedAt, PhotoStatus status) {
+    return update(
+        "photoStatus = ?1, updatedAt = ?2 where id = ?3 and photoUpdatedAt = ?4",
+        status,
+        LocalDateTime.now(),
+        id,
+        photoUpdatedAt);
+  }
+
+  /**
+   * Returns the next ids after {@code afterId} of places whose photo, uploaded before {@code
+   * uploadedBefore}, is still waiting for its renditions.
+   */
+  public List<UUID> findIdsWithPhotoProcessing(
+      LocalDateTime uploadedBefore, UUID afterId, int limit) {
+    return getEntityManager()
+        .createQuery(
+            "select c.id from CoffeePlace c where c.id > :afterId and c.photoStatus = :status"
+                + " and c.photoUpdatedAt < :uploadedBefore order by c.id",
+            UUID.class)
+        .setParameter("afterId", afterId)
+        .setParameter("status", PhotoStatus.PROCESSING)
+        .setParameter("uploadedBefore", uploadedBefore)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  /** Marks the photo failed if it is still waiting for its renditions. */
+  public long failPhotoProcessing(UUID id, LocalDateTime uploadedBefore) {
+    return update(
+        "photoStatus = ?1, updatedAt = ?2 where id = ?3 and photoStatus = ?4"
+            + " and photoUpdatedAt < ?5",
+        PhotoStatus.FAILED,
+        LocalDateTime.now(),
+        id,
+        PhotoStatus.PROCESSING,
+        uploadedBefore);
+  }
+
+  /** Records the hash of a rendition just written, unless the photo was replaced meanwhile. */
+  public long updatePhotoHash(
+      UUID id, LocalDateTime photoUpdatedAt, PhotoVariant variant, String hash) {
+    return update(
+        hashAttribute(variant) + " = ?1 where id = ?2 and photoUpdatedAt = ?3",
+        hash,
+        id,
+        photoUpdatedAt);
+  }
+
+  /** Returns the next ids after {@code afterId} of places whose photo has no hashes yet. */
+  public List<UUID> findIdsMissingPhotoHash(UUID afterId, int limit) {
+    return getEntityManager()
+        .createQuery(
+            "select c.id from CoffeePlace c where c.id > :afterId"
+                + " and c.photoContentType is not null and c.photoFullHash is null order by c.id",
+            UUID.class)
+        .setParameter("afterId", afterId)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  /** Stores backfilled hashes, unless the photo was replaced or removed meanwhile. */
+  public long updateMissingPhotoHashes(
+      UUID id, String thumbnailHash, String mediumHash, String fullHash) {
+    return update(
+        "photoThumbnailHash = ?1, photoMediumHash = ?2, photoFullHash = ?3 where id = ?4"
+            + " and photoContentType is not null and photoFullHash is null",
+        thumbnailHash,
+        mediumHash,
+        fullHash,
+        id);
+  }
+
+  private static String hashAttribute(PhotoVariant variant) {
+    return switch (variant) {
+      case THUMBNAIL -> "photoThumbnailHash";
+      case MEDIUM -> "photoMediumHash";
+      case FULL -> "photoFullHash";
+      case ORIGINAL -> throw new IllegalArgumentException("The original is not served on its own");
+    };
+  }
+
+  public long countByUserId(UUID userId) {
+    return count("userId", userId);
+  }
+
   public Optional<CoffeePlace> findByIdAndUserId(UUID id, UUID userId) {
     return find("id = ?1 and userId = ?2", id, userId).firstResultOptional();
   }
 
-  public long deleteByIdAndUserId(UUID id, UUID userId) {
-    return delete("id = ?1 and userId = ?2", id, userId);
+  /** Locks the row, so concurrent photo changes see each other's committed version. */
+  public Optional<CoffeePlace> findByIdAndUserIdForUpdate(UUID id, UUID userId) {
+    return find("id = ?1 and userId = ?2", id, userId)
+        .withLock(LockModeType.PESSIMISTIC_WRITE)
+        .firstResultOptional();
   }
 
-  public long deleteByUserId(UUID userId) {
-    return delete("userId", userId);
+  public long deleteByIds(Collection<UUID> ids) {
+    return delete("id in ?1", ids);
   }
 }
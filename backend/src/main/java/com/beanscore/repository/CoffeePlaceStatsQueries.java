@@ -0,0 +1,149 @@
+package com.beanscore.repository;
+
+import com.beanscore.stats.CoffeePlaceTotals;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Native SQL for the per-user statistics, shared by the blocking repository and the reactive one
+ * built with {@code -Preactive}. Changes are applied as relative increments, so concurrent writers
+ * serialise on the user's row without losing updates. A user without a row yet is seeded from a
+ * full scan instead, which already counts the writes of the current transaction.
+ */
+final class CoffeePlaceStatsQueries {
+
+  /** Columns of {@code coffee_place_stats}, in {@link CoffeePlaceTotals#counters()} order. */
+  static final List<String> COLUMNS = columns();
+
+  /** Aggregates over {@code coffee_places} producing {@link #COLUMNS}. */
+  private static final String SCAN_COLUMNS = scanColumns();
+
+  private static final String MONTH = "cast(date_trunc('month', created_at) as date)";
+
+  static final String INCREMENT =
+      "update coffee_place_stats set "
+          + COLUMNS.stream()
+              .map(column -> column + " = " + column + " + :" + column)
+              .collect(Collectors.joining(", "))
+          + ", updated_at = now() where user_id = :userId";
+
+  static final String SEED =
+      "insert into coffee_place_stats (user_id, "
+          + String.join(", ", COLUMNS)
+          + ", updated_at) select :userId, "
+          + SCAN_COLUMNS
+          + ", now() from coffee_places where user_id = :userId"
+          + " on conflict (user_id) do nothing";
+
+  static final String REBUILD =
+      "update coffee_place_stats set ("
+          + String.join(", ", COLUMNS)
+          + ", updated_at) = (select "
+          + SCAN_COLUMNS
+          + ", now() from coffee_places where user_id = :userId) where user_id = :userId";
+
+  static final String SCAN =
+      "select " + SCAN_COLUMNS + " from coffee_places where user_id = :userId";
+
+  static final String INCREMENT_MONTH =
+      "insert into coffee_place_monthly_stats as m (user_id, month, place_count)"
+          + " values (:userId, :month, :count) on conflict (user_id, month)"
+          + " do update set place_count = m.place_count + excluded.place_count";
+
+  static final String DELETE_MONTHS =
+      "delete from coffee_place_monthly_stats where user_id = :userId";
+
+  static final String SEED_MONTHS =
+      "insert into coffee_place_monthly_stats (user_id, month, place_count) select :userId, "
+          + MONTH
+          + ", count(*) from coffee_places where user_id = :userId group by 2";
+
+  static final String MONTHS =
+      "select month, place_count from coffee_place_monthly_stats"
+          + " where user_id = :userId and place_count <> 0 order by month";
+
+  static final String SCAN_MONTHS =
+      "select "
+          + MONTH
+          + ", count(*) from coffee_places where user_id = :userId group by 1 order by 1";
+
+  private CoffeePlaceStatsQueries() {}
+
+  /** Parameters of {@link #INCREMENT} adding {@code change} to the user's row. */
+  static Map<String, Object> incrementParameters(UUID userId, CoffeePlaceTotals change) {
+    Map<String, Object> parameters = new LinkedHashMap<>();
+    long[] counters = change.counters();
+    for (int i = 0; i < counters.length; i++) {
+      parameters.put(COLUMNS.get(i), counters[i]);
+    }
+    parameters.put("userId", userId);
+    return parameters;
+  }
+
+  /** Parameters of {@link #INCREMENT_MONTH}, one map per month {@code change} touches. */
+  static List<Map<String, Object>> monthParameters(UUID userId, CoffeePlaceTotals change) {
+    List<Map<String, Object>> parameters = new ArrayList<>();
+    change
+        .addedPerMonth()
+        .forEach(
+            (month, count) ->
+                parameters.add(Map.of("userId", userId, "month", month.atDay(1), "count", count)));
+    return parameters;
+  }
+
+  /** Reads the single row of {@link #SCAN}. */
+  static long[] counters(Object[] row) {
+    long[] counters = new long[row.length];
+    for (int i = 0; i < row.length; i++) {
+      counters[i] = ((Number) row[i]).longValue();
+    }
+    return counters;
+  }
+
+  /** Reads the rows of {@link #MONTHS} or {@link #SCAN_MONTHS}. */
+  static Map<YearMonth, Long> months(List<Object[]> rows) {
+    Map<YearMonth, Long> months = new TreeMap<>();
+    for (Object[] row : rows) {
+      // JDBC hands back java.sql.Date, the reactive client LocalDate
+      LocalDate day = row[0] instanceof Date date ? date.toLocalDate() : (LocalDate) row[0];
+      months.put(YearMonth.from(day), ((Number) row[1]).longValue());
+    }
+    return months;
+  }
+
+  private static List<String> columns() {
+    List<String> columns =
+        new ArrayList<>(List.of("place_count", "coffee_quality_sum", "ambient_sum"));
+    ratings().forEach(rating -> columns.add("coffee_quality_" + rating));
+    ratings().forEach(rating -> columns.add("ambient_" + rating));
+    columns.addAll(
+        List.of("gluten_free_count", "veg_milk_count", "vegan_food_count", "sugar_free_count"));
+    return List.copyOf(columns);
+  }
+
+  private static String scanColumns() {
+    List<String> aggregates =
+        new ArrayList<>(
+            List.of("count(*)", "coalesce(sum(coffee_quality), 0)", "coalesce(sum(ambient), 0)"));
+    ratings()
+        .forEach(
+            rating -> aggregates.add("count(*) filter (where coffee_quality = " + rating + ")"));
+    ratings().forEach(rating -> aggregates.add("count(*) filter (where ambient = " + rating + ")"));
+    List.of("has_gluten_free", "has_veg_milk", "has_vegan_food", "has_sugar_free")
+        .forEach(flag -> aggregates.add("count(*) filter (where " + flag + ")"));
+    return String.join(", ", aggregates);
+  }
+
+  private static IntStream ratings() {
+    return IntStream.rangeClosed(CoffeePlaceTotals.MIN_RATING, CoffeePlaceTotals.MAX_RATING);
+  }
+}
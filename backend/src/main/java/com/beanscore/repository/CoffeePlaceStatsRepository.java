@@ -0,0 +1,116 @@
+package com.beanscore.repository;
+
+import com.beanscore.entity.CoffeePlaceStats;
+import com.beanscore.stats.CoffeePlaceTotals;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/** Per-user statistics; see {@link CoffeePlaceStatsQueries} for how they are kept current. */
+@ApplicationScoped
+public class CoffeePlaceStatsRepository implements PanacheRepositoryBase<CoffeePlaceStats, UUID> {
+
+  /**
+   * Adds {@code change} to the user's statistics, in the caller's transaction. Pending place
+   * writes are flushed first, so a user seen for the first time is seeded from a scan that
+   * already includes them.
+   */
+  public void apply(UUID userId, CoffeePlaceTotals change) {
+    if (change.isEmpty()) {
+      return;
+    }
+    getEntityManager().flush();
+
+    if (increment(userId, change) == 0) {
+      if (seed(userId)) {
+        return;
+      }
+      // Another transaction seeded the row in the meantime
+      increment(userId, change);
+    }
+    CoffeePlaceStatsQueries.monthParameters(userId, change)
+        .forEach(parameters -> execute(CoffeePlaceStatsQueries.INCREMENT_MONTH, parameters));
+  }
+
+  /** The stored statistics, or empty when the user has none yet. */
+  public Optional<CoffeePlaceTotals> findTotals(UUID userId) {
+    return findByIdOptional(userId).map(stats -> totals(stats, userId));
+  }
+
+  /**
+   * Locks the user's statistics row for the rest of the transaction and returns what it holds;
+   * writes to the user's places wait until then. Empty if the row had to be seeded first, in which
+   * case it is already exact.
+   */
+  public Optional<CoffeePlaceTotals> lockTotals(UUID userId) {
+    CoffeePlaceStats stats = findById(userId, LockModeType.PESSIMISTIC_WRITE);
+    if (stats == null) {
+      if (seed(userId)) {
+        return Optional.empty();
+      }
+      stats = findById(userId, LockModeType.PESSIMISTIC_WRITE);
+    }
+    return Optional.of(totals(stats, userId));
+  }
+
+  /** Computes the user's statistics from a full scan of their places. */
+  public CoffeePlaceTotals scanTotals(UUID userId) {
+    Object[] row =
+        (Object[])
+            getEntityManager()
+                .createNativeQuery(CoffeePlaceStatsQueries.SCAN)
+                .setParameter("userId", userId)
+                .getSingleResult();
+    return CoffeePlaceTotals.of(
+        CoffeePlaceStatsQueries.counters(row),
+        months(CoffeePlaceStatsQueries.SCAN_MONTHS, userId));
+  }
+
+  /** Overwrites the user's statistics with a full scan. Call with the row locked. */
+  public void rebuild(UUID userId) {
+    Map<String, Object> parameters = Map.of("userId", userId);
+    execute(CoffeePlaceStatsQueries.REBUILD, parameters);
+    execute(CoffeePlaceStatsQueries.DELETE_MONTHS, parameters);
+    execute(CoffeePlaceStatsQueries.SEED_MONTHS, parameters);
+  }
+
+  /** Creates the user's statistics from a full scan; {@code false} if they already exist. */
+  private boolean seed(UUID userId) {
+    Map<String, Object> parameters = Map.of("userId", userId);
+    if (execute(CoffeePlaceStatsQueries.SEED, parameters) == 0) {
+      return false;
+    }
+    execute(CoffeePlaceStatsQueries.DELETE_MONTHS, parameters);
+    execute(CoffeePlaceStatsQueries.SEED_MONTHS, parameters);
+    return true;
+  }
+
+  private int increment(UUID userId, CoffeePlaceTotals change) {
+    return execute(
+        CoffeePlaceStatsQueries.INCREMENT,
+        CoffeePlaceStatsQueries.incrementParameters(userId, change));
+  }
+
+  private CoffeePlaceTotals totals(CoffeePlaceStats stats, UUID userId) {
+    return CoffeePlaceTotals.of(stats.counters(), months(CoffeePlaceStatsQueries.MONTHS, userId));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<YearMonth, Long> months(String sql, UUID userId) {
+    List<Object[]> rows =
+        getEntityManager().createNativeQuery(sql).setParameter("userId", userId).getResultList();
+    return CoffeePlaceStatsQueries.months(rows);
+  }
+
+  private int execute(String sql, Map<String, Object> parameters) {
+    Query query = getEntityManager().createNativeQuery(sql);
+    parameters.forEach(query::setParameter);
+    return query.executeUpdate();
+  }
+}
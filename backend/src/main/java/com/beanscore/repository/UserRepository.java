@@ -3,17 +3,44 @@ package com.beanscore.repository;
 import com.beanscore.entity.User;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @ApplicationScoped
 public class UserRepository implements PanacheRepositoryBase<User, UUID> {
 
+  /** Accounts pending deletion are left out: they can no longer sign in. */
   public Optional<User> findByEmail(String email) {
-    return find("email", email).firstResultOptional();
+    return find("email = ?1 and deletedAt is null", email).firstResultOptional();
+  }
+
+  /** The account, unless it does not exist or is pending deletion. */
+  public Optional<User> findActiveById(UUID id) {
+    return find("id = ?1 and deletedAt is null", id).firstResultOptional();
   }
 
   public boolean existsByEmail(String email) {
     return count("email", email) > 0;
   }
+
+  /** Ids greater than {@code after}, in ascending order. */
+  public List<UUID> findIdsAfter(UUID after, int limit) {
+    return getEntityManager()
+        .createQuery("select u.id from User u where u.id > :after order by u.id", UUID.class)
+        .setParameter("after", after)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  /** Replaces the password hash only if it is still {@code expectedPassword}. */
+  public long updatePassword(UUID id, String expectedPassword, String newPassword) {
+    return update(
+        "password = ?1, updatedAt = ?2 where id = ?3 and password = ?4",
+        newPassword,
+        LocalDateTime.now(),
+        id,
+        expectedPassword);
+  }
 }
@@ -5,6 +5,7 @@ import com.beanscore.dto.request.RegisterRequest;
 import com.beanscore.dto.response.AuthResponse;
 import com.beanscore.dto.response.UserResponse;
 import com.beanscore.service.AuthService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -20,6 +21,7 @@ import jakarta.ws.rs.core.Response;
 @Path("/auth")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class AuthResource {
 
   @Inject AuthService authService;
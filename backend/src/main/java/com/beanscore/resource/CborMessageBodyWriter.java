@@ -0,0 +1,59 @@
+package com.beanscore.resource;
+
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Writes responses as CBOR (RFC 8949) for clients that send {@code Accept: application/cbor}. The
+ * fields and names are those of the JSON responses, as the application's {@link ObjectMapper} is
+ * reused with a binary encoding; numbers, booleans and field lengths take fewer bytes and nothing
+ * is escaped.
+ */
+@Provider
+@Produces(CborMessageBodyWriter.APPLICATION_CBOR)
+public class CborMessageBodyWriter implements MessageBodyWriter<Object> {
+
+  public static final String APPLICATION_CBOR = "application/cbor";
+
+  public static final MediaType APPLICATION_CBOR_TYPE = MediaType.valueOf(APPLICATION_CBOR);
+
+  private final ObjectMapper cborMapper;
+
+  @Inject
+  public CborMessageBodyWriter(ObjectMapper objectMapper) {
+    // The container owns the response stream and closes it after the filters
+    this.cborMapper =
+        objectMapper.copyWith(
+            CBORFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build());
+  }
+
+  @Override
+  public boolean isWriteable(
+      Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return true;
+  }
+
+  @Override
+  public void writeTo(
+      Object entity,
+      Class<?> type,
+      Type genericType,
+      Annotation[] annotations,
+      MediaType mediaType,
+      MultivaluedMap<String, Object> httpHeaders,
+      OutputStream entityStream)
+      throws IOException {
+    cborMapper.writeValue(entityStream, entity);
+  }
+}
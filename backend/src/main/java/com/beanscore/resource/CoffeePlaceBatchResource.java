@@ -0,0 +1,30 @@
+package com.beanscore.resource;
+
+import com.beanscore.dto.request.BatchOperation;
+import com.beanscore.dto.response.BatchOperationResult;
+import com.beanscore.service.CoffeePlaceService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import java.util.List;
+
+/** Replays changes queued by an offline client in one request and one transaction. */
+@Path("/coffee-places/batch")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RolesAllowed("user")
+@RunOnVirtualThread
+public class CoffeePlaceBatchResource {
+
+  @Inject CoffeePlaceService coffeePlaceService;
+
+  @POST
+  public List<BatchOperationResult> applyBatch(List<BatchOperation> operations) {
+    return coffeePlaceService.applyBatch(operations);
+  }
+}
@@ -0,0 +1,38 @@
+package com.beanscore.resource;
+
+import com.beanscore.dto.response.CoffeePlaceChanges;
+import com.beanscore.service.CoffeePlaceChangesService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+/** Delta sync for clients that keep a local copy of their places. */
+@Path("/coffee-places/changes")
+@Produces({MediaType.APPLICATION_JSON, CborMessageBodyWriter.APPLICATION_CBOR})
+@RolesAllowed("user")
+@RunOnVirtualThread
+public class CoffeePlaceChangesResource {
+
+  @Inject CoffeePlaceChangesService changesService;
+
+  @GET
+  public Response getChanges(
+      @QueryParam("since") String since,
+      @QueryParam("limit") @DefaultValue("200") int limit,
+      @Context Request request) {
+    CoffeePlaceChanges changes = changesService.getChanges(since, limit);
+    return Response.ok(changes, WireFormats.select(request))
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+        .build();
+  }
+}
@@ -1,31 +1,56 @@
 package com.beanscore.resource;
 
 import com.beanscore.service.CoffeePlaceService;
+import com.beanscore.service.PhotoProcessingService;
+import com.beanscore.storage.PhotoRejectedException;
+import com.beanscore.storage.PhotoVariant;
+import com.beanscore.storage.SpooledPhoto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.UUID;
 import org.jboss.resteasy.reactive.PartType;
+import org.jboss.resteasy.reactive.multipart.FileUpload;
 
 @Path("/coffee-places/{id}/photo")
 @RolesAllowed("user")
+@RunOnVirtualThread
 public class CoffeePlacePhotoResource {
 
+  static final long MAX_PHOTO_BYTES = 2 * 1024 * 1024;
+
+  static final long MAX_THUMBNAIL_BYTES = 500 * 1024;
+
+  /**
+   * For URLs that embed the content hash: what they serve never changes, so the browser may keep it
+   * for a year without revalidating. Private, as photos are only served to their owner.
+   */
+  private static final String IMMUTABLE = "private, max-age=31536000, immutable";
+
   @Inject CoffeePlaceService coffeePlaceService;
 
+  @Inject PhotoProcessingService photoProcessingService;
+
+  @Inject MeterRegistry registry;
+
+  /** File parts are written to temporary files before the method runs and deleted after it. */
   public static class PhotoUpload {
     @FormParam("photo")
-    @PartType(MediaType.APPLICATION_OCTET_STREAM)
-    public InputStream photo;
+    public FileUpload photo;
 
     @FormParam("thumbnail")
-    @PartType(MediaType.APPLICATION_OCTET_STREAM)
-    public InputStream thumbnail;
+    public FileUpload thumbnail;
 
+    /** Informational only; the stored type is detected from the image bytes. */
     @FormParam("contentType")
     @PartType(MediaType.TEXT_PLAIN)
     public String contentType;
@@ -34,63 +59,83 @@ public class CoffeePlacePhotoResource {
   @POST
   @Consumes(MediaType.MULTIPART_FORM_DATA)
   public Response uploadPhoto(@PathParam("id") UUID id, @BeanParam PhotoUpload upload) {
+    // The parts are checked, hashed and stored by streaming their files; no image is read into
+    // memory on the way to the photo store. Their size while being received is bounded by
+    // quarkus.http.limits.max-body-size, the limits here only apply once they are on disk
     try {
-      byte[] photoBytes = upload.photo.readAllBytes();
-      byte[] thumbnailBytes = upload.thumbnail.readAllBytes();
-
-      if (photoBytes.length > 2 * 1024 * 1024) {
-        return Response.status(Response.Status.BAD_REQUEST)
-            .entity("Photo file size must be less than 2MB")
-            .build();
-      }
-      if (thumbnailBytes.length > 500 * 1024) {
-        return Response.status(Response.Status.BAD_REQUEST)
-            .entity("Thumbnail file size must be less than 500KB")
-            .build();
+      SpooledPhoto photo =
+          SpooledPhoto.ofFile(
+              upload.photo == null ? null : upload.photo.uploadedFile(),
+              "Photo",
+              MAX_PHOTO_BYTES,
+              "2MB");
+      SpooledPhoto thumbnail =
+          upload.thumbnail == null
+              ? null
+              : SpooledPhoto.ofFile(
+                  upload.thumbnail.uploadedFile(), "Thumbnail", MAX_THUMBNAIL_BYTES, "500KB");
+      coffeePlaceService.uploadPhoto(id, photo, thumbnail);
+      photoBytes("uploaded", "original").increment(photo.size());
+      if (thumbnail != null) {
+        photoBytes("uploaded", "thumbnail").increment(thumbnail.size());
       }
-
-      if (!upload.contentType.equals("image/jpeg") && !upload.contentType.equals("image/png")) {
-        return Response.status(Response.Status.BAD_REQUEST)
-            .entity("Only JPEG and PNG images are allowed")
-            .build();
-      }
-
-      coffeePlaceService.uploadPhoto(id, photoBytes, thumbnailBytes, upload.contentType);
-      return Response.noContent().build();
+    } catch (PhotoRejectedException e) {
+      return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
     } catch (IOException e) {
       return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
           .entity("Failed to process photo upload")
           .build();
     }
+
+    // Resizing starts only once the upload has committed; clients poll photoStatus
+    photoProcessingService.submit(id);
+    return Response.accepted().build();
   }
 
   @GET
   @Path("/thumbnail")
   @Produces({"image/jpeg", "image/png"})
-  public Response getThumbnail(@PathParam("id") UUID id) {
-    var photoData = coffeePlaceService.getPhotoThumbnail(id);
-    if (photoData == null) {
-      return Response.status(Response.Status.NOT_FOUND).build();
-    }
+  public Response getThumbnail(@PathParam("id") UUID id, @Context Request request) {
+    return servePhoto(id, PhotoVariant.THUMBNAIL, "thumbnail", 3600, null, request);
+  }
 
-    return Response.ok(photoData.bytes())
-        .type(photoData.contentType())
-        .header("Cache-Control", "max-age=3600")
-        .build();
+  @GET
+  @Path("/medium")
+  @Produces({"image/jpeg", "image/png"})
+  public Response getMedium(@PathParam("id") UUID id, @Context Request request) {
+    return servePhoto(id, PhotoVariant.MEDIUM, "medium", 86400, null, request);
   }
 
   @GET
   @Produces({"image/jpeg", "image/png"})
-  public Response getPhoto(@PathParam("id") UUID id) {
-    var photoData = coffeePlaceService.getPhoto(id);
-    if (photoData == null) {
-      return Response.status(Response.Status.NOT_FOUND).build();
-    }
+  public Response getPhoto(@PathParam("id") UUID id, @Context Request request) {
+    return servePhoto(id, PhotoVariant.FULL, "original", 86400, null, request);
+  }
+
+  // Versioned URLs, as listed in CoffeePlaceResponse.photoUrls
 
-    return Response.ok(photoData.bytes())
-        .type(photoData.contentType())
-        .header("Cache-Control", "max-age=86400")
-        .build();
+  @GET
+  @Path("/thumbnail/{hash}")
+  @Produces({"image/jpeg", "image/png"})
+  public Response getThumbnail(
+      @PathParam("id") UUID id, @PathParam("hash") String hash, @Context Request request) {
+    return servePhoto(id, PhotoVariant.THUMBNAIL, "thumbnail", 3600, hash, request);
+  }
+
+  @GET
+  @Path("/medium/{hash}")
+  @Produces({"image/jpeg", "image/png"})
+  public Response getMedium(
+      @PathParam("id") UUID id, @PathParam("hash") String hash, @Context Request request) {
+    return servePhoto(id, PhotoVariant.MEDIUM, "medium", 86400, hash, request);
+  }
+
+  @GET
+  @Path("/full/{hash}")
+  @Produces({"image/jpeg", "image/png"})
+  public Response getPhoto(
+      @PathParam("id") UUID id, @PathParam("hash") String hash, @Context Request request) {
+    return servePhoto(id, PhotoVariant.FULL, "original", 86400, hash, request);
   }
 
   @DELETE
@@ -98,4 +143,58 @@ public class CoffeePlacePhotoResource {
     coffeePlaceService.deletePhoto(id);
     return Response.noContent().build();
   }
+
+  /**
+   * Serves the current image. A {@code hash} that no longer matches it, from a response listed
+   * before a new upload, gets the image with the unversioned caching instead of immutable. The
+   * version and the image are read separately, so before promising immutable the served bytes are
+   * hashed too: an upload in between must not be cached for a year under the old URL.
+   */
+  private Response servePhoto(
+      UUID id, PhotoVariant variant, String tagName, int maxAge, String hash, Request request) {
+    var version = coffeePlaceService.getPhotoVersion(id, variant);
+    if (version == null) {
+      return Response.status(Response.Status.NOT_FOUND).build();
+    }
+    boolean versioned = hash != null && hash.equals(version.contentHash());
+    String cacheControl = versioned ? IMMUTABLE : "max-age=" + maxAge;
+
+    // The version includes the processing status, so a fallback to the original is revalidated
+    EntityTag tag = EntityTags.of(id, tagName, version.tag());
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+    if (notModified != null) {
+      return notModified.header("Cache-Control", cacheControl).build();
+    }
+
+    var photoData = coffeePlaceService.getPhoto(id, variant);
+    if (photoData == null) {
+      return Response.status(Response.Status.NOT_FOUND).build();
+    }
+    // The photo may have changed since the precondition check; describe the bytes actually sent
+    var served = photoData.version();
+    cacheControl =
+        hash != null && hash.equals(served.contentHash()) ? IMMUTABLE : "max-age=" + maxAge;
+    Response.ResponseBuilder response =
+        Response.ok(photoData.photo().entity()).tag(EntityTags.of(id, tagName, served.tag()));
+
+    long size = photoData.photo().size();
+    if (size > 0) {
+      photoBytes("served", tagName).increment(size);
+    }
+
+    return response.type(photoData.contentType()).header("Cache-Control", cacheControl).build();
+  }
+
+  private Counter photoBytes(String direction, String variant) {
+    return photoBytes(registry, direction, variant);
+  }
+
+  static Counter photoBytes(MeterRegistry registry, String direction, String variant) {
+    return Counter.builder("beanscore.photo.bytes")
+        .baseUnit("bytes")
+        .description("Photo bytes received in uploads and sent in responses")
+        .tag("direction", direction)
+        .tag("variant", variant)
+        .register(registry);
+  }
 }
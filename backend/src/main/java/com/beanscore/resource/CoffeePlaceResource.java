@@ -1,46 +1,148 @@
 package com.beanscore.resource;
 
+import com.beanscore.dto.request.CoffeePlaceFilter;
+import com.beanscore.dto.request.CoffeePlaceSort;
 import com.beanscore.dto.request.CreateCoffeePlaceRequest;
 import com.beanscore.dto.request.UpdateCoffeePlaceRequest;
+import com.beanscore.dto.response.CoffeePlacePage;
 import com.beanscore.dto.response.CoffeePlaceResponse;
+import com.beanscore.dto.response.NearbyCoffeePlaceResponse;
 import com.beanscore.service.CoffeePlaceService;
 
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import java.util.List;
 import java.util.UUID;
 
 @Path("/coffee-places")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, CborMessageBodyWriter.APPLICATION_CBOR})
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@UnlessBuildProperty(name = "beanscore.data-path", stringValue = "reactive", enableIfMissing = true)
 public class CoffeePlaceResource {
 
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  /** Lets clients keep responses but makes them check the ETag before reusing one. */
+  private static final CacheControl REVALIDATE = revalidate();
+
   @Inject CoffeePlaceService coffeePlaceService;
 
   @GET
   @RolesAllowed("user")
-  public Response getAllCoffeePlaces() {
-    List<CoffeePlaceResponse> coffeePlaces = coffeePlaceService.getAll();
+  public Response getAllCoffeePlaces(
+      @QueryParam("search") String search,
+      @QueryParam("hasGlutenFree") boolean hasGlutenFree,
+      @QueryParam("hasVegMilk") boolean hasVegMilk,
+      @QueryParam("hasVeganFood") boolean hasVeganFood,
+      @QueryParam("hasSugarFree") boolean hasSugarFree,
+      @QueryParam("minCoffeeQuality") Integer minCoffeeQuality,
+      @QueryParam("sort") @DefaultValue("newest") String sort,
+      @QueryParam("cursor") String cursor,
+      @QueryParam("limit") @DefaultValue("50") int limit,
+      @Context Request request,
+      @Context UriInfo uriInfo) {
+    MediaType format = WireFormats.select(request);
+    EntityTag tag =
+        EntityTags.weak(
+            coffeePlaceService.getListVersion(), uriInfo.getRequestUri().getRawQuery(), format);
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+    if (notModified != null) {
+      return notModified
+          .cacheControl(REVALIDATE)
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+          .build();
+    }
+
+    CoffeePlaceFilter filter =
+        new CoffeePlaceFilter(
+            search, hasGlutenFree, hasVegMilk, hasVeganFood, hasSugarFree, minCoffeeQuality);
+    CoffeePlacePage page =
+        coffeePlaceService.getPage(filter, CoffeePlaceSort.fromParam(sort), cursor, limit);
+    return Response.ok(page.items(), format)
+        .header(NEXT_CURSOR_HEADER, page.nextCursor())
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+        .tag(tag)
+        .cacheControl(REVALIDATE)
+        .build();
+  }
+
+  @GET
+  @Path("/search")
+  @RolesAllowed("user")
+  public Response searchCoffeePlaces(
+      @QueryParam("q") String query,
+      @QueryParam("hasGlutenFree") boolean hasGlutenFree,
+      @QueryParam("hasVegMilk") boolean hasVegMilk,
+      @QueryParam("hasVeganFood") boolean hasVeganFood,
+      @QueryParam("hasSugarFree") boolean hasSugarFree,
+      @QueryParam("minCoffeeQuality") Integer minCoffeeQuality,
+      @QueryParam("limit") @DefaultValue("20") int limit) {
+    CoffeePlaceFilter filter =
+        new CoffeePlaceFilter(
+            query, hasGlutenFree, hasVegMilk, hasVeganFood, hasSugarFree, minCoffeeQuality);
+    List<CoffeePlaceResponse> coffeePlaces = coffeePlaceService.search(filter, limit);
+    return Response.ok(coffeePlaces).build();
+  }
+
+  @GET
+  @Path("/nearby")
+  @RolesAllowed("user")
+  public Response getNearbyCoffeePlaces(
+      @QueryParam("lat") Double latitude,
+      @QueryParam("lng") Double longitude,
+      @QueryParam("radiusKm") @DefaultValue("5") double radiusKm,
+      @QueryParam("limit") @DefaultValue("20") int limit) {
+    if (latitude == null || longitude == null) {
+      throw new BadRequestException("lat and lng are required");
+    }
+    List<NearbyCoffeePlaceResponse> coffeePlaces =
+        coffeePlaceService.getNearby(latitude, longitude, radiusKm, limit);
     return Response.ok(coffeePlaces).build();
   }
 
   @GET
   @Path("/{id}")
   @RolesAllowed("user")
-  public Response getCoffeePlaceById(@PathParam("id") UUID id) {
+  public Response getCoffeePlaceById(@PathParam("id") UUID id, @Context Request request) {
+    MediaType format = WireFormats.select(request);
+    EntityTag tag = EntityTags.weak(id, coffeePlaceService.getVersion(id), format);
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+    if (notModified != null) {
+      return notModified
+          .cacheControl(REVALIDATE)
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+          .build();
+    }
+
     CoffeePlaceResponse coffeePlace = coffeePlaceService.getById(id);
-    return Response.ok(coffeePlace).build();
+    return Response.ok(coffeePlace, format)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+        .tag(tag)
+        .cacheControl(REVALIDATE)
+        .build();
   }
 
   @POST
@@ -65,4 +167,13 @@ public class CoffeePlaceResource {
     coffeePlaceService.delete(id);
     return Response.noContent().build();
   }
+
+  private static CacheControl revalidate() {
+    CacheControl cacheControl = new CacheControl();
+    cacheControl.setPrivate(true);
+    cacheControl.setNoCache(true);
+    // Set by default; left out so the header stays "private, no-cache"
+    cacheControl.setNoTransform(false);
+    return cacheControl;
+  }
 }
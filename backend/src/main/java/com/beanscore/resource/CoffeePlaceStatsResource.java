@@ -0,0 +1,26 @@
+package com.beanscore.resource;
+
+import com.beanscore.dto.response.CoffeePlaceStatsResponse;
+import com.beanscore.service.CoffeePlaceStatsService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+/** Rating statistics for the stats screen. */
+@Path("/coffee-places/stats")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed("user")
+@RunOnVirtualThread
+public class CoffeePlaceStatsResource {
+
+  @Inject CoffeePlaceStatsService statsService;
+
+  @GET
+  public CoffeePlaceStatsResponse getStats() {
+    return statsService.getStats();
+  }
+}
@@ -0,0 +1,97 @@
+package com.beanscore.resource;
+
+import com.beanscore.service.CoffeePlaceService;
+import com.beanscore.service.CoffeePlaceService.Thumbnail;
+import com.beanscore.storage.StoredPhoto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Thumbnails of many places in one response, so a list of places costs one request instead of one
+ * per card.
+ */
+@Path("/coffee-places/thumbnails")
+@RolesAllowed("user")
+@RunOnVirtualThread
+public class CoffeePlaceThumbnailResource {
+
+  /**
+   * A sequence of thumbnails, each framed as its place id (36 ASCII bytes), the length of its
+   * content type (1 byte) and the content type (ASCII), then the length of the image (4 bytes,
+   * big-endian) and the image.
+   */
+  public static final String APPLICATION_PHOTO_BUNDLE = "application/vnd.beanscore.photo-bundle";
+
+  @Inject CoffeePlaceService coffeePlaceService;
+
+  @Inject MeterRegistry registry;
+
+  /**
+   * Takes a JSON array of place ids. Ids left out of the bundle have no thumbnail to serve yet;
+   * {@code GET /coffee-places/{id}/photo/thumbnail} falls back to the original for them.
+   */
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(APPLICATION_PHOTO_BUNDLE)
+  public Response getThumbnails(List<UUID> ids) {
+    List<Thumbnail> thumbnails = coffeePlaceService.getThumbnails(ids);
+
+    // One image at a time: each is read just before it is written, so memory stays at one
+    // thumbnail however large the batch
+    StreamingOutput bundle =
+        output -> {
+          DataOutputStream out = new DataOutputStream(output);
+          long served = 0;
+          for (Thumbnail thumbnail : thumbnails) {
+            byte[] image = bytes(coffeePlaceService.readThumbnail(thumbnail));
+            if (image == null) {
+              continue;
+            }
+            byte[] contentType = thumbnail.contentType().getBytes(StandardCharsets.US_ASCII);
+            out.write(thumbnail.id().toString().getBytes(StandardCharsets.US_ASCII));
+            out.writeByte(contentType.length);
+            out.write(contentType);
+            out.writeInt(image.length);
+            out.write(image);
+            served += image.length;
+          }
+          out.flush();
+          CoffeePlacePhotoResource.photoBytes(registry, "served", "thumbnail").increment(served);
+        };
+    return Response.ok(bundle).build();
+  }
+
+  /** The image bytes, or null if there is none or its file was deleted since it was looked up. */
+  private static byte[] bytes(Optional<StoredPhoto> stored) throws IOException {
+    if (stored.isEmpty()) {
+      return null;
+    }
+    StoredPhoto photo = stored.get();
+    if (photo.file() == null) {
+      return photo.bytes();
+    }
+    // Read whole so the length written ahead of it cannot go stale
+    try {
+      return Files.readAllBytes(photo.file());
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.beanscore.resource;
+
+import com.beanscore.dto.response.ImportReport;
+import com.beanscore.service.CoffeePlaceTransferService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk export and import of the current user's places as NDJSON. Kept apart from {@link
+ * CoffeePlaceResource} so it is available on both data paths.
+ */
+@Path("/coffee-places")
+@RolesAllowed("user")
+@RunOnVirtualThread
+public class CoffeePlaceTransferResource {
+
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+  @Inject CoffeePlaceTransferService transferService;
+
+  @GET
+  @Path("/export")
+  @Produces(APPLICATION_NDJSON)
+  public Response exportCoffeePlaces() {
+    return Response.ok(transferService.export())
+        .header("Content-Disposition", "attachment; filename=\"coffee-places.ndjson\"")
+        .build();
+  }
+
+  @POST
+  @Path("/import")
+  @Consumes(APPLICATION_NDJSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public ImportReport importCoffeePlaces(InputStream body) throws IOException {
+    return transferService.importPlaces(body);
+  }
+}
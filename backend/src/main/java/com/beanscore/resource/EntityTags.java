@@ -0,0 +1,40 @@
+package com.beanscore.resource;
+
+import jakarta.ws.rs.core.EntityTag;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/** Builds ETags from whatever identifies a representation's version. */
+final class EntityTags {
+
+  private EntityTags() {}
+
+  /** A strong tag, for bodies sent byte for byte as the resource wrote them. */
+  static EntityTag of(Object... parts) {
+    return new EntityTag(hash(parts));
+  }
+
+  /**
+   * A weak tag, for bodies that HTTP compression may re-encode: the gzip, br and identity bytes
+   * differ, so they can only share a tag that does not promise identical bytes.
+   */
+  static EntityTag weak(Object... parts) {
+    return new EntityTag(hash(parts), true);
+  }
+
+  private static String hash(Object... parts) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (Object part : parts) {
+        digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+      }
+      // 128 bits is plenty to tell versions apart and keeps the header short
+      return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -1,24 +1,43 @@
 package com.beanscore.resource;
 
+import com.beanscore.dto.response.AccountDeletionResponse;
 import com.beanscore.service.UserService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 
 @Path("/user")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class UserResource {
 
   @Inject UserService userService;
 
+  /** Blocks the account at once; its data is purged in the background (202 Accepted). */
   @DELETE
   @RolesAllowed("user")
-  public void deleteUserAccount() {
-    userService.deleteUserAccount();
+  public Response deleteUserAccount(@Context UriInfo uriInfo) {
+    AccountDeletionResponse deletion = userService.deleteUserAccount();
+    return Response.accepted(deletion)
+        .location(uriInfo.getAbsolutePathBuilder().path("deletion").build())
+        .build();
+  }
+
+  /** Progress of the purge, with the token of the deleted account. */
+  @GET
+  @Path("/deletion")
+  @RolesAllowed("user")
+  public AccountDeletionResponse getAccountDeletion() {
+    return userService.getAccountDeletion();
   }
 }
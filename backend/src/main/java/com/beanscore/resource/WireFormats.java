@@ -0,0 +1,26 @@
+package com.beanscore.resource;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Variant;
+import java.util.List;
+
+/**
+ * Negotiates between the JSON and CBOR encodings of a response. Responses with an ETag name the
+ * encoding in the tag too: a JSON body must not be revalidated for a CBOR request.
+ */
+final class WireFormats {
+
+  private static final List<Variant> VARIANTS =
+      Variant.mediaTypes(
+              MediaType.APPLICATION_JSON_TYPE, CborMessageBodyWriter.APPLICATION_CBOR_TYPE)
+          .build();
+
+  private WireFormats() {}
+
+  /** The encoding the client prefers, JSON when it states no preference. */
+  static MediaType select(Request request) {
+    Variant variant = request.selectVariant(VARIANTS);
+    return variant == null ? MediaType.APPLICATION_JSON_TYPE : variant.getMediaType();
+  }
+}
@@ -0,0 +1,35 @@
+package com.beanscore.security;
+
+import io.smallrye.jwt.auth.principal.JWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+import jakarta.annotation.Priority;
+import jakarta.decorator.Decorator;
+import jakarta.decorator.Delegate;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+/**
+ * Puts {@link VerifiedTokenCache} in front of the parser the MP-JWT mechanism uses for bearer
+ * tokens. Only successfully verified tokens are cached, so a bad token is checked, and rejected,
+ * every time.
+ */
+@Decorator
+@Priority(10)
+public abstract class CachingJwtParser implements JWTParser {
+
+  @Inject @Delegate @Any JWTParser delegate;
+
+  @Inject VerifiedTokenCache verifiedTokenCache;
+
+  @Override
+  public JsonWebToken parse(String bearerToken) throws ParseException {
+    JsonWebToken cached = verifiedTokenCache.get(bearerToken);
+    if (cached != null) {
+      return cached;
+    }
+    JsonWebToken token = delegate.parse(bearerToken);
+    verifiedTokenCache.put(bearerToken, token);
+    return token;
+  }
+}
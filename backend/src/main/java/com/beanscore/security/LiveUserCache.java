@@ -0,0 +1,94 @@
+package com.beanscore.security;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Remembers which user ids were recently confirmed to exist, so authenticated requests can skip
+ * the "does this account still exist" query. Entries expire after a short TTL and the cache never
+ * grows beyond its configured size.
+ *
+ * <p>Deleted ids are kept as tombstones for one TTL. A request that read the user row just before
+ * the delete committed cannot then mark the id live again, so a deleted account is rejected on
+ * this node as soon as {@link #invalidate(UUID)} is called.
+ */
+@ApplicationScoped
+public class LiveUserCache {
+
+  @ConfigProperty(name = "beanscore.user-cache.ttl", defaultValue = "PT1M")
+  Duration ttl;
+
+  @ConfigProperty(name = "beanscore.user-cache.max-size", defaultValue = "10000")
+  int maxSize;
+
+  private final Map<UUID, Long> liveUntil = new ConcurrentHashMap<>();
+  private final Map<UUID, Long> deletedUntil = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public boolean isKnownLive(UUID userId) {
+    Long expiry = liveUntil.get(userId);
+    if (expiry != null && expiry > System.nanoTime()) {
+      hits.increment();
+      return true;
+    }
+    if (expiry != null) {
+      liveUntil.remove(userId, expiry);
+    }
+    misses.increment();
+    return false;
+  }
+
+  public void markLive(UUID userId) {
+    long now = System.nanoTime();
+    Long tombstone = deletedUntil.get(userId);
+    if (tombstone != null) {
+      if (tombstone > now) {
+        return;
+      }
+      deletedUntil.remove(userId, tombstone);
+    }
+    if (liveUntil.size() >= maxSize) {
+      evictExpired(liveUntil, now);
+      if (liveUntil.size() >= maxSize) {
+        return;
+      }
+    }
+    liveUntil.put(userId, now + ttl.toNanos());
+  }
+
+  public void invalidate(UUID userId) {
+    long now = System.nanoTime();
+    if (deletedUntil.size() >= maxSize) {
+      evictExpired(deletedUntil, now);
+    }
+    deletedUntil.put(userId, now + ttl.toNanos());
+    liveUntil.remove(userId);
+  }
+
+  /** Lifts the tombstone placed by {@link #invalidate(UUID)} when the delete did not commit. */
+  public void cancelInvalidation(UUID userId) {
+    deletedUntil.remove(userId);
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public int size() {
+    return liveUntil.size();
+  }
+
+  private static void evictExpired(Map<UUID, Long> entries, long now) {
+    entries.values().removeIf(expiry -> expiry <= now);
+  }
+}
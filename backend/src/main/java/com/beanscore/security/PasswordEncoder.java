@@ -2,15 +2,37 @@ package com.beanscore.security;
 
 import io.quarkus.elytron.security.common.BcryptUtil;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 @ApplicationScoped
 public class PasswordEncoder {
 
+  @ConfigProperty(name = "beanscore.password.bcrypt-cost", defaultValue = "10")
+  int cost;
+
   public String encode(String rawPassword) {
-    return BcryptUtil.bcryptHash(rawPassword);
+    return BcryptUtil.bcryptHash(rawPassword, cost);
   }
 
   public boolean matches(String rawPassword, String encodedPassword) {
     return BcryptUtil.matches(rawPassword, encodedPassword);
   }
+
+  /** Whether a stored hash was made with a different cost than the configured one. */
+  public boolean needsRehash(String encodedPassword) {
+    return costOf(encodedPassword) != cost;
+  }
+
+  /** Reads the cost from a modular crypt hash such as {@code $2a$10$...}; -1 if unparseable. */
+  static int costOf(String encodedPassword) {
+    String[] parts = encodedPassword.split("\\$", 4);
+    if (parts.length < 4) {
+      return -1;
+    }
+    try {
+      return Integer.parseInt(parts[2]);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
 }
@@ -0,0 +1,141 @@
+package com.beanscore.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ServiceUnavailableException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Runs bcrypt work on its own small pool so a burst of logins cannot take every HTTP worker
+ * thread. The queue is bounded: when it is full the caller gets a 503 with {@code Retry-After}
+ * right away, so at most {@code threads + queue-size} request threads are ever parked on hashing.
+ */
+@ApplicationScoped
+public class PasswordHashingExecutor {
+
+  @ConfigProperty(name = "beanscore.password.hash-threads", defaultValue = "2")
+  int threads;
+
+  @ConfigProperty(name = "beanscore.password.hash-queue-size", defaultValue = "16")
+  int queueSize;
+
+  @ConfigProperty(name = "beanscore.password.retry-after-seconds", defaultValue = "1")
+  long retryAfterSeconds;
+
+  @Inject MeterRegistry registry;
+
+  private ThreadPoolExecutor executor;
+
+  private Timer hashTimer;
+
+  private Counter rejected;
+
+  @PostConstruct
+  void start() {
+    AtomicInteger counter = new AtomicInteger();
+    executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            runnable -> {
+              Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    hashTimer =
+        Timer.builder("beanscore.password.hash")
+            .description("Time spent in bcrypt, excluding time waiting in the queue")
+            .publishPercentileHistogram()
+            .register(registry);
+    rejected =
+        Counter.builder("beanscore.password.hash.rejected")
+            .description("Hashing requests shed with 503 because the queue was full")
+            .register(registry);
+    Gauge.builder("beanscore.password.hash.queue", executor, pool -> pool.getQueue().size())
+        .description("Hashing requests waiting for a thread")
+        .register(registry);
+    Gauge.builder("beanscore.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Hashing threads currently running bcrypt")
+        .register(registry);
+  }
+
+  @PreDestroy
+  void stop() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Runs {@code work} on the hashing pool and waits for its result.
+   *
+   * @throws ServiceUnavailableException if the queue is full
+   */
+  public <T> T call(Supplier<T> work) {
+    Future<T> future;
+    try {
+      future = executor.submit(() -> timed(work));
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new ServiceUnavailableException(retryAfterSeconds);
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ServiceUnavailableException(retryAfterSeconds);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  public int queueDepth() {
+    return executor.getQueue().size();
+  }
+
+  public int activeCount() {
+    return executor.getActiveCount();
+  }
+
+  public long completed() {
+    return hashTimer.count();
+  }
+
+  public long rejected() {
+    return (long) rejected.count();
+  }
+
+  /** Mean time spent hashing, excluding time waiting in the queue. */
+  public double meanMillis() {
+    return hashTimer.mean(TimeUnit.MILLISECONDS);
+  }
+
+  public double maxMillis() {
+    return hashTimer.max(TimeUnit.MILLISECONDS);
+  }
+
+  private <T> T timed(Supplier<T> work) {
+    return hashTimer.record(work);
+  }
+}
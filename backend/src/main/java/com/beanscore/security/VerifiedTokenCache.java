@@ -0,0 +1,129 @@
+package com.beanscore.security;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+/**
+ * Tokens whose signature and claims were already verified, keyed by the SHA-256 of the raw token,
+ * so a token seen again costs a hash and a map lookup instead of an RSA check. Entries expire
+ * with the token's own {@code exp} claim. When the cache is full, the entry closest to expiry
+ * makes room for the new one, which drops expired tokens first; a size of 0 turns it off.
+ */
+@ApplicationScoped
+public class VerifiedTokenCache {
+
+  @ConfigProperty(name = "beanscore.jwt-cache.max-size", defaultValue = "10000")
+  int maxSize;
+
+  private record Entry(String key, JsonWebToken token, long expiresAtSeconds) {}
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  // The same entries, soonest expiry first
+  private final NavigableSet<Entry> byExpiry =
+      new ConcurrentSkipListSet<>(
+          Comparator.comparingLong(Entry::expiresAtSeconds).thenComparing(Entry::key));
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /** Returns the verified token, or {@code null} when it has not been seen or has expired. */
+  public JsonWebToken get(String rawToken) {
+    if (maxSize == 0) {
+      return null;
+    }
+    String key = digest(rawToken);
+    Entry entry = entries.get(key);
+    if (entry != null && entry.expiresAtSeconds() > nowSeconds()) {
+      hits.increment();
+      return entry.token();
+    }
+    if (entry != null) {
+      remove(entry);
+    }
+    misses.increment();
+    return null;
+  }
+
+  /** Remembers a token that has just passed verification. Tokens without an expiry are skipped. */
+  public void put(String rawToken, JsonWebToken token) {
+    long expiresAt = token.getExpirationTime();
+    long now = nowSeconds();
+    if (maxSize == 0 || expiresAt <= now) {
+      return;
+    }
+    while (entries.size() >= maxSize) {
+      Iterator<Entry> soonest = byExpiry.iterator();
+      if (!soonest.hasNext()) {
+        break;
+      }
+      remove(soonest.next());
+    }
+    Entry entry = new Entry(digest(rawToken), token, expiresAt);
+    // The index is only changed under the key's lock in the map, so it always holds exactly the
+    // entries the map does, however many threads put the same token
+    entries.compute(
+        entry.key(),
+        (key, previous) -> {
+          if (previous != null) {
+            byExpiry.remove(previous);
+          }
+          byExpiry.add(entry);
+          return entry;
+        });
+  }
+
+  /** Drops {@code entry} unless its token has been put again since it was read. */
+  private void remove(Entry entry) {
+    entries.compute(
+        entry.key(),
+        (key, current) -> {
+          if (current != null && !current.equals(entry)) {
+            // Replaced, which took the entry out of the index too
+            return current;
+          }
+          byExpiry.remove(entry);
+          return null;
+        });
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  int indexedSize() {
+    return byExpiry.size();
+  }
+
+  long nowSeconds() {
+    return System.currentTimeMillis() / 1000;
+  }
+
+  private static String digest(String rawToken) {
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
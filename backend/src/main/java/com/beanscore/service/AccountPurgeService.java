@@ -0,0 +1,109 @@
+package com.beanscore.service;
+
+import com.beanscore.entity.AccountDeletion;
+import com.beanscore.entity.AccountDeletionStatus;
+import com.beanscore.repository.AccountDeletionRepository;
+import com.beanscore.repository.CoffeePlaceRepository;
+import com.beanscore.repository.UserRepository;
+import com.beanscore.storage.PhotoStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Removes the data of deleted accounts one bounded chunk at a time, each in its own short
+ * transaction that also records the progress made. Only ids are read, never whole places or
+ * photos, so memory use does not grow with the size of the account.
+ */
+@ApplicationScoped
+public class AccountPurgeService {
+
+  private static final Logger logger = Logger.getLogger(AccountPurgeService.class.getName());
+
+  private static final int MAX_ERROR_LENGTH = 500;
+
+  @ConfigProperty(name = "beanscore.account-deletion.chunk-size", defaultValue = "500")
+  int chunkSize;
+
+  @Inject AccountDeletionRepository accountDeletionRepository;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  @Inject UserRepository userRepository;
+
+  @Inject PhotoStore photoStore;
+
+  /**
+   * Deletes the next chunk of the user's places with their photos, or the user row once none are
+   * left. Returns {@code false} while more remains to do; {@code true} once the purge has
+   * completed, or when another node is working on it.
+   */
+  @Transactional
+  public boolean purgeChunk(UUID userId) {
+    Optional<AccountDeletion> locked = accountDeletionRepository.lockInProgress(userId);
+    if (locked.isEmpty()) {
+      return true;
+    }
+    AccountDeletion deletion = locked.get();
+
+    List<UUID> ids = coffeePlaceRepository.findIdsByUserId(userId, chunkSize);
+    if (ids.isEmpty()) {
+      // Rows that depend on the user (statistics, tombstones) go with it through their foreign keys
+      userRepository.deleteById(userId);
+      deletion.status = AccountDeletionStatus.COMPLETED;
+      deletion.completedAt = LocalDateTime.now();
+      deletion.lastError = null;
+      logger.info(
+          "Purged user with ID: "
+              + userId
+              + " ("
+              + deletion.placesDeleted
+              + " coffee places, "
+              + deletion.photosDeleted
+              + " photos)");
+      return true;
+    }
+
+    List<UUID> photoIds = coffeePlaceRepository.findIdsWithPhoto(ids);
+    photoStore.deleteAll(photoIds);
+    coffeePlaceRepository.deleteByIds(ids);
+
+    deletion.placesDeleted += ids.size();
+    deletion.photosDeleted += photoIds.size();
+    logger.fine(
+        "Purged "
+            + deletion.placesDeleted
+            + "/"
+            + deletion.placesTotal
+            + " coffee places of user with ID: "
+            + userId);
+    return false;
+  }
+
+  /** Notes the failure on the deletion for operators; the next run of the job retries it. */
+  @Transactional
+  public void recordFailure(UUID userId, Throwable failure) {
+    accountDeletionRepository
+        .findByIdOptional(userId)
+        .ifPresent(
+            deletion -> {
+              String message = String.valueOf(failure.getMessage());
+              deletion.lastError =
+                  message.length() > MAX_ERROR_LENGTH
+                      ? message.substring(0, MAX_ERROR_LENGTH)
+                      : message;
+            });
+  }
+
+  /** Forgets completed deletions older than the cutoff. */
+  @Transactional
+  public long deleteCompletedBefore(LocalDateTime cutoff) {
+    return accountDeletionRepository.deleteCompletedBefore(cutoff);
+  }
+}
@@ -7,12 +7,13 @@ import com.beanscore.dto.response.UserResponse;
 import com.beanscore.entity.User;
 import com.beanscore.repository.UserRepository;
 import com.beanscore.security.PasswordEncoder;
+import com.beanscore.security.PasswordHashingExecutor;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotAuthorizedException;
-import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ServiceUnavailableException;
 import java.util.UUID;
 import java.util.logging.Logger;
 
@@ -25,9 +26,10 @@ public class AuthService {
 
   @Inject PasswordEncoder passwordEncoder;
 
+  @Inject PasswordHashingExecutor passwordHashingExecutor;
+
   @Inject JwtService jwtService;
 
-  @Transactional
   public AuthResponse register(RegisterRequest request) {
     logger.info("Registering user with email: " + request.email());
 
@@ -36,12 +38,16 @@ public class AuthService {
       throw new BadRequestException("User with this email already exists");
     }
 
+    // Hash before opening the transaction so no connection is held while bcrypt runs
+    String encodedPassword =
+        passwordHashingExecutor.call(() -> passwordEncoder.encode(request.password()));
+
     User user = new User();
     user.email = plainEmail;
     user.name = request.name();
-    user.password = passwordEncoder.encode(request.password());
+    user.password = encodedPassword;
 
-    userRepository.persist(user);
+    QuarkusTransaction.requiringNew().run(() -> userRepository.persist(user));
 
     String token = jwtService.generateToken(user);
 
@@ -63,11 +69,19 @@ public class AuthService {
             .findByEmail(plainEmail)
             .orElseThrow(() -> new NotAuthorizedException("Invalid email or password"));
 
-    if (!passwordEncoder.matches(request.password(), user.password)) {
+    String storedPassword = user.password;
+    boolean matches =
+        passwordHashingExecutor.call(
+            () -> passwordEncoder.matches(request.password(), storedPassword));
+    if (!matches) {
       logger.warning("Invalid password attempt for email: " + plainEmail);
       throw new NotAuthorizedException("Invalid email or password");
     }
 
+    if (passwordEncoder.needsRehash(storedPassword)) {
+      rehash(user.id, request.password(), storedPassword);
+    }
+
     String token = jwtService.generateToken(user);
 
     UserResponse userResponse = mapToUserResponse(user);
@@ -79,18 +93,28 @@ public class AuthService {
   }
 
   public UserResponse getCurrentUser() {
-    UUID currentUserId = jwtService.getCurrentUserId();
-
-    logger.info("Fetching current user with id: " + currentUserId);
+    User user = jwtService.getCurrentUser();
 
-    User user =
-        userRepository
-            .findByIdOptional(currentUserId)
-            .orElseThrow(() -> new NotFoundException("User not found"));
+    logger.info("Fetching current user with id: " + user.id);
 
     return mapToUserResponse(user);
   }
 
+  /**
+   * Upgrades a hash made with an older cost while the plain password is at hand. Best effort: an
+   * overloaded hashing pool or a concurrent password change just leaves the old hash in place.
+   */
+  private void rehash(UUID userId, String rawPassword, String storedPassword) {
+    try {
+      String upgraded = passwordHashingExecutor.call(() -> passwordEncoder.encode(rawPassword));
+      QuarkusTransaction.requiringNew()
+          .run(() -> userRepository.updatePassword(userId, storedPassword, upgraded));
+      logger.fine("Rehashed password for user id: " + userId);
+    } catch (ServiceUnavailableException e) {
+      logger.fine("Skipped password rehash for user id: " + userId + ", hashing pool is busy");
+    }
+  }
+
   private UserResponse mapToUserResponse(User user) {
     UserResponse response =
         new UserResponse(user.id, user.email, user.name, user.createdAt, user.updatedAt);
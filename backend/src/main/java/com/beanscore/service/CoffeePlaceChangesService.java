@@ -0,0 +1,114 @@
+package com.beanscore.service;
+
+import com.beanscore.dto.request.ChangesCursor;
+import com.beanscore.dto.response.CoffeePlaceChanges;
+import com.beanscore.entity.CoffeePlace;
+import com.beanscore.repository.CoffeePlaceDeletionRepository;
+import com.beanscore.repository.CoffeePlaceRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.core.Response;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Delta sync: what changed in the current user's places since a cursor. Creates and updates come
+ * from {@code updatedAt} over the {@code (user_id, updated_at, id)} index; deletes from the
+ * tombstones in {@code coffee_place_deletions}, which are only kept for {@code
+ * beanscore.changes.tombstone-retention}. Older cursors, and cursors with more deletes behind them
+ * than one response carries, get 410 Gone and the client starts over without one.
+ */
+@ApplicationScoped
+public class CoffeePlaceChangesService {
+
+  private static final Logger logger = Logger.getLogger(CoffeePlaceChangesService.class.getName());
+
+  /**
+   * Tombstones are bare ids and all of them go out in one response; past this many, a full sync is
+   * cheaper than the delta.
+   */
+  public static final int MAX_TOMBSTONES = 10_000;
+
+  @ConfigProperty(name = "beanscore.changes.tombstone-retention", defaultValue = "P30D")
+  Duration tombstoneRetention;
+
+  @ConfigProperty(name = "beanscore.changes.commit-window", defaultValue = "PT5S")
+  Duration commitWindow;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  @Inject CoffeePlaceDeletionRepository coffeePlaceDeletionRepository;
+
+  @Inject JwtService jwtService;
+
+  public CoffeePlaceChanges getChanges(String since, int limit) {
+    if (limit < 1 || limit > CoffeePlaceService.MAX_PAGE_SIZE) {
+      throw new BadRequestException(
+          "limit must be between 1 and " + CoffeePlaceService.MAX_PAGE_SIZE);
+    }
+
+    UUID currentUserId = jwtService.getCurrentUserId();
+    LocalDateTime now = LocalDateTime.now();
+
+    ChangesCursor after = since == null || since.isBlank() ? null : ChangesCursor.decode(since);
+    if (after != null && after.since().isBefore(now.minus(tombstoneRetention))) {
+      throw new ClientErrorException(
+          "Cursor is older than the deletion history, sync again without one",
+          Response.Status.GONE);
+    }
+
+    logger.fine("Getting changes since " + since + " for user id: " + currentUserId);
+
+    List<CoffeePlace> changed =
+        after == null
+            ? coffeePlaceRepository.findChangedSince(currentUserId, null, null, limit + 1)
+            : after.midChangeSet()
+                ? coffeePlaceRepository.findChangedSince(
+                    currentUserId, after.afterTimestamp(), after.afterId(), limit + 1)
+                : coffeePlaceRepository.findChangedSince(
+                    currentUserId, after.since(), null, limit + 1);
+    // A first sync has nothing to drop
+    List<UUID> deleted =
+        after == null
+            ? List.of()
+            : coffeePlaceDeletionRepository.findDeletedIdsSince(
+                currentUserId, after.since(), MAX_TOMBSTONES + 1);
+    // Handing out only some of them would leave deleted places on the client for good
+    if (deleted.size() > MAX_TOMBSTONES) {
+      throw new ClientErrorException(
+          "More than "
+              + MAX_TOMBSTONES
+              + " places deleted since the cursor, sync again without one",
+          Response.Status.GONE);
+    }
+
+    // updatedAt and deletedAt are stamped before commit, so a write still in flight can land
+    // behind "now". The next call starts a little earlier; clients upsert and drop by id, so
+    // seeing a change twice is harmless.
+    LocalDateTime horizon = now.minus(commitWindow);
+    boolean hasMore = changed.size() > limit;
+    ChangesCursor next;
+    if (hasMore) {
+      changed = changed.subList(0, limit);
+      CoffeePlace last = changed.get(limit - 1);
+      next = new ChangesCursor(horizon, last.updatedAt, last.id);
+    } else {
+      next = ChangesCursor.from(horizon);
+    }
+
+    return new CoffeePlaceChanges(
+        changed.stream()
+            .map(CoffeePlaceService::mapToCoffeePlaceResponse)
+            .collect(Collectors.toList()),
+        deleted.stream().map(UUID::toString).collect(Collectors.toList()),
+        next.encode(),
+        hasMore);
+  }
+}
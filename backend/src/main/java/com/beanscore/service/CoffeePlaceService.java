@@ -1,15 +1,48 @@
 package com.beanscore.service;
 
+import com.beanscore.dto.request.BatchOperation;
+import com.beanscore.dto.request.CoffeePlaceFilter;
+import com.beanscore.dto.request.CoffeePlaceSort;
 import com.beanscore.dto.request.CreateCoffeePlaceRequest;
+import com.beanscore.dto.request.PageCursor;
 import com.beanscore.dto.request.UpdateCoffeePlaceRequest;
+import com.beanscore.dto.response.BatchOperationResult;
+import com.beanscore.dto.response.CoffeePlacePage;
 import com.beanscore.dto.response.CoffeePlaceResponse;
+import com.beanscore.dto.response.NearbyCoffeePlaceResponse;
 import com.beanscore.entity.CoffeePlace;
+import com.beanscore.entity.CoffeePlaceDeletion;
+import com.beanscore.entity.PhotoStatus;
+import com.beanscore.geo.GeoHash;
+import com.beanscore.geo.PlaceLocation;
+import com.beanscore.repository.CoffeePlaceDeletionRepository;
 import com.beanscore.repository.CoffeePlaceRepository;
+import com.beanscore.repository.CoffeePlaceStatsRepository;
+import com.beanscore.stats.CoffeePlaceTotals;
+import com.beanscore.storage.PhotoRejectedException;
+import com.beanscore.storage.PhotoStore;
+import com.beanscore.storage.PhotoVariant;
+import com.beanscore.storage.SpooledPhoto;
+import com.beanscore.storage.StoredPhoto;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -19,43 +52,274 @@ public class CoffeePlaceService {
 
   private static final Logger logger = Logger.getLogger(CoffeePlaceService.class.getName());
 
+  public static final int MAX_PAGE_SIZE = 200;
+
+  public static final double MAX_NEARBY_RADIUS_KM = 100;
+
+  public static final int MAX_BATCH_OPERATIONS = 200;
+
+  public static final int MAX_SEARCH_LENGTH = 100;
+
+  /** A full page of places can have its thumbnails fetched in one request. */
+  public static final int MAX_THUMBNAIL_BATCH = MAX_PAGE_SIZE;
+
   @Inject CoffeePlaceRepository coffeePlaceRepository;
 
+  @Inject CoffeePlaceDeletionRepository coffeePlaceDeletionRepository;
+
+  @Inject CoffeePlaceStatsRepository coffeePlaceStatsRepository;
+
+  @Inject PhotoStore photoStore;
+
   @Inject JwtService jwtService;
 
+  @Inject Validator validator;
+
   @Transactional
   public CoffeePlaceResponse create(CreateCoffeePlaceRequest request) {
     UUID currentUserId = jwtService.getCurrentUserId();
 
-    CoffeePlace coffeePlace = new CoffeePlace();
-    coffeePlace.userId = currentUserId;
-    coffeePlace.name = request.name();
-    coffeePlace.address = request.address();
-    coffeePlace.instagramHandle = request.instagramHandle();
-    coffeePlace.coffeeQuality = request.coffeeQuality();
-    coffeePlace.ambient = request.ambient();
-    coffeePlace.hasGlutenFree = request.hasGlutenFree();
-    coffeePlace.hasVegMilk = request.hasVegMilk();
-    coffeePlace.hasVeganFood = request.hasVeganFood();
-    coffeePlace.hasSugarFree = request.hasSugarFree();
-    coffeePlace.latitude = request.latitude();
-    coffeePlace.longitude = request.longitude();
+    CoffeePlace coffeePlace = newCoffeePlace(currentUserId, request);
 
     coffeePlaceRepository.persist(coffeePlace);
+    coffeePlaceStatsRepository.apply(currentUserId, new CoffeePlaceTotals().add(coffeePlace));
 
     return mapToCoffeePlaceResponse(coffeePlace);
   }
 
-  public List<CoffeePlaceResponse> getAll() {
+  /**
+   * Applies a client's queued changes in one transaction. Operations that are malformed, invalid
+   * or target a place the user does not have are reported and skipped; everything else is flushed
+   * at commit as JDBC batches, after a single query has loaded every place being updated or
+   * deleted.
+   */
+  @Transactional
+  public List<BatchOperationResult> applyBatch(List<BatchOperation> operations) {
+    if (operations == null || operations.isEmpty() || operations.size() > MAX_BATCH_OPERATIONS) {
+      throw new BadRequestException(
+          "A batch must contain between 1 and " + MAX_BATCH_OPERATIONS + " operations");
+    }
+
+    UUID currentUserId = jwtService.getCurrentUserId();
+
+    logger.fine(
+        "Applying batch of " + operations.size() + " operations for user id: " + currentUserId);
+
+    Set<UUID> ids =
+        operations.stream()
+            .filter(Objects::nonNull)
+            .map(BatchOperation::id)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    Map<UUID, CoffeePlace> owned =
+        ids.isEmpty()
+            ? new LinkedHashMap<>()
+            : coffeePlaceRepository.findByIdsAndUserId(ids, currentUserId).stream()
+                .collect(
+                    Collectors.toMap(coffeePlace -> coffeePlace.id, coffeePlace -> coffeePlace));
+
+    List<BatchOperationResult> results = new ArrayList<>(operations.size());
+    List<CoffeePlace> deleted = new ArrayList<>();
+    CoffeePlaceTotals change = new CoffeePlaceTotals();
+    for (int index = 0; index < operations.size(); index++) {
+      results.add(apply(index, operations.get(index), currentUserId, owned, deleted, change));
+    }
+
+    if (!deleted.isEmpty()) {
+      photoStore.deleteAll(
+          deleted.stream()
+              .filter(coffeePlace -> coffeePlace.photoContentType != null)
+              .map(coffeePlace -> coffeePlace.id)
+              .collect(Collectors.toList()));
+      deleted.forEach(coffeePlaceRepository::delete);
+      coffeePlaceDeletionRepository.persist(
+          deleted.stream()
+              .map(coffeePlace -> new CoffeePlaceDeletion(coffeePlace.id, coffeePlace.userId)));
+    }
+    coffeePlaceStatsRepository.apply(currentUserId, change);
+
+    return results;
+  }
+
+  private BatchOperationResult apply(
+      int index,
+      BatchOperation operation,
+      UUID userId,
+      Map<UUID, CoffeePlace> owned,
+      List<CoffeePlace> deleted,
+      CoffeePlaceTotals change) {
+    if (operation == null || operation.op() == null) {
+      return new BatchOperationResult(index, 400, null, "op is required");
+    }
+
+    switch (operation.op()) {
+      case "create" -> {
+        String invalid = validatePlace(operation);
+        if (invalid != null) {
+          return new BatchOperationResult(index, 400, null, invalid);
+        }
+        CoffeePlace coffeePlace = newCoffeePlace(userId, operation.place());
+        coffeePlaceRepository.persist(coffeePlace);
+        change.add(coffeePlace);
+        return new BatchOperationResult(index, 201, mapToCoffeePlaceResponse(coffeePlace), null);
+      }
+      case "update" -> {
+        String invalid = operation.id() == null ? "id is required" : validatePlace(operation);
+        if (invalid != null) {
+          return new BatchOperationResult(index, 400, null, invalid);
+        }
+        CoffeePlace coffeePlace = owned.get(operation.id());
+        if (coffeePlace == null) {
+          return new BatchOperationResult(index, 404, null, "Coffee place not found");
+        }
+        change.remove(coffeePlace);
+        applyUpdate(coffeePlace, toUpdate(operation.place()));
+        change.add(coffeePlace);
+        return new BatchOperationResult(index, 200, mapToCoffeePlaceResponse(coffeePlace), null);
+      }
+      case "delete" -> {
+        if (operation.id() == null) {
+          return new BatchOperationResult(index, 400, null, "id is required");
+        }
+        CoffeePlace coffeePlace = owned.remove(operation.id());
+        if (coffeePlace == null) {
+          return new BatchOperationResult(index, 404, null, "Coffee place not found");
+        }
+        deleted.add(coffeePlace);
+        change.remove(coffeePlace);
+        return new BatchOperationResult(index, 204, null, null);
+      }
+      default -> {
+        return new BatchOperationResult(
+            index,
+            400,
+            null,
+            "Unknown op '" + operation.op() + "', expected create, update or delete");
+      }
+    }
+  }
+
+  /** Checks the place of a create or update against the rules of {@code POST /coffee-places}. */
+  private String validatePlace(BatchOperation operation) {
+    if (operation.place() == null) {
+      return "place is required";
+    }
+    Set<ConstraintViolation<CreateCoffeePlaceRequest>> violations =
+        validator.validate(operation.place());
+    if (violations.isEmpty()) {
+      Integer coffeeQuality = operation.place().coffeeQuality();
+      Integer ambient = operation.place().ambient();
+      return coffeeQuality < 1 || coffeeQuality > 5 || ambient < 1 || ambient > 5
+          ? "coffeeQuality and ambient must be between 1 and 5"
+          : null;
+    }
+    return violations.stream()
+        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+        .sorted()
+        .collect(Collectors.joining(", "));
+  }
+
+  private static UpdateCoffeePlaceRequest toUpdate(CreateCoffeePlaceRequest place) {
+    return new UpdateCoffeePlaceRequest(
+        place.name(),
+        place.address(),
+        place.instagramHandle(),
+        place.coffeeQuality(),
+        place.ambient(),
+        place.hasGlutenFree(),
+        place.hasVegMilk(),
+        place.hasVeganFood(),
+        place.hasSugarFree(),
+        place.latitude(),
+        place.longitude());
+  }
+
+  public CoffeePlacePage getPage(
+      CoffeePlaceFilter filter, CoffeePlaceSort sort, String cursor, int limit) {
     UUID currentUserId = jwtService.getCurrentUserId();
 
-    logger.fine("Getting all coffee places for user id: " + currentUserId);
+    PageCursor after = validatePage(filter, sort, cursor, limit);
+
+    logger.fine("Getting coffee places page for user id: " + currentUserId);
 
-    List<CoffeePlace> coffeePlaces = coffeePlaceRepository.findByUserId(currentUserId);
+    // One extra row tells us whether another page exists without a count query
+    List<CoffeePlace> coffeePlaces =
+        coffeePlaceRepository.findPageByUserId(currentUserId, filter, sort, after, limit + 1);
 
     logger.fine("Found " + coffeePlaces.size() + " coffee places for user id: " + currentUserId);
 
-    return coffeePlaces.stream().map(this::mapToCoffeePlaceResponse).collect(Collectors.toList());
+    return toPage(coffeePlaces, sort, limit);
+  }
+
+  /** Ranked search over name, address and Instagram handle, narrowed by the filter's flags. */
+  public List<CoffeePlaceResponse> search(CoffeePlaceFilter filter, int limit) {
+    UUID currentUserId = jwtService.getCurrentUserId();
+
+    validateSearch(filter, limit);
+
+    logger.fine("Searching coffee places for user id: " + currentUserId);
+
+    return coffeePlaceRepository.search(currentUserId, filter.search(), filter, limit).stream()
+        .map(CoffeePlaceService::mapToCoffeePlaceResponse)
+        .collect(Collectors.toList());
+  }
+
+  public List<NearbyCoffeePlaceResponse> getNearby(
+      double latitude, double longitude, double radiusKm, int limit) {
+    UUID currentUserId = jwtService.getCurrentUserId();
+
+    validateNearby(latitude, longitude, radiusKm, limit);
+
+    logger.fine("Getting coffee places within " + radiusKm + "km for user id: " + currentUserId);
+
+    // Rank on projected coordinates only, then load just the k winners
+    Set<String> cells = GeoHash.coveringCells(latitude, longitude, radiusKm);
+    Map<UUID, Double> distances =
+        rankByDistance(
+            coffeePlaceRepository.findLocationsInCells(currentUserId, cells),
+            latitude,
+            longitude,
+            radiusKm,
+            limit);
+
+    if (distances.isEmpty()) {
+      return List.of();
+    }
+
+    return toNearby(distances, coffeePlaceRepository.findByIds(distances.keySet()));
+  }
+
+  /** Cheap version of everything the listing could return for the current user. */
+  public String getListVersion() {
+    UUID currentUserId = jwtService.getCurrentUserId();
+    return coffeePlaceRepository.findListVersion(currentUserId);
+  }
+
+  public String getVersion(UUID id) {
+    UUID currentUserId = jwtService.getCurrentUserId();
+
+    return coffeePlaceRepository
+        .findUpdatedAt(id, currentUserId)
+        .orElseThrow(() -> new NotFoundException("Coffee place not found"))
+        .toString();
+  }
+
+  /** The version of what the URL of {@code variant} serves, or null if the place has no photo. */
+  public PhotoVersion getPhotoVersion(UUID id, PhotoVariant variant) {
+    UUID currentUserId = jwtService.getCurrentUserId();
+
+    Object[] version =
+        coffeePlaceRepository
+            .findPhotoVersion(id, currentUserId, variant)
+            .orElseThrow(() -> new NotFoundException("Coffee place not found"));
+
+    return version[0] == null ? null : photoVersion(version[1], version[2], (String) version[3]);
+  }
+
+  private static PhotoVersion photoVersion(Object uploadedAt, Object status, String contentHash) {
+    // Renditions replace the served bytes without a new upload version or status change; their
+    // hash is what tells them apart
+    return new PhotoVersion(uploadedAt + "/" + status + "/" + contentHash, contentHash);
   }
 
   public CoffeePlaceResponse getById(UUID id) {
@@ -86,19 +350,12 @@ public class CoffeePlaceService {
 
     logger.fine("Found coffee place with id: " + id + " for update");
 
-    coffeePlace.name = request.name();
-    coffeePlace.address = request.address();
-    coffeePlace.instagramHandle = request.instagramHandle();
-    coffeePlace.coffeeQuality = request.coffeeQuality();
-    coffeePlace.ambient = request.ambient();
-    coffeePlace.hasGlutenFree = request.hasGlutenFree();
-    coffeePlace.hasVegMilk = request.hasVegMilk();
-    coffeePlace.hasVeganFood = request.hasVeganFood();
-    coffeePlace.hasSugarFree = request.hasSugarFree();
-    coffeePlace.latitude = request.latitude();
-    coffeePlace.longitude = request.longitude();
+    CoffeePlaceTotals change = new CoffeePlaceTotals().remove(coffeePlace);
+    applyUpdate(coffeePlace, request);
+    change.add(coffeePlace);
 
     coffeePlaceRepository.persist(coffeePlace);
+    coffeePlaceStatsRepository.apply(currentUserId, change);
 
     logger.fine("Updated coffee place with id: " + coffeePlace.id + " for user id: " + currentUserId);
 
@@ -111,36 +368,79 @@ public class CoffeePlaceService {
 
     logger.fine("Deleting coffee place with id: " + id + " for user id: " + currentUserId);
 
-    long deletedCount = coffeePlaceRepository.deleteByIdAndUserId(id, currentUserId);
-
-    if (deletedCount == 0) {
-      logger.warning("Coffee place with id: " + id + " not found for deletion");
-      throw new NotFoundException("Coffee place not found");
-    }
+    // Loaded rather than deleted by query: the statistics need the ratings it had
+    CoffeePlace coffeePlace =
+        coffeePlaceRepository
+            .findByIdAndUserId(id, currentUserId)
+            .orElseThrow(
+                () -> {
+                  logger.warning("Coffee place with id: " + id + " not found for deletion");
+                  return new NotFoundException("Coffee place not found");
+                });
+
+    // The filesystem store removes the files only once this transaction has committed
+    photoStore.delete(id);
+    coffeePlaceRepository.delete(coffeePlace);
+    coffeePlaceDeletionRepository.persist(new CoffeePlaceDeletion(id, currentUserId));
+    coffeePlaceStatsRepository.apply(currentUserId, new CoffeePlaceTotals().remove(coffeePlace));
     logger.fine("Deleted coffee place with id: " + id + " for user id: " + currentUserId);
   }
 
-  @Transactional
-  public void uploadPhoto(UUID id, byte[] photo, byte[] thumbnail, String contentType) {
+  /**
+   * Stores the original photo and marks it {@link PhotoStatus#PROCESSING}; the resized renditions
+   * are produced by {@link PhotoProcessingService} once this transaction has committed. A
+   * client-made thumbnail is still accepted and served until the generated one replaces it.
+   */
+  @Transactional(rollbackOn = IOException.class)
+  public void uploadPhoto(UUID id, SpooledPhoto photo, SpooledPhoto thumbnail)
+      throws IOException {
     UUID currentUserId = jwtService.getCurrentUserId();
 
     logger.fine("Uploading photo for coffee place with id: " + id);
 
     CoffeePlace coffeePlace =
         coffeePlaceRepository
-            .findByIdAndUserId(id, currentUserId)
+            .findByIdAndUserIdForUpdate(id, currentUserId)
             .orElseThrow(() -> new NotFoundException("Coffee place not found"));
 
-    coffeePlace.photo = photo;
-    coffeePlace.photoThumbnail = thumbnail;
-    coffeePlace.photoContentType = contentType;
+    if (thumbnail != null && !photo.contentType().equals(thumbnail.contentType())) {
+      throw new PhotoRejectedException("Photo and thumbnail must use the same image format");
+    }
+
+    // Truncated to what the database stores, as processing matches on this value
+    LocalDateTime version = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    // The new photo gets its own version, so a rollback leaves the previous one intact; that one
+    // is only removed once this transaction has committed
+    if (coffeePlace.photoContentType != null) {
+      photoStore.delete(id, coffeePlace.photoUpdatedAt);
+    }
+    try (InputStream content = photo.open()) {
+      photoStore.write(id, version, PhotoVariant.ORIGINAL, content);
+    }
+    if (thumbnail != null) {
+      try (InputStream content = thumbnail.open()) {
+        photoStore.write(id, version, PhotoVariant.THUMBNAIL, content);
+      }
+    }
 
+    coffeePlace.photoContentType = photo.contentType();
+    coffeePlace.photoUpdatedAt = version;
+    coffeePlace.photoStatus = PhotoStatus.PROCESSING;
+    // Every URL serves the original until its rendition is generated
+    coffeePlace.photoFullHash = photo.contentHash();
+    coffeePlace.photoMediumHash = photo.contentHash();
+    coffeePlace.photoThumbnailHash =
+        thumbnail != null ? thumbnail.contentHash() : photo.contentHash();
     coffeePlaceRepository.persist(coffeePlace);
 
     logger.fine("Photo uploaded for coffee place with id: " + id);
   }
 
-  public PhotoData getPhoto(UUID id) {
+  /**
+   * Returns the requested rendition of the place's photo, falling back to the original while it
+   * is still being generated or if processing failed.
+   */
+  public PhotoData getPhoto(UUID id, PhotoVariant variant) {
     UUID currentUserId = jwtService.getCurrentUserId();
 
     CoffeePlace coffeePlace =
@@ -148,26 +448,63 @@ public class CoffeePlaceService {
             .findByIdAndUserId(id, currentUserId)
             .orElseThrow(() -> new NotFoundException("Coffee place not found"));
 
-    if (coffeePlace.photo == null) {
+    if (coffeePlace.photoContentType == null) {
       return null;
     }
 
-    return new PhotoData(coffeePlace.photo, coffeePlace.photoContentType);
+    // Read after the hash: renditions are stored before their hash is recorded, so a hash that
+    // names a rendition always finds it
+    PhotoVersion served =
+        photoVersion(
+            coffeePlace.photoUpdatedAt != null ? coffeePlace.photoUpdatedAt : coffeePlace.updatedAt,
+            coffeePlace.photoStatus,
+            switch (variant) {
+              case THUMBNAIL -> coffeePlace.photoThumbnailHash;
+              case MEDIUM -> coffeePlace.photoMediumHash;
+              default -> coffeePlace.photoFullHash;
+            });
+    LocalDateTime version = coffeePlace.photoUpdatedAt;
+    return photoStore
+        .read(id, version, variant)
+        .or(() -> photoStore.read(id, version, PhotoVariant.ORIGINAL))
+        .map(photo -> new PhotoData(photo, coffeePlace.photoContentType, served))
+        .orElse(null);
   }
 
-  public PhotoData getPhotoThumbnail(UUID id) {
-    UUID currentUserId = jwtService.getCurrentUserId();
+  /**
+   * Lists which of several of the current user's places have a photo, in request order, with one
+   * query. The images are read one at a time with {@link #readThumbnail} while the response is
+   * written, so a batch never sits in memory. Places of other users and places without a photo are
+   * left out.
+   */
+  public List<Thumbnail> getThumbnails(List<UUID> ids) {
+    if (ids == null || ids.size() > MAX_THUMBNAIL_BATCH) {
+      throw new BadRequestException(
+          "At most " + MAX_THUMBNAIL_BATCH + " thumbnails can be requested at once");
+    }
+    Set<UUID> requested = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+    if (requested.isEmpty()) {
+      return List.of();
+    }
 
-    CoffeePlace coffeePlace =
-        coffeePlaceRepository
-            .findByIdAndUserId(id, currentUserId)
-            .orElseThrow(() -> new NotFoundException("Coffee place not found"));
+    UUID currentUserId = jwtService.getCurrentUserId();
 
-    if (coffeePlace.photoThumbnail == null) {
-      return null;
+    Map<UUID, Thumbnail> withPhoto = new HashMap<>();
+    for (Object[] row : coffeePlaceRepository.findPhotoContentTypes(requested, currentUserId)) {
+      UUID id = (UUID) row[0];
+      withPhoto.put(id, new Thumbnail(id, (String) row[1], (LocalDateTime) row[2]));
     }
+    return ids.stream().distinct().map(withPhoto::get).filter(Objects::nonNull).toList();
+  }
 
-    return new PhotoData(coffeePlace.photoThumbnail, coffeePlace.photoContentType);
+  /**
+   * Reads a thumbnail listed by {@link #getThumbnails}; empty while it is not generated yet, in
+   * which case {@link #getPhoto} serves the original instead. Runs in a transaction of its own, as
+   * it is called while the response streams.
+   */
+  @Transactional
+  public Optional<StoredPhoto> readThumbnail(Thumbnail thumbnail) {
+    return photoStore.read(thumbnail.id(), thumbnail.version(), PhotoVariant.THUMBNAIL);
   }
 
   @Transactional
@@ -178,21 +515,170 @@ public class CoffeePlaceService {
 
     CoffeePlace coffeePlace =
         coffeePlaceRepository
-            .findByIdAndUserId(id, currentUserId)
+            .findByIdAndUserIdForUpdate(id, currentUserId)
             .orElseThrow(() -> new NotFoundException("Coffee place not found"));
 
-    coffeePlace.photo = null;
-    coffeePlace.photoThumbnail = null;
+    if (coffeePlace.photoContentType != null) {
+      photoStore.delete(id, coffeePlace.photoUpdatedAt);
+    }
     coffeePlace.photoContentType = null;
+    coffeePlace.photoUpdatedAt = null;
+    coffeePlace.photoStatus = null;
+    coffeePlace.photoThumbnailHash = null;
+    coffeePlace.photoMediumHash = null;
+    coffeePlace.photoFullHash = null;
 
     coffeePlaceRepository.persist(coffeePlace);
 
     logger.fine("Photo deleted for coffee place with id: " + id);
   }
 
-  public record PhotoData(byte[] bytes, String contentType) {}
+  /** @param version of the served photo, as read with it */
+  public record PhotoData(StoredPhoto photo, String contentType, PhotoVersion version) {}
+
+  /** A place with a photo, as needed to read its thumbnail. */
+  public record Thumbnail(UUID id, String contentType, LocalDateTime version) {}
+
+  /**
+   * @param tag changes whenever what a photo URL serves may have changed
+   * @param contentHash hash of what it serves, null for photos stored before hashing
+   */
+  public record PhotoVersion(String tag, String contentHash) {}
+
+  // The helpers below hold the rules shared with the reactive data path (built with -Preactive),
+  // so both variants validate, page and map identically.
+
+  static PageCursor validatePage(
+      CoffeePlaceFilter filter, CoffeePlaceSort sort, String cursor, int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    if (filter.minCoffeeQuality() != null
+        && (filter.minCoffeeQuality() < 1 || filter.minCoffeeQuality() > 5)) {
+      throw new BadRequestException("minCoffeeQuality must be between 1 and 5");
+    }
+
+    return cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor, sort);
+  }
+
+  /** Builds a page from up to {@code limit + 1} rows; the extra row only signals a next page. */
+  static CoffeePlacePage toPage(List<CoffeePlace> coffeePlaces, CoffeePlaceSort sort, int limit) {
+    String nextCursor = null;
+    if (coffeePlaces.size() > limit) {
+      coffeePlaces = coffeePlaces.subList(0, limit);
+      CoffeePlace last = coffeePlaces.get(limit - 1);
+      LocalDateTime timestamp =
+          sort == CoffeePlaceSort.RECENTLY_UPDATED ? last.updatedAt : last.createdAt;
+      nextCursor = new PageCursor(sort, timestamp, last.id).encode();
+    }
+
+    return new CoffeePlacePage(
+        coffeePlaces.stream()
+            .map(CoffeePlaceService::mapToCoffeePlaceResponse)
+            .collect(Collectors.toList()),
+        nextCursor);
+  }
+
+  static void validateSearch(CoffeePlaceFilter filter, int limit) {
+    if (!filter.hasSearch()) {
+      throw new BadRequestException("q is required");
+    }
+    if (filter.search().trim().length() > MAX_SEARCH_LENGTH) {
+      throw new BadRequestException("q must be at most " + MAX_SEARCH_LENGTH + " characters");
+    }
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    if (filter.minCoffeeQuality() != null
+        && (filter.minCoffeeQuality() < 1 || filter.minCoffeeQuality() > 5)) {
+      throw new BadRequestException("minCoffeeQuality must be between 1 and 5");
+    }
+  }
+
+  static void validateNearby(double latitude, double longitude, double radiusKm, int limit) {
+    if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+      throw new BadRequestException("lat must be within [-90, 90] and lng within [-180, 180]");
+    }
+    if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+      throw new BadRequestException("radiusKm must be between 0 and " + MAX_NEARBY_RADIUS_KM);
+    }
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+  }
+
+  /** Returns the {@code limit} closest locations within {@code radiusKm}, nearest first. */
+  static Map<UUID, Double> rankByDistance(
+      List<PlaceLocation> locations,
+      double latitude,
+      double longitude,
+      double radiusKm,
+      int limit) {
+    Map<UUID, Double> distances = new LinkedHashMap<>();
+    locations.stream()
+        .map(
+            location ->
+                Map.entry(
+                    location.id(),
+                    GeoHash.distanceKm(
+                        latitude,
+                        longitude,
+                        location.latitude().doubleValue(),
+                        location.longitude().doubleValue())))
+        .filter(entry -> entry.getValue() <= radiusKm)
+        .sorted(Map.Entry.comparingByValue())
+        .limit(limit)
+        .forEachOrdered(entry -> distances.put(entry.getKey(), entry.getValue()));
+    return distances;
+  }
+
+  static List<NearbyCoffeePlaceResponse> toNearby(
+      Map<UUID, Double> distances, List<CoffeePlace> loaded) {
+    Map<UUID, CoffeePlace> coffeePlaces =
+        loaded.stream()
+            .collect(Collectors.toMap(coffeePlace -> coffeePlace.id, coffeePlace -> coffeePlace));
+
+    return distances.entrySet().stream()
+        .filter(entry -> coffeePlaces.containsKey(entry.getKey()))
+        .map(
+            entry ->
+                new NearbyCoffeePlaceResponse(
+                    mapToCoffeePlaceResponse(coffeePlaces.get(entry.getKey())), entry.getValue()))
+        .collect(Collectors.toList());
+  }
+
+  static CoffeePlace newCoffeePlace(UUID userId, CreateCoffeePlaceRequest request) {
+    CoffeePlace coffeePlace = new CoffeePlace();
+    coffeePlace.userId = userId;
+    coffeePlace.name = request.name();
+    coffeePlace.address = request.address();
+    coffeePlace.instagramHandle = request.instagramHandle();
+    coffeePlace.coffeeQuality = request.coffeeQuality();
+    coffeePlace.ambient = request.ambient();
+    coffeePlace.hasGlutenFree = request.hasGlutenFree();
+    coffeePlace.hasVegMilk = request.hasVegMilk();
+    coffeePlace.hasVeganFood = request.hasVeganFood();
+    coffeePlace.hasSugarFree = request.hasSugarFree();
+    coffeePlace.latitude = request.latitude();
+    coffeePlace.longitude = request.longitude();
+    return coffeePlace;
+  }
 
-  private CoffeePlaceResponse mapToCoffeePlaceResponse(CoffeePlace coffeePlace) {
+  static void applyUpdate(CoffeePlace coffeePlace, UpdateCoffeePlaceRequest request) {
+    coffeePlace.name = request.name();
+    coffeePlace.address = request.address();
+    coffeePlace.instagramHandle = request.instagramHandle();
+    coffeePlace.coffeeQuality = request.coffeeQuality();
+    coffeePlace.ambient = request.ambient();
+    coffeePlace.hasGlutenFree = request.hasGlutenFree();
+    coffeePlace.hasVegMilk = request.hasVegMilk();
+    coffeePlace.hasVeganFood = request.hasVeganFood();
+    coffeePlace.hasSugarFree = request.hasSugarFree();
+    coffeePlace.latitude = request.latitude();
+    coffeePlace.longitude = request.longitude();
+  }
+
+  static CoffeePlaceResponse mapToCoffeePlaceResponse(CoffeePlace coffeePlace) {
     CoffeePlaceResponse response =
         new CoffeePlaceResponse(
             coffeePlace.id.toString(),
@@ -207,7 +693,30 @@ public class CoffeePlaceService {
             coffeePlace.hasSugarFree,
             coffeePlace.latitude,
             coffeePlace.longitude,
-            coffeePlace.photo != null);
+            coffeePlace.photoContentType != null,
+            photoStatusOf(coffeePlace),
+            photoUrlsOf(coffeePlace));
     return response;
   }
+
+  private static CoffeePlaceResponse.PhotoUrls photoUrlsOf(CoffeePlace coffeePlace) {
+    if (coffeePlace.photoContentType == null || coffeePlace.photoFullHash == null) {
+      return null;
+    }
+    String photo = "/coffee-places/" + coffeePlace.id + "/photo/";
+    return new CoffeePlaceResponse.PhotoUrls(
+        photo + "thumbnail/" + coffeePlace.photoThumbnailHash,
+        photo + "medium/" + coffeePlace.photoMediumHash,
+        photo + "full/" + coffeePlace.photoFullHash);
+  }
+
+  private static String photoStatusOf(CoffeePlace coffeePlace) {
+    if (coffeePlace.photoContentType == null) {
+      return null;
+    }
+    // Photos uploaded before processing existed carry client-made renditions
+    return coffeePlace.photoStatus == null
+        ? PhotoStatus.READY.name()
+        : coffeePlace.photoStatus.name();
+  }
 }
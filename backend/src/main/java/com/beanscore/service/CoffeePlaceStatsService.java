@@ -0,0 +1,112 @@
+package com.beanscore.service;
+
+import com.beanscore.dto.response.CoffeePlaceStatsResponse;
+import com.beanscore.repository.CoffeePlaceStatsRepository;
+import com.beanscore.stats.CoffeePlaceTotals;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Rating statistics per user. They are read from {@code coffee_place_stats}, which every write to
+ * a user's places updates in the same transaction, so a read costs the same however many places
+ * the user has.
+ */
+@ApplicationScoped
+public class CoffeePlaceStatsService {
+
+  private static final Logger logger = Logger.getLogger(CoffeePlaceStatsService.class.getName());
+
+  /** Outcome of checking one user's statistics against their places. */
+  public enum Verification {
+    MATCHED,
+    SEEDED,
+    REBUILT
+  }
+
+  @Inject CoffeePlaceStatsRepository coffeePlaceStatsRepository;
+
+  @Inject JwtService jwtService;
+
+  /**
+   * Users with no statistics row yet, who have not written since the table was introduced, get one
+   * seeded from their places first.
+   */
+  @Transactional
+  public CoffeePlaceStatsResponse getStats() {
+    UUID currentUserId = jwtService.getCurrentUserId();
+
+    logger.fine("Getting coffee place stats for user id: " + currentUserId);
+
+    CoffeePlaceTotals totals =
+        coffeePlaceStatsRepository
+            .findTotals(currentUserId)
+            .or(() -> coffeePlaceStatsRepository.lockTotals(currentUserId))
+            .or(() -> coffeePlaceStatsRepository.findTotals(currentUserId))
+            .orElseThrow();
+
+    return toResponse(totals);
+  }
+
+  /**
+   * Compares the user's stored statistics with a full scan of their places and rebuilds them on
+   * any difference. The statistics row stays locked meanwhile, so writes in flight cannot make
+   * the two disagree.
+   */
+  @Transactional
+  public Verification verify(UUID userId) {
+    Optional<CoffeePlaceTotals> stored = coffeePlaceStatsRepository.lockTotals(userId);
+    if (stored.isEmpty()) {
+      return Verification.SEEDED;
+    }
+
+    CoffeePlaceTotals scanned = coffeePlaceStatsRepository.scanTotals(userId);
+    if (scanned.equals(stored.get())) {
+      return Verification.MATCHED;
+    }
+
+    logger.warning(
+        "Coffee place stats of user id: "
+            + userId
+            + " were "
+            + stored.get()
+            + ", full scan gives "
+            + scanned
+            + "; rebuilding");
+    coffeePlaceStatsRepository.rebuild(userId);
+    return Verification.REBUILT;
+  }
+
+  static CoffeePlaceStatsResponse toResponse(CoffeePlaceTotals totals) {
+    Map<Integer, Long> coffeeQuality = new LinkedHashMap<>();
+    Map<Integer, Long> ambient = new LinkedHashMap<>();
+    for (int rating = CoffeePlaceTotals.MIN_RATING;
+        rating <= CoffeePlaceTotals.MAX_RATING;
+        rating++) {
+      coffeeQuality.put(rating, totals.coffeeQualityCount(rating));
+      ambient.put(rating, totals.ambientCount(rating));
+    }
+
+    long places = totals.places();
+    return new CoffeePlaceStatsResponse(
+        places,
+        places == 0 ? null : (double) totals.coffeeQualitySum() / places,
+        places == 0 ? null : (double) totals.ambientSum() / places,
+        coffeeQuality,
+        ambient,
+        new CoffeePlaceStatsResponse.DietaryOptions(
+            totals.glutenFree(), totals.vegMilk(), totals.veganFood(), totals.sugarFree()),
+        totals.addedPerMonth().entrySet().stream()
+            .map(
+                entry ->
+                    new CoffeePlaceStatsResponse.MonthCount(
+                        entry.getKey().toString(), entry.getValue()))
+            .collect(Collectors.toList()));
+  }
+}
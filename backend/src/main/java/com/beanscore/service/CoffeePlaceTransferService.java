@@ -0,0 +1,234 @@
+package com.beanscore.service;
+
+import com.beanscore.dto.request.CreateCoffeePlaceRequest;
+import com.beanscore.dto.response.ImportReport;
+import com.beanscore.entity.CoffeePlace;
+import com.beanscore.repository.CoffeePlaceRepository;
+import com.beanscore.repository.CoffeePlaceStatsRepository;
+import com.beanscore.stats.CoffeePlaceTotals;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+
+/**
+ * Moves a user's places in and out as NDJSON (one JSON object per line). Both directions work on
+ * a bounded window of rows, so memory stays flat however many places are involved. Exported lines
+ * can be imported again as-is; fields that only exist in responses are ignored.
+ */
+@ApplicationScoped
+public class CoffeePlaceTransferService {
+
+  private static final Logger logger =
+      Logger.getLogger(CoffeePlaceTransferService.class.getName());
+
+  @ConfigProperty(name = "beanscore.transfer.chunk-size", defaultValue = "500")
+  int chunkSize;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  @Inject CoffeePlaceStatsRepository coffeePlaceStatsRepository;
+
+  @Inject JwtService jwtService;
+
+  @Inject ObjectMapper objectMapper;
+
+  @Inject Validator validator;
+
+  /**
+   * Returns a writer for every place of the current user. The user is resolved now; rows are read
+   * in a transaction of their own once the response starts streaming.
+   */
+  public StreamingOutput export() {
+    UUID currentUserId = jwtService.getCurrentUserId();
+
+    logger.fine("Exporting coffee places for user id: " + currentUserId);
+
+    ObjectWriter writer =
+        objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    return output ->
+        QuarkusTransaction.requiringNew().run(() -> writeAll(currentUserId, writer, output));
+  }
+
+  private void writeAll(UUID userId, ObjectWriter writer, OutputStream output) {
+    try (JsonGenerator generator = objectMapper.createGenerator(output);
+        Stream<CoffeePlace> coffeePlaces =
+            coffeePlaceRepository.streamByUserId(userId, chunkSize)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      for (CoffeePlace coffeePlace : (Iterable<CoffeePlace>) coffeePlaces::iterator) {
+        writer.writeValue(generator, CoffeePlaceService.mapToCoffeePlaceResponse(coffeePlace));
+        generator.writeRaw('\n');
+        coffeePlaceRepository.getEntityManager().detach(coffeePlace);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads NDJSON places line by line and inserts the valid ones for the current user in
+   * transactions of {@code chunkSize} rows, each sent as JDBC batches. A line that does not parse
+   * or validate is reported and skipped; a chunk the database rejects is reported line by line
+   * and does not affect the chunks before or after it.
+   */
+  public ImportReport importPlaces(InputStream input) throws IOException {
+    UUID currentUserId = jwtService.getCurrentUserId();
+
+    logger.fine("Importing coffee places for user id: " + currentUserId);
+
+    ObjectReader reader = objectMapper.readerFor(CreateCoffeePlaceRequest.class);
+    Report report = new Report();
+    List<CoffeePlace> chunk = new ArrayList<>(chunkSize);
+    List<Long> chunkLines = new ArrayList<>(chunkSize);
+
+    try (BufferedReader lines =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      long lineNumber = 0;
+      String line;
+      while ((line = lines.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+
+        CreateCoffeePlaceRequest request;
+        try {
+          request = reader.readValue(line);
+        } catch (JsonProcessingException e) {
+          report.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+          continue;
+        }
+
+        CoffeePlace coffeePlace = null;
+        String violations = violations(validator.validate(request));
+        if (violations == null) {
+          coffeePlace = CoffeePlaceService.newCoffeePlace(currentUserId, request);
+          violations = violations(validator.validate(coffeePlace));
+        }
+        if (violations != null) {
+          report.fail(lineNumber, violations);
+          continue;
+        }
+
+        chunk.add(coffeePlace);
+        chunkLines.add(lineNumber);
+        if (chunk.size() == chunkSize) {
+          insert(currentUserId, chunk, chunkLines, report);
+        }
+      }
+    }
+    insert(currentUserId, chunk, chunkLines, report);
+
+    logger.fine(
+        "Imported "
+            + report.imported
+            + " coffee places for user id: "
+            + currentUserId
+            + " ("
+            + report.failed
+            + " lines failed)");
+
+    return report.build();
+  }
+
+  private void insert(
+      UUID userId, List<CoffeePlace> chunk, List<Long> chunkLines, Report report) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    try {
+      persist(userId, chunk);
+      report.imported += chunk.size();
+    } catch (RuntimeException e) {
+      // Find the offending rows by retrying one at a time; the rest of the chunk still goes in
+      logger.log(Level.FINE, "Chunk of " + chunk.size() + " places rejected, retrying by row", e);
+      for (int i = 0; i < chunk.size(); i++) {
+        CoffeePlace coffeePlace = chunk.get(i);
+        coffeePlace.id = null;
+        try {
+          persist(userId, List.of(coffeePlace));
+          report.imported++;
+        } catch (RuntimeException rowFailure) {
+          report.fail(chunkLines.get(i), "Could not be saved: " + rootMessage(rowFailure));
+        }
+      }
+    }
+    chunk.clear();
+    chunkLines.clear();
+  }
+
+  private void persist(UUID userId, List<CoffeePlace> coffeePlaces) {
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              coffeePlaceRepository
+                  .getEntityManager()
+                  .unwrap(Session.class)
+                  .setJdbcBatchSize(chunkSize);
+              coffeePlaceRepository.persist(coffeePlaces);
+              CoffeePlaceTotals change = new CoffeePlaceTotals();
+              coffeePlaces.forEach(change::add);
+              coffeePlaceStatsRepository.apply(userId, change);
+            });
+  }
+
+  private static String rootMessage(Throwable failure) {
+    Throwable root = failure;
+    while (root.getCause() != null && root.getCause() != root) {
+      root = root.getCause();
+    }
+    return root.getMessage();
+  }
+
+  private static String violations(Set<? extends ConstraintViolation<?>> violations) {
+    if (violations.isEmpty()) {
+      return null;
+    }
+    return violations.stream()
+        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+        .sorted()
+        .collect(Collectors.joining(", "));
+  }
+
+  private static class Report {
+    int imported;
+    int failed;
+    final List<ImportReport.LineError> errors = new ArrayList<>();
+
+    void fail(long line, String message) {
+      failed++;
+      if (errors.size() < ImportReport.MAX_ERRORS) {
+        errors.add(new ImportReport.LineError(line, message));
+      }
+    }
+
+    ImportReport build() {
+      return new ImportReport(imported, failed, errors);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.beanscore.service;
 
 import com.beanscore.entity.User;
 import com.beanscore.repository.UserRepository;
+import com.beanscore.security.LiveUserCache;
 import io.smallrye.jwt.build.Jwt;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -16,6 +17,8 @@ public class JwtService {
 
   @Inject UserRepository userRepository;
 
+  @Inject LiveUserCache liveUserCache;
+
   public String generateToken(User user) {
     return Jwt.issuer("https://beanscore.com")
         .subject(user.id.toString())
@@ -29,10 +32,36 @@ public class JwtService {
   public UUID getCurrentUserId() {
     UUID userId = UUID.fromString(jwt.getSubject());
 
-    if (userRepository.findByIdOptional(userId).isEmpty()) {
+    if (liveUserCache.isKnownLive(userId)) {
+      return userId;
+    }
+
+    if (userRepository.findActiveById(userId).isEmpty()) {
       throw new NotAuthorizedException("User account no longer exists");
     }
 
+    liveUserCache.markLive(userId);
     return userId;
   }
+
+  /**
+   * The user id the token was issued to, without checking that the account still exists. Only for
+   * what a deleted account may still see, such as the progress of its own deletion.
+   */
+  public UUID getTokenUserId() {
+    return UUID.fromString(jwt.getSubject());
+  }
+
+  /** Loads the caller's account, refreshing the live-user cache with the row just read. */
+  public User getCurrentUser() {
+    UUID userId = UUID.fromString(jwt.getSubject());
+
+    User user =
+        userRepository
+            .findActiveById(userId)
+            .orElseThrow(() -> new NotAuthorizedException("User account no longer exists"));
+
+    liveUserCache.markLive(userId);
+    return user;
+  }
 }
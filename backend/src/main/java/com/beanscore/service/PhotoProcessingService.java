@@ -0,0 +1,189 @@
+package com.beanscore.service;
+
+import com.beanscore.entity.PhotoStatus;
+import com.beanscore.repository.CoffeePlaceRepository;
+import com.beanscore.storage.ContentHash;
+import com.beanscore.storage.ImageResizer;
+import com.beanscore.storage.PhotoStore;
+import com.beanscore.storage.PhotoVariant;
+import com.beanscore.storage.StoredPhoto;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Generates the resized renditions of uploaded photos on a small dedicated pool, so decoding and
+ * scaling never run on HTTP worker threads. The queue is bounded: when it is full the upload is
+ * marked {@link PhotoStatus#FAILED} instead of piling up work. The queue is not persisted; photos
+ * a restart left {@link PhotoStatus#PROCESSING} are finished by {@code PhotoProcessingRecovery}.
+ */
+@ApplicationScoped
+public class PhotoProcessingService {
+
+  private static final Logger logger = Logger.getLogger(PhotoProcessingService.class.getName());
+
+  /** Largest first, so each size is scaled down from the previous one. */
+  private static final List<PhotoVariant> DERIVATIVES =
+      List.of(PhotoVariant.FULL, PhotoVariant.MEDIUM, PhotoVariant.THUMBNAIL);
+
+  @ConfigProperty(name = "beanscore.photo-processing.threads", defaultValue = "2")
+  int threads;
+
+  @ConfigProperty(name = "beanscore.photo-processing.queue-size", defaultValue = "50")
+  int queueSize;
+
+  @Inject PhotoStore photoStore;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  private ThreadPoolExecutor executor;
+
+  @PostConstruct
+  void start() {
+    AtomicInteger counter = new AtomicInteger();
+    executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            runnable -> {
+              Thread thread = new Thread(runnable, "photo-processing-" + counter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @PreDestroy
+  void stop() {
+    executor.shutdown();
+  }
+
+  /** Queues generation for the photo currently stored for the place. Must be called after commit. */
+  public void submit(UUID coffeePlaceId) {
+    try {
+      executor.execute(() -> process(coffeePlaceId));
+    } catch (RejectedExecutionException e) {
+      logger.warning("Photo processing queue is full, failing photo of place " + coffeePlaceId);
+      QuarkusTransaction.requiringNew()
+          .run(() -> markFailedIfCurrent(coffeePlaceId));
+    }
+  }
+
+  public int queueDepth() {
+    return executor.getQueue().size();
+  }
+
+  /**
+   * Generates the renditions of the photo currently stored for the place on the calling thread.
+   * Leaves the status as it was if the photo was replaced or removed meanwhile.
+   */
+  public void process(UUID coffeePlaceId) {
+    Optional<Object[]> state =
+        QuarkusTransaction.requiringNew()
+            .call(() -> coffeePlaceRepository.findPhotoState(coffeePlaceId));
+    if (state.isEmpty()) {
+      return;
+    }
+    String contentType = (String) state.get()[0];
+    LocalDateTime version = (LocalDateTime) state.get()[1];
+
+    PhotoStatus status;
+    try {
+      status = generate(coffeePlaceId, contentType, version) ? PhotoStatus.READY : null;
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.WARNING, "Failed to process photo of place " + coffeePlaceId, e);
+      status = PhotoStatus.FAILED;
+    }
+
+    if (status != null) {
+      PhotoStatus outcome = status;
+      QuarkusTransaction.requiringNew()
+          .run(() -> coffeePlaceRepository.updatePhotoStatus(coffeePlaceId, version, outcome));
+    }
+  }
+
+  /** Returns {@code false} if the photo was replaced or removed while it was being processed. */
+  private boolean generate(UUID coffeePlaceId, String contentType, LocalDateTime version)
+      throws IOException {
+    Optional<StoredPhoto> original =
+        QuarkusTransaction.requiringNew()
+            .call(() -> photoStore.read(coffeePlaceId, version, PhotoVariant.ORIGINAL));
+    if (original.isEmpty()) {
+      return false;
+    }
+
+    BufferedImage image;
+    try (InputStream content = open(original.get())) {
+      image = ImageResizer.read(content, PhotoVariant.FULL.maxDimension());
+    }
+    if (image == null) {
+      throw new IOException("Unreadable image");
+    }
+
+    boolean opaque = !"image/png".equals(contentType);
+    for (PhotoVariant variant : DERIVATIVES) {
+      image = ImageResizer.resize(image, variant.maxDimension(), opaque);
+      byte[] bytes = ImageResizer.encode(image, contentType);
+      boolean written =
+          QuarkusTransaction.requiringNew()
+              .call(
+                  () -> {
+                    if (!coffeePlaceRepository.hasPhotoVersion(coffeePlaceId, version)) {
+                      return false;
+                    }
+                    // Stored before its hash is recorded: photo URLs with that hash are served
+                    // as immutable, so the rendition must exist by the time they can be formed
+                    try {
+                      photoStore.write(
+                          coffeePlaceId, version, variant, new ByteArrayInputStream(bytes));
+                    } catch (IOException e) {
+                      throw new UncheckedIOException(e);
+                    }
+                    coffeePlaceRepository.updatePhotoHash(
+                        coffeePlaceId, version, variant, ContentHash.of(bytes));
+                    return true;
+                  });
+      if (!written) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void markFailedIfCurrent(UUID coffeePlaceId) {
+    coffeePlaceRepository
+        .findPhotoState(coffeePlaceId)
+        .ifPresent(
+            state ->
+                coffeePlaceRepository.updatePhotoStatus(
+                    coffeePlaceId, (LocalDateTime) state[1], PhotoStatus.FAILED));
+  }
+
+  private static InputStream open(StoredPhoto photo) throws IOException {
+    return photo.file() != null
+        ? Files.newInputStream(photo.file())
+        : new ByteArrayInputStream(photo.bytes());
+  }
+}
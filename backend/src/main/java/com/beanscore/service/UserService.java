@@ -1,14 +1,20 @@
 package com.beanscore.service;
 
-import com.beanscore.entity.CoffeePlace;
+import com.beanscore.dto.response.AccountDeletionResponse;
+import com.beanscore.entity.AccountDeletion;
+import com.beanscore.entity.AccountDeletionStatus;
 import com.beanscore.entity.User;
+import com.beanscore.repository.AccountDeletionRepository;
 import com.beanscore.repository.CoffeePlaceRepository;
-import com.beanscore.repository.UserRepository;
+import com.beanscore.security.LiveUserCache;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.UUID;
 import java.util.logging.Logger;
 
@@ -19,31 +25,74 @@ public class UserService {
 
   @Inject JwtService jwtService;
 
-  @Inject UserRepository userRepository;
-
   @Inject CoffeePlaceRepository coffeePlaceRepository;
 
+  @Inject AccountDeletionRepository accountDeletionRepository;
+
+  @Inject LiveUserCache liveUserCache;
+
+  @Inject TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+  /**
+   * Marks the caller's account deleted, which blocks it from this point on, and queues the purge
+   * of its places and photos. {@code AccountPurgeJob} does the purge in short transactions and
+   * finally removes the user row; {@link #getAccountDeletion()} reports how far it has got.
+   */
   @Transactional
-  public void deleteUserAccount() {
+  public AccountDeletionResponse deleteUserAccount() {
     logger.info("Starting user account deletion process");
-    UUID currentUserId = jwtService.getCurrentUserId();
+    User user = jwtService.getCurrentUser();
+    UUID currentUserId = user.id;
+
+    user.deletedAt = LocalDateTime.now();
 
-    User user =
-        userRepository
-            .findByIdOptional(currentUserId)
-            .orElseThrow(() -> new NotFoundException("User not found"));
+    AccountDeletion deletion = new AccountDeletion();
+    deletion.userId = currentUserId;
+    deletion.status = AccountDeletionStatus.IN_PROGRESS;
+    deletion.placesTotal = coffeePlaceRepository.countByUserId(currentUserId);
+    accountDeletionRepository.persist(deletion);
 
-    logger.info("Deleting user with ID: " + currentUserId);
+    liveUserCache.invalidate(currentUserId);
+    transactionSynchronizationRegistry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
 
-    List<CoffeePlace> coffeePlaces = coffeePlaceRepository.findByUserId(currentUserId);
-    logger.info("Found " + coffeePlaces.size() + " coffee places associated with user");
+          @Override
+          public void afterCompletion(int status) {
+            if (status != Status.STATUS_COMMITTED) {
+              liveUserCache.cancelInvalidation(currentUserId);
+            }
+          }
+        });
+    logger.info(
+        "Marked user with ID: "
+            + currentUserId
+            + " deleted, purging "
+            + deletion.placesTotal
+            + " coffee places in the background");
 
-    if (!coffeePlaces.isEmpty()) {
-      long deletedCount = coffeePlaceRepository.deleteByUserId(currentUserId);
-      logger.info("Deleted " + deletedCount + " coffee places associated with user");
-    }
+    return mapToAccountDeletionResponse(deletion);
+  }
+
+  /** Progress of the caller's account deletion; still answered once the account is gone. */
+  public AccountDeletionResponse getAccountDeletion() {
+    UUID tokenUserId = jwtService.getTokenUserId();
+
+    return accountDeletionRepository
+        .findByIdOptional(tokenUserId)
+        .map(UserService::mapToAccountDeletionResponse)
+        .orElseThrow(() -> new NotFoundException("No account deletion found"));
+  }
 
-    userRepository.delete(user);
-    logger.info("Deleted user with ID: " + currentUserId);
+  private static AccountDeletionResponse mapToAccountDeletionResponse(AccountDeletion deletion) {
+    return new AccountDeletionResponse(
+        deletion.status.name(),
+        deletion.placesTotal,
+        deletion.placesDeleted,
+        deletion.photosDeleted,
+        deletion.requestedAt,
+        deletion.updatedAt,
+        deletion.completedAt);
   }
 }
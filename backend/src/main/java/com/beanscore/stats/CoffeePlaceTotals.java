@@ -0,0 +1,169 @@
+package com.beanscore.stats;
+
+import com.beanscore.entity.CoffeePlace;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Counts and sums over a set of coffee places: how many there are, rating sums and histograms,
+ * dietary option counts and how many were created in each month. Adding and removing places makes
+ * it the change a write applies to the stored statistics; built from a full scan, it is what they
+ * should hold.
+ *
+ * <p>{@link #counters()} lists the counters in the column order of {@code coffee_place_stats}.
+ */
+public final class CoffeePlaceTotals {
+
+  public static final int MIN_RATING = 1;
+
+  public static final int MAX_RATING = 5;
+
+  private static final int PLACES = 0;
+  private static final int COFFEE_QUALITY_SUM = 1;
+  private static final int AMBIENT_SUM = 2;
+  private static final int COFFEE_QUALITY_HISTOGRAM = 3;
+  private static final int AMBIENT_HISTOGRAM = COFFEE_QUALITY_HISTOGRAM + MAX_RATING;
+  private static final int GLUTEN_FREE = AMBIENT_HISTOGRAM + MAX_RATING;
+  private static final int VEG_MILK = GLUTEN_FREE + 1;
+  private static final int VEGAN_FOOD = GLUTEN_FREE + 2;
+  private static final int SUGAR_FREE = GLUTEN_FREE + 3;
+
+  /** Number of counters, in the order {@link #counters()} returns them. */
+  public static final int COUNTERS = SUGAR_FREE + 1;
+
+  private final long[] counters;
+
+  private final SortedMap<YearMonth, Long> addedPerMonth;
+
+  public CoffeePlaceTotals() {
+    this(new long[COUNTERS], Map.of());
+  }
+
+  private CoffeePlaceTotals(long[] counters, Map<YearMonth, Long> addedPerMonth) {
+    this.counters = counters;
+    this.addedPerMonth = new TreeMap<>();
+    addedPerMonth.forEach(this::addMonth);
+  }
+
+  /** Rebuilds totals from {@link #counters()} and per-month counts. */
+  public static CoffeePlaceTotals of(long[] counters, Map<YearMonth, Long> addedPerMonth) {
+    if (counters.length != COUNTERS) {
+      throw new IllegalArgumentException("Expected " + COUNTERS + " counters");
+    }
+    return new CoffeePlaceTotals(counters.clone(), addedPerMonth);
+  }
+
+  public CoffeePlaceTotals add(CoffeePlace coffeePlace) {
+    return count(coffeePlace, 1);
+  }
+
+  public CoffeePlaceTotals remove(CoffeePlace coffeePlace) {
+    return count(coffeePlace, -1);
+  }
+
+  private CoffeePlaceTotals count(CoffeePlace coffeePlace, int sign) {
+    counters[PLACES] += sign;
+    counters[COFFEE_QUALITY_SUM] += sign * coffeePlace.coffeeQuality;
+    counters[AMBIENT_SUM] += sign * coffeePlace.ambient;
+    counters[COFFEE_QUALITY_HISTOGRAM + coffeePlace.coffeeQuality - MIN_RATING] += sign;
+    counters[AMBIENT_HISTOGRAM + coffeePlace.ambient - MIN_RATING] += sign;
+    counters[GLUTEN_FREE] += Boolean.TRUE.equals(coffeePlace.hasGlutenFree) ? sign : 0;
+    counters[VEG_MILK] += Boolean.TRUE.equals(coffeePlace.hasVegMilk) ? sign : 0;
+    counters[VEGAN_FOOD] += Boolean.TRUE.equals(coffeePlace.hasVeganFood) ? sign : 0;
+    counters[SUGAR_FREE] += Boolean.TRUE.equals(coffeePlace.hasSugarFree) ? sign : 0;
+    // Not persisted yet: the creation timestamp is about to be set to now
+    LocalDateTime createdAt =
+        coffeePlace.createdAt == null ? LocalDateTime.now() : coffeePlace.createdAt;
+    addMonth(YearMonth.from(createdAt), (long) sign);
+    return this;
+  }
+
+  private void addMonth(YearMonth month, Long count) {
+    // Months that net out to nothing are dropped, so equal totals compare equal
+    if (count != 0) {
+      addedPerMonth.merge(
+          month, count, (current, added) -> current + added == 0 ? null : current + added);
+    }
+  }
+
+  /** Whether applying these totals as a change would leave the statistics as they are. */
+  public boolean isEmpty() {
+    return Arrays.stream(counters).allMatch(counter -> counter == 0) && addedPerMonth.isEmpty();
+  }
+
+  /** A copy of the counters, in {@code coffee_place_stats} column order. */
+  public long[] counters() {
+    return counters.clone();
+  }
+
+  public long places() {
+    return counters[PLACES];
+  }
+
+  public long coffeeQualitySum() {
+    return counters[COFFEE_QUALITY_SUM];
+  }
+
+  public long ambientSum() {
+    return counters[AMBIENT_SUM];
+  }
+
+  public long coffeeQualityCount(int rating) {
+    return counters[COFFEE_QUALITY_HISTOGRAM + checkRating(rating) - MIN_RATING];
+  }
+
+  public long ambientCount(int rating) {
+    return counters[AMBIENT_HISTOGRAM + checkRating(rating) - MIN_RATING];
+  }
+
+  public long glutenFree() {
+    return counters[GLUTEN_FREE];
+  }
+
+  public long vegMilk() {
+    return counters[VEG_MILK];
+  }
+
+  public long veganFood() {
+    return counters[VEGAN_FOOD];
+  }
+
+  public long sugarFree() {
+    return counters[SUGAR_FREE];
+  }
+
+  /** Places per month of creation, oldest month first; months with no change are left out. */
+  public SortedMap<YearMonth, Long> addedPerMonth() {
+    return Collections.unmodifiableSortedMap(addedPerMonth);
+  }
+
+  private static int checkRating(int rating) {
+    if (rating < MIN_RATING || rating > MAX_RATING) {
+      throw new IllegalArgumentException("Rating must be between 1 and 5");
+    }
+    return rating;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof CoffeePlaceTotals totals
+        && Arrays.equals(counters, totals.counters)
+        && addedPerMonth.equals(totals.addedPerMonth);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(Arrays.hashCode(counters), addedPerMonth);
+  }
+
+  @Override
+  public String toString() {
+    return "CoffeePlaceTotals" + Arrays.toString(counters) + addedPerMonth;
+  }
+}
@@ -0,0 +1,49 @@
+package com.beanscore.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/** Hashes of stored images, embedded in their URLs so a changed image gets a new URL. */
+public final class ContentHash {
+
+  /** Hex characters kept; 128 bits is plenty to tell images apart and keeps URLs short. */
+  public static final int LENGTH = 32;
+
+  private ContentHash() {}
+
+  public static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /** Completes {@code digest} and formats it as a hash. */
+  public static String format(MessageDigest digest) {
+    return HexFormat.of().formatHex(digest.digest(), 0, LENGTH / 2);
+  }
+
+  public static String of(byte[] bytes) {
+    MessageDigest digest = newDigest();
+    digest.update(bytes);
+    return format(digest);
+  }
+
+  public static String of(StoredPhoto photo) throws IOException {
+    if (photo.file() == null) {
+      return of(photo.bytes());
+    }
+    MessageDigest digest = newDigest();
+    try (InputStream in = new DigestInputStream(Files.newInputStream(photo.file()), digest)) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    return format(digest);
+  }
+}
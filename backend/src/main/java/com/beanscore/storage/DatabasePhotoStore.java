@@ -0,0 +1,73 @@
+package com.beanscore.storage;
+
+import com.beanscore.repository.CoffeePlacePhotoRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Typed;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps images as {@code bytea} in {@code coffee_place_photos}, one row per place. Writes and
+ * deletes are part of the caller's transaction, so only the current version is kept.
+ */
+@ApplicationScoped
+@Typed(DatabasePhotoStore.class)
+public class DatabasePhotoStore implements PhotoStore {
+
+  @Inject CoffeePlacePhotoRepository coffeePlacePhotoRepository;
+
+  @Override
+  public void write(
+      UUID coffeePlaceId, LocalDateTime version, PhotoVariant variant, InputStream content)
+      throws IOException {
+    coffeePlacePhotoRepository.saveStream(column(variant), coffeePlaceId, content);
+  }
+
+  @Override
+  public Optional<StoredPhoto> read(
+      UUID coffeePlaceId, LocalDateTime version, PhotoVariant variant) {
+    return coffeePlacePhotoRepository
+        .findBytes(attribute(variant), coffeePlaceId)
+        .map(StoredPhoto::ofBytes);
+  }
+
+  @Override
+  public void delete(UUID coffeePlaceId, LocalDateTime version) {
+    delete(coffeePlaceId);
+  }
+
+  @Override
+  public void delete(UUID coffeePlaceId) {
+    coffeePlacePhotoRepository.deleteByCoffeePlaceId(coffeePlaceId);
+  }
+
+  @Override
+  public void deleteAll(Collection<UUID> coffeePlaceIds) {
+    if (!coffeePlaceIds.isEmpty()) {
+      coffeePlacePhotoRepository.deleteByCoffeePlaceIds(coffeePlaceIds);
+    }
+  }
+
+  private static String column(PhotoVariant variant) {
+    return switch (variant) {
+      case ORIGINAL -> "photo";
+      case THUMBNAIL -> "photo_thumbnail";
+      case MEDIUM -> "photo_medium";
+      case FULL -> "photo_full";
+    };
+  }
+
+  private static String attribute(PhotoVariant variant) {
+    return switch (variant) {
+      case ORIGINAL -> "photo";
+      case THUMBNAIL -> "photoThumbnail";
+      case MEDIUM -> "photoMedium";
+      case FULL -> "photoFull";
+    };
+  }
+}
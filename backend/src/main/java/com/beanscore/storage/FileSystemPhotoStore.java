@@ -0,0 +1,196 @@
+package com.beanscore.storage;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Typed;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Keeps images as plain files under {@code beanscore.photo-store.directory}, one directory per
+ * coffee place and photo version ({@code <root>/<first two id chars>/<id>/v<version>/<variant>}).
+ * Files are written to a temporary name and moved into place, so readers never see a partial
+ * image.
+ *
+ * <p>The filesystem does not take part in the database transaction: deletes are held back until
+ * it commits, and files written by a transaction that rolls back are removed again. Photos written
+ * before versions were used sit directly in the place's directory; they are still served until the
+ * version's own original exists, and are removed with the next delete of the place's photo.
+ */
+@ApplicationScoped
+@Typed(FileSystemPhotoStore.class)
+public class FileSystemPhotoStore implements PhotoStore {
+
+  private static final Logger logger = Logger.getLogger(FileSystemPhotoStore.class.getName());
+
+  @ConfigProperty(name = "beanscore.photo-store.directory", defaultValue = "data/photos")
+  Path root;
+
+  @Inject TransactionSynchronizationRegistry transactions;
+
+  @Override
+  public void write(
+      UUID coffeePlaceId, LocalDateTime version, PhotoVariant variant, InputStream content)
+      throws IOException {
+    Path directory = versionDirectory(coffeePlaceId, version);
+    Files.createDirectories(directory);
+
+    Path target = directory.resolve(variant.fileName());
+    boolean created = !Files.exists(target);
+    Path temp = Files.createTempFile(directory, variant.fileName(), ".tmp");
+    try {
+      Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+      try {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+
+    // A replaced file cannot be restored, but a new one must not outlive a rolled back upload
+    if (created) {
+      afterCompletion(false, () -> deleteWritten(target), "remove " + target);
+    }
+  }
+
+  @Override
+  public Optional<StoredPhoto> read(
+      UUID coffeePlaceId, LocalDateTime version, PhotoVariant variant) {
+    Path directory = versionDirectory(coffeePlaceId, version);
+    if (!Files.isRegularFile(directory.resolve(PhotoVariant.ORIGINAL.fileName()))) {
+      directory = directoryFor(coffeePlaceId);
+    }
+    Path file = directory.resolve(variant.fileName());
+    return Files.isRegularFile(file) ? Optional.of(StoredPhoto.ofFile(file)) : Optional.empty();
+  }
+
+  @Override
+  public void delete(UUID coffeePlaceId, LocalDateTime version) {
+    afterCompletion(
+        true,
+        () -> {
+          if (version != null) {
+            deleteTree(versionDirectory(coffeePlaceId, version));
+          }
+          deleteUnversioned(coffeePlaceId);
+        },
+        "delete photo of coffee place " + coffeePlaceId);
+  }
+
+  @Override
+  public void delete(UUID coffeePlaceId) {
+    afterCompletion(
+        true,
+        () -> deleteTree(directoryFor(coffeePlaceId)),
+        "delete photos of coffee place " + coffeePlaceId);
+  }
+
+  Path directoryFor(UUID coffeePlaceId) {
+    String id = coffeePlaceId.toString();
+    return root.resolve(id.substring(0, 2)).resolve(id);
+  }
+
+  /** The place's directory itself for photos without a version. */
+  Path versionDirectory(UUID coffeePlaceId, LocalDateTime version) {
+    if (version == null) {
+      return directoryFor(coffeePlaceId);
+    }
+    long micros =
+        version.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + version.getNano() / 1_000;
+    return directoryFor(coffeePlaceId).resolve("v" + micros);
+  }
+
+  /**
+   * Runs {@code action} once the current transaction has committed ({@code onCommit}) or rolled
+   * back (otherwise). Outside a transaction, deletes run at once and nothing is undone.
+   */
+  private void afterCompletion(boolean onCommit, IoAction action, String description) {
+    if (transactions == null
+        || transactions.getTransactionStatus() != Status.STATUS_ACTIVE) {
+      if (onCommit) {
+        run(action, description);
+      }
+      return;
+    }
+    transactions.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            if ((status == Status.STATUS_COMMITTED) == onCommit) {
+              run(action, description);
+            }
+          }
+        });
+  }
+
+  private static void run(IoAction action, String description) {
+    try {
+      action.run();
+    } catch (IOException e) {
+      // Leaves an orphaned file behind; the rows never point at it
+      logger.log(Level.WARNING, "Failed to " + description, e);
+    }
+  }
+
+  private void deleteUnversioned(UUID coffeePlaceId) throws IOException {
+    Path directory = directoryFor(coffeePlaceId);
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.filter(Files::isRegularFile).toList()) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  private static void deleteWritten(Path file) throws IOException {
+    Files.deleteIfExists(file);
+    try {
+      Files.deleteIfExists(file.getParent());
+    } catch (DirectoryNotEmptyException e) {
+      // Other variants of the version are still there
+    }
+  }
+
+  private static void deleteTree(Path directory) throws IOException {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(file);
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  @FunctionalInterface
+  private interface IoAction {
+    void run() throws IOException;
+  }
+}
@@ -0,0 +1,117 @@
+package com.beanscore.storage;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+/** Decodes and downscales photos with the JDK image stack. */
+public final class ImageResizer {
+
+  /**
+   * Refuse sources over 50 megapixels (the full-resolution mode of current phone cameras).
+   * Subsampling bounds the decoded image, but decoding time still grows with the source.
+   */
+  static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+  private static final float JPEG_QUALITY = 0.85f;
+
+  private ImageResizer() {}
+
+  /**
+   * Decodes an image, subsampling while reading so that its longest side is at most twice {@code
+   * maxDimension} (and never below it). A small file with huge dimensions cannot blow up the heap.
+   */
+  public static BufferedImage read(InputStream content, int maxDimension) throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        throw new IOException("Unsupported image format");
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height > MAX_SOURCE_PIXELS) {
+          throw new IOException("Image is too large to process: " + width + "x" + height);
+        }
+
+        ImageReadParam param = reader.getDefaultReadParam();
+        // Rounded up, so the decoded image never exceeds twice the target resolution
+        int subsampling =
+            Math.max(1, Math.ceilDiv(Math.max(width, height), maxDimension * 2));
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /** Scales {@code source} so its longest side is at most {@code maxDimension}; never upscales. */
+  public static BufferedImage resize(BufferedImage source, int maxDimension, boolean opaque) {
+    int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+    int width = source.getWidth();
+    int height = source.getHeight();
+    double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+    int targetWidth = Math.max(1, (int) Math.round(width * scale));
+    int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+    // Halve repeatedly before the last step; a single bilinear pass over a large ratio aliases
+    BufferedImage current = source;
+    int currentWidth = width;
+    int currentHeight = height;
+    do {
+      currentWidth = Math.max(targetWidth, currentWidth / 2);
+      currentHeight = Math.max(targetHeight, currentHeight / 2);
+      current = draw(current, currentWidth, currentHeight, type);
+    } while (currentWidth > targetWidth || currentHeight > targetHeight);
+
+    return current;
+  }
+
+  /** Encodes as {@code image/jpeg} or {@code image/png}. */
+  public static byte[] encode(BufferedImage image, String contentType) throws IOException {
+    String format = "image/png".equals(contentType) ? "png" : "jpeg";
+    ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+      writer.setOutput(output);
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      if (format.equals("jpeg")) {
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+      }
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return bytes.toByteArray();
+  }
+
+  private static BufferedImage draw(BufferedImage source, int width, int height, int type) {
+    BufferedImage target = new BufferedImage(width, height, type);
+    Graphics2D graphics = target.createGraphics();
+    try {
+      graphics.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(source, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    return target;
+  }
+}
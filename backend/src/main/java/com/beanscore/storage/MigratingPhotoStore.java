@@ -0,0 +1,57 @@
+package com.beanscore.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Writes to a new store while still serving photos that only exist in the legacy one. Used while
+ * {@link com.beanscore.lifecycle.PhotoMigrationJob} moves old rows across, so no photo disappears
+ * mid-migration.
+ */
+public class MigratingPhotoStore implements PhotoStore {
+
+  private final PhotoStore primary;
+  private final PhotoStore legacy;
+
+  public MigratingPhotoStore(PhotoStore primary, PhotoStore legacy) {
+    this.primary = primary;
+    this.legacy = legacy;
+  }
+
+  @Override
+  public void write(
+      UUID coffeePlaceId, LocalDateTime version, PhotoVariant variant, InputStream content)
+      throws IOException {
+    primary.write(coffeePlaceId, version, variant, content);
+  }
+
+  @Override
+  public Optional<StoredPhoto> read(
+      UUID coffeePlaceId, LocalDateTime version, PhotoVariant variant) {
+    return primary
+        .read(coffeePlaceId, version, variant)
+        .or(() -> legacy.read(coffeePlaceId, version, variant));
+  }
+
+  @Override
+  public void delete(UUID coffeePlaceId, LocalDateTime version) {
+    primary.delete(coffeePlaceId, version);
+    legacy.delete(coffeePlaceId, version);
+  }
+
+  @Override
+  public void delete(UUID coffeePlaceId) {
+    primary.delete(coffeePlaceId);
+    legacy.delete(coffeePlaceId);
+  }
+
+  @Override
+  public void deleteAll(Collection<UUID> coffeePlaceIds) {
+    primary.deleteAll(coffeePlaceIds);
+    legacy.deleteAll(coffeePlaceIds);
+  }
+}
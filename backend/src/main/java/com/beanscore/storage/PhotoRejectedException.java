@@ -0,0 +1,13 @@
+package com.beanscore.storage;
+
+import java.io.IOException;
+
+/** An uploaded image was refused because of its size or format; the message is user-facing. */
+public class PhotoRejectedException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+
+  public PhotoRejectedException(String message) {
+    super(message);
+  }
+}
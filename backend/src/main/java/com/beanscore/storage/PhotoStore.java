@@ -0,0 +1,36 @@
+package com.beanscore.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Storage for coffee place images, keyed by coffee place id and photo version. The version is the
+ * place's {@code photoUpdatedAt} (null for photos stored before it was recorded), so a new upload
+ * never overwrites the files of the photo that is still committed. Callers are responsible for
+ * checking that the place belongs to the current user before touching its photos.
+ *
+ * <p>Writes and deletes belong to the caller's transaction. A store that is not transactional
+ * itself runs deletes only once the transaction has committed, and removes what it wrote if the
+ * transaction rolls back.
+ */
+public interface PhotoStore {
+
+  void write(UUID coffeePlaceId, LocalDateTime version, PhotoVariant variant, InputStream content)
+      throws IOException;
+
+  Optional<StoredPhoto> read(UUID coffeePlaceId, LocalDateTime version, PhotoVariant variant);
+
+  /** Deletes one version of the place's photo, as when it is replaced or removed. */
+  void delete(UUID coffeePlaceId, LocalDateTime version);
+
+  /** Deletes every version of the place's photo, as when the place itself is deleted. */
+  void delete(UUID coffeePlaceId);
+
+  default void deleteAll(Collection<UUID> coffeePlaceIds) {
+    coffeePlaceIds.forEach(this::delete);
+  }
+}
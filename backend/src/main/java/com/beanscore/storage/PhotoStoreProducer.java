@@ -0,0 +1,30 @@
+package com.beanscore.storage;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/** Selects the {@link PhotoStore} backend from {@code beanscore.photo-store.type}. */
+@ApplicationScoped
+public class PhotoStoreProducer {
+
+  @ConfigProperty(name = "beanscore.photo-store.type", defaultValue = "database")
+  String type;
+
+  @Inject DatabasePhotoStore databasePhotoStore;
+
+  @Inject FileSystemPhotoStore fileSystemPhotoStore;
+
+  @Produces
+  @ApplicationScoped
+  PhotoStore photoStore() {
+    return switch (type) {
+      case "database" -> databasePhotoStore;
+      case "filesystem" -> new MigratingPhotoStore(fileSystemPhotoStore, databasePhotoStore);
+      default ->
+          throw new IllegalStateException(
+              "Unknown beanscore.photo-store.type '" + type + "', expected database or filesystem");
+    };
+  }
+}
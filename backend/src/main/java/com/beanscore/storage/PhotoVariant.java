@@ -0,0 +1,32 @@
+package com.beanscore.storage;
+
+/**
+ * The image renditions stored for a coffee place. {@link #ORIGINAL} is what the client uploaded;
+ * the others are generated from it with their longest side capped at {@link #maxDimension()}.
+ */
+public enum PhotoVariant {
+  ORIGINAL("original", 0),
+  THUMBNAIL("thumbnail", 640),
+  MEDIUM("medium", 1280),
+  FULL("full", 2048);
+
+  private final String fileName;
+  private final int maxDimension;
+
+  PhotoVariant(String fileName, int maxDimension) {
+    this.fileName = fileName;
+    this.maxDimension = maxDimension;
+  }
+
+  public String fileName() {
+    return fileName;
+  }
+
+  public int maxDimension() {
+    return maxDimension;
+  }
+
+  public boolean isDerivative() {
+    return this != ORIGINAL;
+  }
+}
@@ -0,0 +1,100 @@
+package com.beanscore.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * An uploaded image in the temporary file the HTTP layer wrote it to, checked and hashed through a
+ * fixed-size buffer. The format is taken from the first bytes rather than from what the client
+ * claims, so a bogus upload never reaches the photo store, and no image is held in memory. The
+ * parts are already on disk when they get here: what bounds them while they are received is {@code
+ * quarkus.http.limits.max-body-size}, which rejects the request with 413 as soon as it is crossed.
+ */
+public final class SpooledPhoto {
+
+  private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+  private static final byte[] PNG_MAGIC = {
+    (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'
+  };
+
+  private final Path file;
+  private final long size;
+  private final String contentType;
+  private final String contentHash;
+
+  private SpooledPhoto(Path file, long size, String contentType, String contentHash) {
+    this.file = file;
+    this.size = size;
+    this.contentType = contentType;
+    this.contentHash = contentHash;
+  }
+
+  /**
+   * Checks an upload the HTTP layer has already written to {@code file}, without copying it. The
+   * file is left for the HTTP layer to delete.
+   *
+   * @param file the uploaded part, or null if it is missing
+   * @param label how the part is named in error messages, e.g. "Photo"
+   * @param maxBytes largest accepted size
+   * @param sizeDescription the limit as shown to users, e.g. "2MB"
+   * @throws PhotoRejectedException if the image is too large or not a JPEG or PNG
+   */
+  public static SpooledPhoto ofFile(Path file, String label, long maxBytes, String sizeDescription)
+      throws IOException {
+    if (file == null) {
+      throw new PhotoRejectedException(label + " is required");
+    }
+    long size = Files.size(file);
+    if (size > maxBytes) {
+      throw new PhotoRejectedException(label + " file size must be less than " + sizeDescription);
+    }
+
+    MessageDigest digest = ContentHash.newDigest();
+    try (InputStream content = new DigestInputStream(Files.newInputStream(file), digest)) {
+      String contentType = detectContentType(content.readNBytes(PNG_MAGIC.length));
+      if (contentType == null) {
+        throw new PhotoRejectedException("Only JPEG and PNG images are allowed");
+      }
+      content.transferTo(OutputStream.nullOutputStream());
+      return new SpooledPhoto(file, size, contentType, ContentHash.format(digest));
+    }
+  }
+
+  public InputStream open() throws IOException {
+    return Files.newInputStream(file);
+  }
+
+  public long size() {
+    return size;
+  }
+
+  public String contentType() {
+    return contentType;
+  }
+
+  /** The {@link ContentHash} of the image, computed while it was checked. */
+  public String contentHash() {
+    return contentHash;
+  }
+
+  static String detectContentType(byte[] header) {
+    if (startsWith(header, PNG_MAGIC)) {
+      return "image/png";
+    }
+    if (startsWith(header, JPEG_MAGIC)) {
+      return "image/jpeg";
+    }
+    return null;
+  }
+
+  private static boolean startsWith(byte[] bytes, byte[] prefix) {
+    return bytes.length >= prefix.length
+        && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+  }
+}
@@ -0,0 +1,38 @@
+package com.beanscore.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A stored image, either as a file on disk or as bytes already in memory. Files are handed to the
+ * HTTP layer as a {@link Path}, which Quarkus REST serves with {@code sendFile} instead of copying
+ * the image through the heap.
+ */
+public record StoredPhoto(Path file, byte[] bytes) {
+
+  public static StoredPhoto ofFile(Path file) {
+    return new StoredPhoto(file, null);
+  }
+
+  public static StoredPhoto ofBytes(byte[] bytes) {
+    return new StoredPhoto(null, bytes);
+  }
+
+  /** Size in bytes, or -1 if the file vanished since it was looked up. */
+  public long size() {
+    if (file == null) {
+      return bytes.length;
+    }
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  /** The response entity for this photo. */
+  public Object entity() {
+    return file != null ? file : bytes;
+  }
+}
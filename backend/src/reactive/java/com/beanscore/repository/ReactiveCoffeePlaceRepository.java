@@ -0,0 +1,93 @@
+package com.beanscore.repository;
+
+import com.beanscore.dto.request.CoffeePlaceFilter;
+import com.beanscore.dto.request.CoffeePlaceSort;
+import com.beanscore.dto.request.PageCursor;
+import com.beanscore.entity.CoffeePlace;
+import com.beanscore.entity.CoffeePlaceDeletion;
+import com.beanscore.geo.PlaceLocation;
+import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.hibernate.reactive.mutiny.Mutiny;
+
+/**
+ * Reactive counterpart of {@link CoffeePlaceRepository} for the endpoints served by the reactive
+ * data path. Queries are shared through {@link CoffeePlaceQueries}, so both variants hit the same
+ * indexes.
+ */
+@ApplicationScoped
+public class ReactiveCoffeePlaceRepository implements PanacheRepositoryBase<CoffeePlace, UUID> {
+
+  public Uni<List<CoffeePlace>> findPageByUserId(
+      UUID userId, CoffeePlaceFilter filter, CoffeePlaceSort sort, PageCursor after, int limit) {
+    CoffeePlaceQueries.Query query = CoffeePlaceQueries.page(userId, filter, sort, after);
+    return find(query.hql(), sort.toSort(), query.parameters()).range(0, limit - 1).list();
+  }
+
+  public Uni<List<CoffeePlace>> search(
+      UUID userId, String term, CoffeePlaceFilter filter, int limit) {
+    CoffeePlaceQueries.NativeQuery query = CoffeePlaceQueries.search(userId, term, filter, limit);
+    return getSession()
+        .chain(
+            session -> {
+              Mutiny.SelectionQuery<CoffeePlace> nativeQuery =
+                  session.createNativeQuery(query.sql(), CoffeePlace.class);
+              query.parameters().forEach(nativeQuery::setParameter);
+              return nativeQuery.getResultList();
+            });
+  }
+
+  public Uni<List<PlaceLocation>> findLocationsInCells(UUID userId, Set<String> cells) {
+    CoffeePlaceQueries.Query query = CoffeePlaceQueries.locationsInCells(userId, cells);
+    return find(query.hql(), query.parameters()).project(PlaceLocation.class).list();
+  }
+
+  public Uni<List<CoffeePlace>> findByIds(Collection<UUID> ids) {
+    return list("id in ?1", ids);
+  }
+
+  public Uni<String> findListVersion(UUID userId) {
+    return getSession()
+        .chain(
+            session ->
+                session
+                    .createSelectionQuery(
+                        "select count(c), max(c.updatedAt) from CoffeePlace c"
+                            + " where c.userId = :userId",
+                        Object[].class)
+                    .setParameter("userId", userId)
+                    .getSingleResult())
+        .map(row -> row[0] + "@" + row[1]);
+  }
+
+  /** Emits {@code null} when the place does not exist for this user. */
+  public Uni<LocalDateTime> findUpdatedAt(UUID id, UUID userId) {
+    return getSession()
+        .chain(
+            session ->
+                session
+                    .createSelectionQuery(
+                        "select c.updatedAt from CoffeePlace c"
+                            + " where c.id = :id and c.userId = :userId",
+                        LocalDateTime.class)
+                    .setParameter("id", id)
+                    .setParameter("userId", userId)
+                    .getSingleResultOrNull());
+  }
+
+  public Uni<CoffeePlace> findByIdAndUserId(UUID id, UUID userId) {
+    return find("id = ?1 and userId = ?2", id, userId).firstResult();
+  }
+
+  /** Writes the tombstone delta sync reports for a deleted place. */
+  public Uni<Void> recordDeletion(UUID id, UUID userId) {
+    return getSession()
+        .chain(session -> session.persist(new CoffeePlaceDeletion(id, userId)));
+  }
+}
@@ -0,0 +1,93 @@
+package com.beanscore.repository;
+
+import com.beanscore.entity.CoffeePlaceStats;
+import com.beanscore.stats.CoffeePlaceTotals;
+import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Map;
+import java.util.UUID;
+import org.hibernate.reactive.mutiny.Mutiny;
+
+/**
+ * Reactive counterpart of {@link CoffeePlaceStatsRepository#apply}, for the writes of the reactive
+ * data path. Reading and verifying the statistics stays on the blocking repository.
+ */
+@ApplicationScoped
+public class ReactiveCoffeePlaceStatsRepository
+    implements PanacheRepositoryBase<CoffeePlaceStats, UUID> {
+
+  /** Same contract as {@link CoffeePlaceStatsRepository#apply}. */
+  public Uni<Void> apply(UUID userId, CoffeePlaceTotals change) {
+    if (change.isEmpty()) {
+      return Uni.createFrom().voidItem();
+    }
+    Map<String, Object> increment = CoffeePlaceStatsQueries.incrementParameters(userId, change);
+
+    return getSession()
+        .chain(
+            session ->
+                session
+                    .flush()
+                    .chain(() -> execute(session, CoffeePlaceStatsQueries.INCREMENT, increment))
+                    .chain(
+                        updated ->
+                            updated > 0
+                                ? Uni.createFrom().item(true)
+                                : seedOrIncrement(session, userId, increment))
+                    .chain(
+                        incremented ->
+                            incremented
+                                ? incrementMonths(session, userId, change)
+                                : Uni.createFrom().voidItem()));
+  }
+
+  /**
+   * Seeds the missing row, or increments it if another transaction seeded it meanwhile. Emits
+   * whether it incremented, in which case the months still need their increments too.
+   */
+  private Uni<Boolean> seedOrIncrement(
+      Mutiny.Session session, UUID userId, Map<String, Object> increment) {
+    return seed(session, userId)
+        .chain(
+            seeded ->
+                seeded
+                    ? Uni.createFrom().item(false)
+                    : execute(session, CoffeePlaceStatsQueries.INCREMENT, increment)
+                        .replaceWith(true));
+  }
+
+  private Uni<Boolean> seed(Mutiny.Session session, UUID userId) {
+    Map<String, Object> parameters = Map.of("userId", userId);
+    return execute(session, CoffeePlaceStatsQueries.SEED, parameters)
+        .chain(
+            inserted ->
+                inserted == 0
+                    ? Uni.createFrom().item(false)
+                    : execute(session, CoffeePlaceStatsQueries.DELETE_MONTHS, parameters)
+                        .chain(
+                            () ->
+                                execute(session, CoffeePlaceStatsQueries.SEED_MONTHS, parameters))
+                        .replaceWith(true));
+  }
+
+  private Uni<Void> incrementMonths(
+      Mutiny.Session session, UUID userId, CoffeePlaceTotals change) {
+    // One statement at a time: a reactive session cannot run queries concurrently
+    Uni<Integer> months = Uni.createFrom().item(0);
+    for (Map<String, Object> parameters :
+        CoffeePlaceStatsQueries.monthParameters(userId, change)) {
+      months =
+          months.chain(
+              () -> execute(session, CoffeePlaceStatsQueries.INCREMENT_MONTH, parameters));
+    }
+    return months.replaceWithVoid();
+  }
+
+  private static Uni<Integer> execute(
+      Mutiny.Session session, String sql, Map<String, Object> parameters) {
+    Mutiny.Query<Object> query = session.createNativeQuery(sql);
+    parameters.forEach(query::setParameter);
+    return query.executeUpdate();
+  }
+}
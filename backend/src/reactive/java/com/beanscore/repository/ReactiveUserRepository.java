@@ -0,0 +1,16 @@
+package com.beanscore.repository;
+
+import com.beanscore.entity.User;
+import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.UUID;
+
+@ApplicationScoped
+public class ReactiveUserRepository implements PanacheRepositoryBase<User, UUID> {
+
+  /** Whether the account exists and is not pending deletion. */
+  public Uni<Boolean> existsActiveById(UUID id) {
+    return count("id = ?1 and deletedAt is null", id).map(count -> count > 0);
+  }
+}
@@ -0,0 +1,200 @@
+package com.beanscore.resource;
+
+import com.beanscore.dto.request.CoffeePlaceFilter;
+import com.beanscore.dto.request.CoffeePlaceSort;
+import com.beanscore.dto.request.CreateCoffeePlaceRequest;
+import com.beanscore.dto.request.UpdateCoffeePlaceRequest;
+import com.beanscore.service.ReactiveCoffeePlaceService;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import java.util.UUID;
+
+/**
+ * Serves {@code /coffee-places} on the event loop when the application is built with {@code
+ * -Preactive}; it replaces {@link CoffeePlaceResource} with the same paths, parameters, headers
+ * and status codes.
+ */
+@Path("/coffee-places")
+@Produces({MediaType.APPLICATION_JSON, CborMessageBodyWriter.APPLICATION_CBOR})
+@Consumes(MediaType.APPLICATION_JSON)
+public class ReactiveCoffeePlaceResource {
+
+  private static final CacheControl REVALIDATE = revalidate();
+
+  @Inject ReactiveCoffeePlaceService coffeePlaceService;
+
+  @GET
+  @RolesAllowed("user")
+  public Uni<Response> getAllCoffeePlaces(
+      @QueryParam("search") String search,
+      @QueryParam("hasGlutenFree") boolean hasGlutenFree,
+      @QueryParam("hasVegMilk") boolean hasVegMilk,
+      @QueryParam("hasVeganFood") boolean hasVeganFood,
+      @QueryParam("hasSugarFree") boolean hasSugarFree,
+      @QueryParam("minCoffeeQuality") Integer minCoffeeQuality,
+      @QueryParam("sort") @DefaultValue("newest") String sort,
+      @QueryParam("cursor") String cursor,
+      @QueryParam("limit") @DefaultValue("50") int limit,
+      @Context Request request,
+      @Context UriInfo uriInfo) {
+    CoffeePlaceFilter filter =
+        new CoffeePlaceFilter(
+            search, hasGlutenFree, hasVegMilk, hasVeganFood, hasSugarFree, minCoffeeQuality);
+    CoffeePlaceSort order = CoffeePlaceSort.fromParam(sort);
+    MediaType format = WireFormats.select(request);
+
+    return coffeePlaceService
+        .getListVersion()
+        .chain(
+            version -> {
+              EntityTag tag =
+                  EntityTags.weak(version, uriInfo.getRequestUri().getRawQuery(), format);
+              Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+              if (notModified != null) {
+                return Uni.createFrom()
+                    .item(
+                        notModified
+                            .cacheControl(REVALIDATE)
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                            .build());
+              }
+
+              return coffeePlaceService
+                  .getPage(filter, order, cursor, limit)
+                  .map(
+                      page ->
+                          Response.ok(page.items(), format)
+                              .header(CoffeePlaceResource.NEXT_CURSOR_HEADER, page.nextCursor())
+                              .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                              .tag(tag)
+                              .cacheControl(REVALIDATE)
+                              .build());
+            });
+  }
+
+  @GET
+  @Path("/search")
+  @RolesAllowed("user")
+  public Uni<Response> searchCoffeePlaces(
+      @QueryParam("q") String query,
+      @QueryParam("hasGlutenFree") boolean hasGlutenFree,
+      @QueryParam("hasVegMilk") boolean hasVegMilk,
+      @QueryParam("hasVeganFood") boolean hasVeganFood,
+      @QueryParam("hasSugarFree") boolean hasSugarFree,
+      @QueryParam("minCoffeeQuality") Integer minCoffeeQuality,
+      @QueryParam("limit") @DefaultValue("20") int limit) {
+    CoffeePlaceFilter filter =
+        new CoffeePlaceFilter(
+            query, hasGlutenFree, hasVegMilk, hasVeganFood, hasSugarFree, minCoffeeQuality);
+    return coffeePlaceService
+        .search(filter, limit)
+        .map(coffeePlaces -> Response.ok(coffeePlaces).build());
+  }
+
+  @GET
+  @Path("/nearby")
+  @RolesAllowed("user")
+  public Uni<Response> getNearbyCoffeePlaces(
+      @QueryParam("lat") Double latitude,
+      @QueryParam("lng") Double longitude,
+      @QueryParam("radiusKm") @DefaultValue("5") double radiusKm,
+      @QueryParam("limit") @DefaultValue("20") int limit) {
+    if (latitude == null || longitude == null) {
+      throw new BadRequestException("lat and lng are required");
+    }
+    return coffeePlaceService
+        .getNearby(latitude, longitude, radiusKm, limit)
+        .map(coffeePlaces -> Response.ok(coffeePlaces).build());
+  }
+
+  @GET
+  @Path("/{id}")
+  @RolesAllowed("user")
+  public Uni<Response> getCoffeePlaceById(@PathParam("id") UUID id, @Context Request request) {
+    MediaType format = WireFormats.select(request);
+    return coffeePlaceService
+        .getVersion(id)
+        .chain(
+            version -> {
+              EntityTag tag = EntityTags.weak(id, version, format);
+              Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+              if (notModified != null) {
+                return Uni.createFrom()
+                    .item(
+                        notModified
+                            .cacheControl(REVALIDATE)
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                            .build());
+              }
+
+              return coffeePlaceService
+                  .getById(id)
+                  .map(
+                      coffeePlace ->
+                          Response.ok(coffeePlace, format)
+                              .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                              .tag(tag)
+                              .cacheControl(REVALIDATE)
+                              .build());
+            });
+  }
+
+  @POST
+  public Uni<Response> createCoffeePlace(@Valid CreateCoffeePlaceRequest request) {
+    return coffeePlaceService
+        .create(request)
+        .map(
+            coffeePlace ->
+                Response.status(Response.Status.CREATED).entity(coffeePlace).build());
+  }
+
+  @PUT
+  @Path("/{id}")
+  @RolesAllowed("user")
+  public Uni<Response> updateCoffeePlace(
+      @PathParam("id") UUID id, @Valid UpdateCoffeePlaceRequest request) {
+    return coffeePlaceService
+        .update(id, request)
+        .map(coffeePlace -> Response.ok(coffeePlace).build());
+  }
+
+  @DELETE
+  @Path("/{id}")
+  @RolesAllowed("user")
+  public Uni<Response> deleteCoffeePlace(@PathParam("id") UUID id) {
+    return coffeePlaceService
+        .delete(id)
+        .call(() -> coffeePlaceService.deletePhotos(id))
+        .map(ignored -> Response.noContent().build());
+  }
+
+  private static CacheControl revalidate() {
+    CacheControl cacheControl = new CacheControl();
+    cacheControl.setPrivate(true);
+    cacheControl.setNoCache(true);
+    // Set by default; left out so the header stays "private, no-cache"
+    cacheControl.setNoTransform(false);
+    return cacheControl;
+  }
+}
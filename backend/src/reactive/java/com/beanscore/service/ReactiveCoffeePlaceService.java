@@ -0,0 +1,215 @@
+package com.beanscore.service;
+
+import com.beanscore.dto.request.CoffeePlaceFilter;
+import com.beanscore.dto.request.CoffeePlaceSort;
+import com.beanscore.dto.request.CreateCoffeePlaceRequest;
+import com.beanscore.dto.request.PageCursor;
+import com.beanscore.dto.request.UpdateCoffeePlaceRequest;
+import com.beanscore.dto.response.CoffeePlacePage;
+import com.beanscore.dto.response.CoffeePlaceResponse;
+import com.beanscore.dto.response.NearbyCoffeePlaceResponse;
+import com.beanscore.entity.CoffeePlace;
+import com.beanscore.geo.GeoHash;
+import com.beanscore.repository.ReactiveCoffeePlaceRepository;
+import com.beanscore.repository.ReactiveCoffeePlaceStatsRepository;
+import com.beanscore.repository.ReactiveUserRepository;
+import com.beanscore.security.LiveUserCache;
+import com.beanscore.stats.CoffeePlaceTotals;
+import com.beanscore.storage.PhotoStore;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.NotFoundException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+/**
+ * Coffee place CRUD and listing on the event loop through Hibernate Reactive. Validation, paging
+ * and mapping are the ones {@link CoffeePlaceService} uses; only the data access differs.
+ */
+@ApplicationScoped
+public class ReactiveCoffeePlaceService {
+
+  private static final Logger logger =
+      Logger.getLogger(ReactiveCoffeePlaceService.class.getName());
+
+  @Inject ReactiveCoffeePlaceRepository coffeePlaceRepository;
+
+  @Inject ReactiveCoffeePlaceStatsRepository coffeePlaceStatsRepository;
+
+  @Inject ReactiveUserRepository userRepository;
+
+  @Inject LiveUserCache liveUserCache;
+
+  @Inject PhotoStore photoStore;
+
+  @Inject JsonWebToken jwt;
+
+  @WithTransaction
+  public Uni<CoffeePlaceResponse> create(CreateCoffeePlaceRequest request) {
+    return currentUserId()
+        .chain(
+            userId ->
+                coffeePlaceRepository.persist(CoffeePlaceService.newCoffeePlace(userId, request)))
+        .call(
+            coffeePlace ->
+                coffeePlaceStatsRepository.apply(
+                    coffeePlace.userId, new CoffeePlaceTotals().add(coffeePlace)))
+        .map(CoffeePlaceService::mapToCoffeePlaceResponse);
+  }
+
+  @WithSession
+  public Uni<CoffeePlacePage> getPage(
+      CoffeePlaceFilter filter, CoffeePlaceSort sort, String cursor, int limit) {
+    PageCursor after = CoffeePlaceService.validatePage(filter, sort, cursor, limit);
+
+    return currentUserId()
+        .chain(
+            userId -> {
+              logger.fine("Getting coffee places page for user id: " + userId);
+              // One extra row tells us whether another page exists without a count query
+              return coffeePlaceRepository.findPageByUserId(userId, filter, sort, after, limit + 1);
+            })
+        .map(coffeePlaces -> CoffeePlaceService.toPage(coffeePlaces, sort, limit));
+  }
+
+  @WithSession
+  public Uni<List<CoffeePlaceResponse>> search(CoffeePlaceFilter filter, int limit) {
+    CoffeePlaceService.validateSearch(filter, limit);
+
+    return currentUserId()
+        .chain(userId -> coffeePlaceRepository.search(userId, filter.search(), filter, limit))
+        .map(
+            coffeePlaces ->
+                coffeePlaces.stream()
+                    .map(CoffeePlaceService::mapToCoffeePlaceResponse)
+                    .collect(Collectors.toList()));
+  }
+
+  @WithSession
+  public Uni<List<NearbyCoffeePlaceResponse>> getNearby(
+      double latitude, double longitude, double radiusKm, int limit) {
+    CoffeePlaceService.validateNearby(latitude, longitude, radiusKm, limit);
+
+    Set<String> cells = GeoHash.coveringCells(latitude, longitude, radiusKm);
+    return currentUserId()
+        .chain(userId -> coffeePlaceRepository.findLocationsInCells(userId, cells))
+        .map(
+            locations ->
+                CoffeePlaceService.rankByDistance(locations, latitude, longitude, radiusKm, limit))
+        .chain(
+            distances -> {
+              if (distances.isEmpty()) {
+                return Uni.createFrom().item(List.of());
+              }
+              return coffeePlaceRepository
+                  .findByIds(distances.keySet())
+                  .map(coffeePlaces -> CoffeePlaceService.toNearby(distances, coffeePlaces));
+            });
+  }
+
+  @WithSession
+  public Uni<String> getListVersion() {
+    return currentUserId().chain(coffeePlaceRepository::findListVersion);
+  }
+
+  @WithSession
+  public Uni<String> getVersion(UUID id) {
+    return currentUserId()
+        .chain(userId -> coffeePlaceRepository.findUpdatedAt(id, userId))
+        .onItem()
+        .ifNull()
+        .failWith(() -> new NotFoundException("Coffee place not found"))
+        .map(Object::toString);
+  }
+
+  @WithSession
+  public Uni<CoffeePlaceResponse> getById(UUID id) {
+    return findOwned(id).map(CoffeePlaceService::mapToCoffeePlaceResponse);
+  }
+
+  @WithTransaction
+  public Uni<CoffeePlaceResponse> update(UUID id, UpdateCoffeePlaceRequest request) {
+    return findOwned(id)
+        .call(
+            coffeePlace -> {
+              CoffeePlaceTotals change = new CoffeePlaceTotals().remove(coffeePlace);
+              CoffeePlaceService.applyUpdate(coffeePlace, request);
+              return coffeePlaceStatsRepository.apply(coffeePlace.userId, change.add(coffeePlace));
+            })
+        .map(CoffeePlaceService::mapToCoffeePlaceResponse);
+  }
+
+  /** Deletes the place; its photos are removed by {@link #deletePhotos(UUID)} after commit. */
+  @WithTransaction
+  public Uni<Void> delete(UUID id) {
+    // Loaded rather than deleted by query: the statistics need the ratings it had
+    return currentUserId()
+        .chain(userId -> coffeePlaceRepository.findByIdAndUserId(id, userId))
+        .onItem()
+        .ifNull()
+        .failWith(
+            () -> {
+              logger.warning("Coffee place with id: " + id + " not found for deletion");
+              return new NotFoundException("Coffee place not found");
+            })
+        .call(coffeePlaceRepository::delete)
+        .call(coffeePlace -> coffeePlaceRepository.recordDeletion(id, coffeePlace.userId))
+        .chain(
+            coffeePlace ->
+                coffeePlaceStatsRepository.apply(
+                    coffeePlace.userId, new CoffeePlaceTotals().remove(coffeePlace)));
+  }
+
+  /**
+   * Removes stored photos off the event loop: the photo store does blocking file or JDBC I/O. The
+   * database store's row is already gone through its cascading foreign key.
+   */
+  public Uni<Void> deletePhotos(UUID id) {
+    return Uni.createFrom()
+        .item(
+            () -> {
+              QuarkusTransaction.requiringNew().run(() -> photoStore.delete(id));
+              return id;
+            })
+        .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+        .replaceWithVoid();
+  }
+
+  private Uni<CoffeePlace> findOwned(UUID id) {
+    return currentUserId()
+        .chain(userId -> coffeePlaceRepository.findByIdAndUserId(id, userId))
+        .onItem()
+        .ifNull()
+        .failWith(() -> new NotFoundException("Coffee place not found"));
+  }
+
+  /** Same contract as {@link JwtService#getCurrentUserId()}, without blocking on a miss. */
+  private Uni<UUID> currentUserId() {
+    UUID userId = UUID.fromString(jwt.getSubject());
+
+    if (liveUserCache.isKnownLive(userId)) {
+      return Uni.createFrom().item(userId);
+    }
+
+    return userRepository
+        .existsActiveById(userId)
+        .map(
+            exists -> {
+              if (!exists) {
+                throw new NotAuthorizedException("User account no longer exists");
+              }
+              liveUserCache.markLive(userId);
+              return userId;
+            });
+  }
+}
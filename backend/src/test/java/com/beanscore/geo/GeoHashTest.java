@@ -0,0 +1,45 @@
+package com.beanscore.geo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class GeoHashTest {
+
+  @Test
+  void encodesKnownLocations() {
+    assertEquals("ezs42", GeoHash.encode(42.605, -5.603, 5));
+    assertEquals("u4pruydqq", GeoHash.encode(57.64911, 10.40744, 9));
+  }
+
+  @Test
+  void coveringCellsContainEveryPointWithinRadius() {
+    double lat = -23.5505;
+    double lng = -46.6333;
+    double radiusKm = 3;
+    Set<String> cells = GeoHash.coveringCells(lat, lng, radiusKm);
+    int precision = cells.iterator().next().length();
+
+    for (int bearing = 0; bearing < 360; bearing += 15) {
+      double dLat = (radiusKm * 0.99 / 111.32) * Math.cos(Math.toRadians(bearing));
+      double dLng =
+          (radiusKm * 0.99 / (111.32 * Math.cos(Math.toRadians(lat))))
+              * Math.sin(Math.toRadians(bearing));
+      String cell = GeoHash.encode(lat + dLat, lng + dLng, precision);
+      assertTrue(cells.contains(cell), "Point at bearing " + bearing + " fell outside " + cells);
+    }
+  }
+
+  @Test
+  void oversizedRadiusDisablesCellFiltering() {
+    assertTrue(GeoHash.coveringCells(0, 0, 10_000).isEmpty());
+  }
+
+  @Test
+  void measuresGreatCircleDistance() {
+    double km = GeoHash.distanceKm(-23.5505, -46.6333, -22.9068, -43.1729);
+    assertEquals(361, km, 5);
+  }
+}
@@ -0,0 +1,129 @@
+package com.beanscore.lifecycle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.beanscore.entity.CoffeePlace;
+import com.beanscore.entity.PhotoStatus;
+import com.beanscore.entity.User;
+import com.beanscore.repository.CoffeePlaceRepository;
+import com.beanscore.repository.UserRepository;
+import com.beanscore.storage.ImageResizer;
+import com.beanscore.storage.PhotoStore;
+import com.beanscore.storage.PhotoVariant;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class PhotoProcessingRecoveryTest {
+
+  @Inject UserRepository userRepository;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  @Inject PhotoStore photoStore;
+
+  @Inject PhotoProcessingRecovery recovery;
+
+  UUID userId;
+
+  @BeforeEach
+  void setUp() {
+    userId =
+        QuarkusTransaction.requiringNew()
+            .call(
+                () -> {
+                  User user = new User();
+                  user.email = "recovery-" + UUID.randomUUID() + "@beanscore.com";
+                  user.name = "Recovery Tester";
+                  user.password = "not-a-real-hash";
+                  userRepository.persist(user);
+                  return user.id;
+                });
+  }
+
+  @Test
+  void photosLeftProcessingByARestartAreFinished() throws IOException {
+    byte[] original =
+        ImageResizer.encode(new BufferedImage(1200, 900, BufferedImage.TYPE_INT_RGB), "image/jpeg");
+    LocalDateTime uploadedAt = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MICROS);
+    UUID stuck = persistProcessingPlace(uploadedAt, original);
+
+    recovery.resume(LocalDateTime.now());
+
+    CoffeePlace place = find(stuck);
+    assertEquals(PhotoStatus.READY, place.photoStatus);
+    assertNotNull(place.photoFullHash);
+    assertTrue(
+        QuarkusTransaction.requiringNew()
+            .call(() -> photoStore.read(stuck, uploadedAt, PhotoVariant.MEDIUM))
+            .isPresent());
+  }
+
+  @Test
+  void photosThatCannotBeFinishedAreMarkedFailed() {
+    LocalDateTime uploadedAt = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MICROS);
+    UUID missingOriginal = persistProcessingPlace(uploadedAt, null);
+
+    recovery.resume(LocalDateTime.now());
+
+    assertEquals(PhotoStatus.FAILED, find(missingOriginal).photoStatus);
+  }
+
+  @Test
+  void photosUploadedAfterStartupAreLeftToTheQueue() {
+    LocalDateTime startedAt = LocalDateTime.now().minusMinutes(5);
+    UUID queued = persistProcessingPlace(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), null);
+
+    recovery.resume(startedAt);
+
+    CoffeePlace place = find(queued);
+    assertEquals(PhotoStatus.PROCESSING, place.photoStatus);
+    assertNull(place.photoFullHash);
+  }
+
+  private UUID persistProcessingPlace(LocalDateTime uploadedAt, byte[] original) {
+    return QuarkusTransaction.requiringNew()
+        .call(
+            () -> {
+              CoffeePlace coffeePlace = new CoffeePlace();
+              coffeePlace.userId = userId;
+              coffeePlace.name = "Interrupted Roasters";
+              coffeePlace.address = "1 Restart Street";
+              coffeePlace.coffeeQuality = 4;
+              coffeePlace.ambient = 4;
+              coffeePlace.photoContentType = "image/jpeg";
+              coffeePlace.photoUpdatedAt = uploadedAt;
+              coffeePlace.photoStatus = PhotoStatus.PROCESSING;
+              coffeePlaceRepository.persist(coffeePlace);
+              if (original != null) {
+                try {
+                  photoStore.write(
+                      coffeePlace.id,
+                      uploadedAt,
+                      PhotoVariant.ORIGINAL,
+                      new ByteArrayInputStream(original));
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              }
+              return coffeePlace.id;
+            });
+  }
+
+  private CoffeePlace find(UUID id) {
+    return QuarkusTransaction.requiringNew().call(() -> coffeePlaceRepository.findById(id));
+  }
+}
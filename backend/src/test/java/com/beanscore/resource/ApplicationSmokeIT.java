@@ -3,6 +3,6 @@ package com.beanscore.resource;
 import io.quarkus.test.junit.QuarkusIntegrationTest;
 
 @QuarkusIntegrationTest
-class GreetingResourceIT extends GreetingResourceTest {
+class ApplicationSmokeIT extends ApplicationSmokeTest {
     // Execute the same tests but in packaged mode.
 }
@@ -0,0 +1,28 @@
+package com.beanscore.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+@QuarkusTest
+class ApplicationSmokeTest {
+    @Test
+    void testLivenessIsUp() {
+        given()
+          .when().get("/q/health/live")
+          .then()
+             .statusCode(200)
+             .body("status", is("UP"));
+    }
+
+    @Test
+    void testCoffeePlacesRequireToken() {
+        given()
+          .when().get("/coffee-places")
+          .then()
+             .statusCode(401);
+    }
+
+}
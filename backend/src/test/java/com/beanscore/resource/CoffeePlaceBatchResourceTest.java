@@ -0,0 +1,203 @@
+package com.beanscore.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.beanscore.entity.CoffeePlaceDeletion;
+import com.beanscore.entity.User;
+import com.beanscore.repository.CoffeePlaceDeletionRepository;
+import com.beanscore.repository.UserRepository;
+import com.beanscore.service.CoffeePlaceService;
+import com.beanscore.service.JwtService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class CoffeePlaceBatchResourceTest {
+
+  @Inject UserRepository userRepository;
+
+  @Inject CoffeePlaceDeletionRepository coffeePlaceDeletionRepository;
+
+  @Inject JwtService jwtService;
+
+  String token;
+
+  UUID userId;
+
+  @BeforeEach
+  void setUp() {
+    User user = newUser();
+    token = jwtService.generateToken(user);
+    userId = user.id;
+  }
+
+  @Test
+  void appliesMixedOperationsAndReportsEachOutcome() {
+    String kept = createPlace(token, "Kept Roasters", 4);
+    String removed = createPlace(token, "Removed Roasters", 2);
+    String othersPlace = createPlace(jwtService.generateToken(newUser()), "Not Yours", 3);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(
+            "["
+                + String.join(
+                    ",",
+                    "{\"op\": \"create\", \"place\": " + place("Created Roasters", 5) + "}",
+                    "{\"op\": \"update\", \"id\": \"" + kept + "\", \"place\": "
+                        + place("Renamed Roasters", 4) + "}",
+                    "{\"op\": \"delete\", \"id\": \"" + removed + "\"}",
+                    "{\"op\": \"update\", \"id\": \"" + othersPlace + "\", \"place\": "
+                        + place("Stolen", 1) + "}",
+                    "{\"op\": \"delete\", \"id\": \"" + UUID.randomUUID() + "\"}",
+                    "{\"op\": \"rename\", \"id\": \"" + kept + "\"}",
+                    "{\"op\": \"create\"}")
+                + "]")
+        .when()
+        .post("/coffee-places/batch")
+        .then()
+        .statusCode(200)
+        .body("index", is(List.of(0, 1, 2, 3, 4, 5, 6)))
+        .body("status", is(List.of(201, 200, 204, 404, 404, 400, 400)))
+        .body("[0].place.name", is("Created Roasters"))
+        .body("[1].place.name", is("Renamed Roasters"))
+        .body("[2].place", nullValue())
+        .body("[3].error", is("Coffee place not found"))
+        .body("[5].error", containsString("Unknown op 'rename'"))
+        .body("[6].error", is("place is required"));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .get("/coffee-places")
+        .then()
+        .statusCode(200)
+        .body("name", containsInAnyOrder("Created Roasters", "Renamed Roasters"));
+  }
+
+  @Test
+  void deletesLeaveTombstonesAndUpdateStats() {
+    String removed = createPlace(token, "Five Star", 5);
+    createPlace(token, "Three Star", 3);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body("[{\"op\": \"delete\", \"id\": \"" + removed + "\"}]")
+        .when()
+        .post("/coffee-places/batch")
+        .then()
+        .statusCode(200)
+        .body("status", is(List.of(204)));
+
+    CoffeePlaceDeletion tombstone =
+        QuarkusTransaction.requiringNew()
+            .call(() -> coffeePlaceDeletionRepository.findById(UUID.fromString(removed)));
+    assertEquals(userId, tombstone.userId);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .get("/coffee-places/stats")
+        .then()
+        .statusCode(200)
+        .body("placeCount", is(1))
+        .body("averageCoffeeQuality", is(3.0f))
+        .body("coffeeQualityHistogram.'5'", is(0))
+        .body("coffeeQualityHistogram.'3'", is(1));
+  }
+
+  @Test
+  void acceptsBetweenOneAndTheMaximumNumberOfOperations() {
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body("[]")
+        .when()
+        .post("/coffee-places/batch")
+        .then()
+        .statusCode(400);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(creates(CoffeePlaceService.MAX_BATCH_OPERATIONS + 1))
+        .when()
+        .post("/coffee-places/batch")
+        .then()
+        .statusCode(400)
+        .body("message", containsString(String.valueOf(CoffeePlaceService.MAX_BATCH_OPERATIONS)));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(creates(CoffeePlaceService.MAX_BATCH_OPERATIONS))
+        .when()
+        .post("/coffee-places/batch")
+        .then()
+        .statusCode(200)
+        .body("size()", is(CoffeePlaceService.MAX_BATCH_OPERATIONS))
+        .body("status.unique()", is(List.of(201)));
+  }
+
+  private static String creates(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> "{\"op\": \"create\", \"place\": " + place("Bulk " + i, 3) + "}")
+        .collect(Collectors.joining(",", "[", "]"));
+  }
+
+  private User newUser() {
+    return QuarkusTransaction.requiringNew()
+        .call(
+            () -> {
+              User user = new User();
+              user.email = "batch-" + UUID.randomUUID() + "@beanscore.com";
+              user.name = "Batch Tester";
+              user.password = "not-a-real-hash";
+              userRepository.persist(user);
+              return user;
+            });
+  }
+
+  private static String place(String name, int coffeeQuality) {
+    return """
+        {"name": "%s", "address": "1 Batch Street", "coffeeQuality": %d, "ambient": 3}\
+        """
+        .formatted(name, coffeeQuality);
+  }
+
+  private static String createPlace(String token, String name, int coffeeQuality) {
+    return given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(place(name, coffeeQuality))
+        .when()
+        .post("/coffee-places")
+        .then()
+        .statusCode(201)
+        .extract()
+        .path("id");
+  }
+}
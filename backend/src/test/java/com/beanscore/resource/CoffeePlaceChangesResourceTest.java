@@ -0,0 +1,172 @@
+package com.beanscore.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.beanscore.dto.request.ChangesCursor;
+import com.beanscore.entity.CoffeePlaceDeletion;
+import com.beanscore.entity.User;
+import com.beanscore.repository.CoffeePlaceDeletionRepository;
+import com.beanscore.repository.UserRepository;
+import com.beanscore.service.CoffeePlaceChangesService;
+import com.beanscore.service.JwtService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class CoffeePlaceChangesResourceTest {
+
+  @Inject UserRepository userRepository;
+
+  @Inject CoffeePlaceDeletionRepository coffeePlaceDeletionRepository;
+
+  @Inject JwtService jwtService;
+
+  String token;
+
+  UUID userId;
+
+  @BeforeEach
+  void setUp() {
+    User user = newUser();
+    token = jwtService.generateToken(user);
+    userId = user.id;
+  }
+
+  @Test
+  void pagesThroughChangesWithTheCursor() {
+    createPlace("First Roasters");
+    createPlace("Second Roasters");
+    createPlace("Third Roasters");
+
+    JsonPath first =
+        changes(token, null, 2)
+            .statusCode(200)
+            .header("Vary", containsString("Accept"))
+            .extract()
+            .jsonPath();
+    List<String> firstPage = first.getList("places.name");
+    assertEquals(2, firstPage.size());
+    assertTrue(first.getBoolean("hasMore"));
+    assertTrue(first.getList("deleted").isEmpty());
+
+    JsonPath second =
+        changes(token, first.getString("cursor"), 2).statusCode(200).extract().jsonPath();
+    List<String> secondPage = second.getList("places.name");
+    assertEquals(1, secondPage.size());
+    assertFalse(second.getBoolean("hasMore"));
+    assertFalse(firstPage.contains(secondPage.get(0)));
+  }
+
+  @Test
+  void reportsPlacesDeletedSinceTheCursor() {
+    createPlace("Kept Roasters");
+    String removed = createPlace("Removed Roasters");
+    String cursor = changes(token, null, 200).statusCode(200).extract().path("cursor");
+
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .delete("/coffee-places/" + removed)
+        .then()
+        .statusCode(204);
+
+    changes(token, cursor, 200)
+        .statusCode(200)
+        .body("deleted", is(List.of(removed)))
+        .body("hasMore", is(false));
+
+    String otherToken = jwtService.generateToken(newUser());
+    changes(otherToken, cursor, 200).statusCode(200).body("deleted", empty());
+  }
+
+  @Test
+  void cursorOlderThanTheDeletionHistoryIsGone() {
+    String expired = ChangesCursor.from(LocalDateTime.now().minusDays(31)).encode();
+
+    changes(token, expired, 200).statusCode(410).body("message", containsString("without one"));
+  }
+
+  @Test
+  void cursorWithMoreDeletesThanOneResponseCarriesIsGone() {
+    String cursor = changes(token, null, 200).statusCode(200).extract().path("cursor");
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              for (int i = 0; i <= CoffeePlaceChangesService.MAX_TOMBSTONES; i++) {
+                coffeePlaceDeletionRepository.persist(
+                    new CoffeePlaceDeletion(UUID.randomUUID(), userId));
+              }
+            });
+
+    changes(token, cursor, 200)
+        .statusCode(410)
+        .body("message", containsString(String.valueOf(CoffeePlaceChangesService.MAX_TOMBSTONES)));
+  }
+
+  @Test
+  void malformedCursorIsRejected() {
+    changes(token, "not-a-cursor", 200).statusCode(400).body("message", is("Invalid cursor"));
+
+    String badTimestamp =
+        Base64.getUrlEncoder()
+            .encodeToString("changes|yesterday||".getBytes(StandardCharsets.UTF_8));
+    changes(token, badTimestamp, 200).statusCode(400).body("message", is("Invalid cursor"));
+  }
+
+  private static ValidatableResponse changes(String token, String cursor, int limit) {
+    var request = given().auth().oauth2(token).queryParam("limit", limit);
+    if (cursor != null) {
+      request.queryParam("since", cursor);
+    }
+    return request.when().get("/coffee-places/changes").then();
+  }
+
+  private User newUser() {
+    return QuarkusTransaction.requiringNew()
+        .call(
+            () -> {
+              User user = new User();
+              user.email = "changes-" + UUID.randomUUID() + "@beanscore.com";
+              user.name = "Changes Tester";
+              user.password = "not-a-real-hash";
+              userRepository.persist(user);
+              return user;
+            });
+  }
+
+  private String createPlace(String name) {
+    return given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(
+            """
+            {"name": "%s", "address": "1 Sync Street", "coffeeQuality": 4, "ambient": 3}
+            """
+                .formatted(name))
+        .when()
+        .post("/coffee-places")
+        .then()
+        .statusCode(201)
+        .extract()
+        .path("id");
+  }
+}
@@ -0,0 +1,617 @@
+package com.beanscore.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.beanscore.entity.CoffeePlace;
+import com.beanscore.entity.CoffeePlacePhoto;
+import com.beanscore.entity.User;
+import com.beanscore.repository.CoffeePlacePhotoRepository;
+import com.beanscore.repository.CoffeePlaceRepository;
+import com.beanscore.repository.UserRepository;
+import com.beanscore.service.AccountPurgeService;
+import com.beanscore.service.CoffeePlaceService;
+import com.beanscore.service.JwtService;
+import com.beanscore.storage.ContentHash;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class CoffeePlaceResourceTest {
+
+  @Inject UserRepository userRepository;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  @Inject CoffeePlacePhotoRepository coffeePlacePhotoRepository;
+
+  @Inject JwtService jwtService;
+
+  @Inject AccountPurgeService accountPurgeService;
+
+  @Inject SessionFactory sessionFactory;
+
+  String token;
+
+  UUID placeId;
+
+  UUID userId;
+
+  @BeforeEach
+  void setUp() {
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              User user = new User();
+              user.email = "photos-" + UUID.randomUUID() + "@beanscore.com";
+              user.name = "Photo Tester";
+              user.password = "not-a-real-hash";
+              userRepository.persist(user);
+
+              CoffeePlace coffeePlace = new CoffeePlace();
+              coffeePlace.userId = user.id;
+              coffeePlace.name = "Blob Roasters";
+              coffeePlace.address = "1 Bytea Street";
+              coffeePlace.coffeeQuality = 5;
+              coffeePlace.ambient = 4;
+              coffeePlace.photoContentType = "image/jpeg";
+              coffeePlaceRepository.persist(coffeePlace);
+
+              CoffeePlacePhoto photo = new CoffeePlacePhoto();
+              photo.coffeePlaceId = coffeePlace.id;
+              photo.photo = new byte[256 * 1024];
+              photo.photoThumbnail = new byte[16 * 1024];
+              coffeePlacePhotoRepository.persist(photo);
+
+              token = jwtService.generateToken(user);
+              placeId = coffeePlace.id;
+              userId = user.id;
+            });
+
+    sessionFactory.getStatistics().clear();
+  }
+
+  @Test
+  void listingPlacesDoesNotReadPhotoBytes() {
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .get("/coffee-places")
+        .then()
+        .statusCode(200)
+        .body("[0].hasPhoto", is(true));
+
+    assertPhotoBytesNotRead();
+  }
+
+  @Test
+  void listingPlacesPagesThroughKeysetCursor() {
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              UUID userId = coffeePlaceRepository.findById(placeId).userId;
+              for (int i = 0; i < 2; i++) {
+                CoffeePlace coffeePlace = new CoffeePlace();
+                coffeePlace.userId = userId;
+                coffeePlace.name = "Page Roasters " + i;
+                coffeePlace.address = i + " Cursor Lane";
+                coffeePlace.coffeeQuality = 3;
+                coffeePlace.ambient = 3;
+                coffeePlaceRepository.persist(coffeePlace);
+              }
+            });
+
+    Set<String> seen = new HashSet<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      var request = given().auth().oauth2(token).queryParam("limit", 2);
+      if (cursor != null) {
+        request.queryParam("cursor", cursor);
+      }
+      var response = request.when().get("/coffee-places").then().statusCode(200).extract();
+      List<String> ids = response.jsonPath().getList("id");
+      assertTrue(ids.size() <= 2, "Page exceeded the requested limit");
+      ids.forEach(id -> assertTrue(seen.add(id), "Place " + id + " returned twice"));
+      cursor = response.header(CoffeePlaceResource.NEXT_CURSOR_HEADER);
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(3, seen.size());
+    assertEquals(2, pages);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .queryParam("minCoffeeQuality", 5)
+        .when()
+        .get("/coffee-places")
+        .then()
+        .statusCode(200)
+        .body("size()", is(1))
+        .body("[0].name", is("Blob Roasters"));
+  }
+
+  @Test
+  void unchangedListIsNotModified() {
+    String etag =
+        given()
+            .auth()
+            .oauth2(token)
+            .when()
+            .get("/coffee-places")
+            .then()
+            .statusCode(200)
+            .extract()
+            .header("ETag");
+    // Compressed and identity bodies differ byte for byte, so the tag is weak
+    assertTrue(etag.startsWith("W/"), "Expected a weak ETag but got " + etag);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .header("If-None-Match", etag)
+        .when()
+        .get("/coffee-places")
+        .then()
+        .statusCode(304);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .header("Accept-Encoding", "identity")
+        .header("If-None-Match", etag)
+        .when()
+        .get("/coffee-places")
+        .then()
+        .statusCode(304);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(
+            """
+            {"name": "Renamed", "address": "1 Bytea Street", "coffeeQuality": 5, "ambient": 4}
+            """)
+        .when()
+        .put("/coffee-places/" + placeId)
+        .then()
+        .statusCode(200);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .header("If-None-Match", etag)
+        .when()
+        .get("/coffee-places")
+        .then()
+        .statusCode(200)
+        .body("[0].name", is("Renamed"));
+  }
+
+  @Test
+  void listingAsCborHasTheJsonFields() throws IOException {
+    var json =
+        given().auth().oauth2(token).when().get("/coffee-places").then().statusCode(200).extract();
+    var cbor =
+        given()
+            .auth()
+            .oauth2(token)
+            .accept(CborMessageBodyWriter.APPLICATION_CBOR)
+            .when()
+            .get("/coffee-places")
+            .then()
+            .statusCode(200)
+            .contentType(CborMessageBodyWriter.APPLICATION_CBOR)
+            .header("Vary", containsString("Accept"))
+            .extract();
+
+    assertEquals(
+        new ObjectMapper().readTree(json.asByteArray()),
+        new CBORMapper().readTree(cbor.asByteArray()));
+    assertNotEquals(json.header("ETag"), cbor.header("ETag"));
+  }
+
+  @Test
+  void thumbnailsOfSeveralPlacesComeInOneBundle() throws IOException {
+    byte[] bundle =
+        given()
+            .auth()
+            .oauth2(token)
+            .contentType(ContentType.JSON)
+            .body(List.of(placeId, UUID.randomUUID()))
+            .when()
+            .post("/coffee-places/thumbnails")
+            .then()
+            .statusCode(200)
+            .contentType(CoffeePlaceThumbnailResource.APPLICATION_PHOTO_BUNDLE)
+            .extract()
+            .asByteArray();
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bundle));
+    assertEquals(placeId.toString(), new String(in.readNBytes(36), StandardCharsets.US_ASCII));
+    assertEquals(
+        "image/jpeg",
+        new String(in.readNBytes(in.readUnsignedByte()), StandardCharsets.US_ASCII));
+    assertEquals(16 * 1024, in.readInt());
+    in.skipNBytes(16 * 1024);
+    // The unknown id is left out
+    assertEquals(-1, in.read());
+  }
+
+  @Test
+  void photoUrlsWithTheContentHashAreImmutable() {
+    String hash = ContentHash.of(new byte[16 * 1024]);
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              CoffeePlace coffeePlace = coffeePlaceRepository.findById(placeId);
+              coffeePlace.photoThumbnailHash = hash;
+              coffeePlace.photoMediumHash = hash;
+              coffeePlace.photoFullHash = hash;
+            });
+
+    String thumbnailUrl =
+        given()
+            .auth()
+            .oauth2(token)
+            .when()
+            .get("/coffee-places/" + placeId)
+            .then()
+            .statusCode(200)
+            .extract()
+            .path("photoUrls.thumbnail");
+    assertEquals("/coffee-places/" + placeId + "/photo/thumbnail/" + hash, thumbnailUrl);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .get(thumbnailUrl)
+        .then()
+        .statusCode(200)
+        .header("Cache-Control", "private, max-age=31536000, immutable");
+
+    // A stale hash still gets the current image, but revalidated as usual
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .get("/coffee-places/" + placeId + "/photo/thumbnail/" + ContentHash.of(new byte[1]))
+        .then()
+        .statusCode(200)
+        .header("Cache-Control", "max-age=3600");
+  }
+
+  @Test
+  void photoETagChangesWithTheServedRendition() {
+    String etag =
+        given()
+            .auth()
+            .oauth2(token)
+            .when()
+            .get("/coffee-places/" + placeId + "/photo/medium")
+            .then()
+            .statusCode(200)
+            .extract()
+            .header("ETag");
+
+    // What processing does once a rendition is written: same upload version, same status
+    QuarkusTransaction.requiringNew()
+        .run(
+            () ->
+                coffeePlaceRepository.findById(placeId).photoMediumHash =
+                    ContentHash.of(new byte[] {1}));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .header("If-None-Match", etag)
+        .when()
+        .get("/coffee-places/" + placeId + "/photo/medium")
+        .then()
+        .statusCode(200);
+  }
+
+  @Test
+  void nearbyPlacesAreWithinTheRadiusClosestFirst() {
+    createPlace("Far Roasters", -30.0346 + 0.04, -51.2177);
+    createPlace("Here Roasters", -30.0346, -51.2177);
+    createPlace("Out Of Town Roasters", -30.0346 + 0.5, -51.2177);
+    createPlace("Near Roasters", -30.0346 + 0.01, -51.2177);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .queryParam("lat", -30.0346)
+        .queryParam("lng", -51.2177)
+        .queryParam("radiusKm", 5)
+        .when()
+        .get("/coffee-places/nearby")
+        .then()
+        .statusCode(200)
+        .body("place.name", contains("Here Roasters", "Near Roasters", "Far Roasters"))
+        .body("[0].distanceKm", closeTo(0, 0.01))
+        .body("[1].distanceKm", closeTo(1.11, 0.05))
+        .body("[2].distanceKm", closeTo(4.45, 0.05));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .queryParam("lat", -30.0346)
+        .queryParam("lng", -51.2177)
+        .queryParam("radiusKm", 2)
+        .queryParam("limit", 1)
+        .when()
+        .get("/coffee-places/nearby")
+        .then()
+        .statusCode(200)
+        .body("place.name", contains("Here Roasters"));
+  }
+
+  @Test
+  void nearbyRejectsMissingOrOutOfRangeParameters() {
+    String[][] invalid = {
+      {"lng", "-51.2177"},
+      {"lat", "-30.0346"},
+      {"lat", "90.5", "lng", "-51.2177"},
+      {"lat", "-30.0346", "lng", "180.5"},
+      {"lat", "-30.0346", "lng", "-51.2177", "radiusKm", "0"},
+      {"lat", "-30.0346", "lng", "-51.2177", "radiusKm", "100.5"},
+      {"lat", "-30.0346", "lng", "-51.2177", "limit", "0"},
+    };
+    for (String[] params : invalid) {
+      var request = given().auth().oauth2(token);
+      for (int i = 0; i < params.length; i += 2) {
+        request.queryParam(params[i], params[i + 1]);
+      }
+      request.when().get("/coffee-places/nearby").then().statusCode(400);
+    }
+  }
+
+  @Test
+  void searchRanksContainingMatchesBeforeCloseOnes() {
+    createPlace("Cappuccino Club", 4, false);
+    createPlace("Capuccino Corner", 4, false);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .queryParam("q", "Capuccino")
+        .when()
+        .get("/coffee-places/search")
+        .then()
+        .statusCode(200)
+        .body("name", contains("Capuccino Corner", "Cappuccino Club"));
+  }
+
+  @Test
+  void searchToleratesTypos() {
+    createPlace("Macchiato Lounge", 4, false);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .queryParam("q", "machiato")
+        .when()
+        .get("/coffee-places/search")
+        .then()
+        .statusCode(200)
+        .body("name", contains("Macchiato Lounge"));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .queryParam("q", "espresso")
+        .when()
+        .get("/coffee-places/search")
+        .then()
+        .statusCode(200)
+        .body("size()", is(0));
+  }
+
+  @Test
+  void searchAppliesDietaryAndQualityFilters() {
+    createPlace("Oat Latte Bar", 4, true);
+    createPlace("Latte Point", 4, false);
+    createPlace("Soy Latte Kiosk", 2, true);
+
+    given()
+        .auth()
+        .oauth2(token)
+        .queryParam("q", "latte")
+        .queryParam("hasVegMilk", true)
+        .when()
+        .get("/coffee-places/search")
+        .then()
+        .statusCode(200)
+        .body("name", containsInAnyOrder("Oat Latte Bar", "Soy Latte Kiosk"));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .queryParam("q", "latte")
+        .queryParam("hasVegMilk", true)
+        .queryParam("minCoffeeQuality", 3)
+        .when()
+        .get("/coffee-places/search")
+        .then()
+        .statusCode(200)
+        .body("name", contains("Oat Latte Bar"));
+  }
+
+  @Test
+  void searchRejectsMissingOrOversizedTerms() {
+    String longest = "b".repeat(CoffeePlaceService.MAX_SEARCH_LENGTH);
+    String[][] invalid = {
+      {},
+      {"q", "   "},
+      {"q", longest + "b"},
+      {"q", "latte", "limit", "0"},
+      {"q", "latte", "minCoffeeQuality", "6"},
+    };
+    for (String[] params : invalid) {
+      var request = given().auth().oauth2(token);
+      for (int i = 0; i < params.length; i += 2) {
+        request.queryParam(params[i], params[i + 1]);
+      }
+      request.when().get("/coffee-places/search").then().statusCode(400);
+    }
+
+    given()
+        .auth()
+        .oauth2(token)
+        .queryParam("q", " " + longest + " ")
+        .when()
+        .get("/coffee-places/search")
+        .then()
+        .statusCode(200);
+  }
+
+  @Test
+  void getByIdDoesNotReadPhotoBytes() {
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .get("/coffee-places/" + placeId)
+        .then()
+        .statusCode(200)
+        .body("hasPhoto", is(true));
+
+    assertPhotoBytesNotRead();
+  }
+
+  @Test
+  void updateDoesNotReadPhotoBytes() {
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(
+            """
+            {"name": "Blob Roasters II", "address": "2 Bytea Street",
+             "coffeeQuality": 4, "ambient": 3}
+            """)
+        .when()
+        .put("/coffee-places/" + placeId)
+        .then()
+        .statusCode(200)
+        .body("name", is("Blob Roasters II"))
+        .body("hasPhoto", is(true));
+
+    assertPhotoBytesNotRead();
+  }
+
+  @Test
+  void deletingAccountDoesNotReadPhotoBytes() {
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .delete("/user")
+        .then()
+        .statusCode(202)
+        .body("status", is("IN_PROGRESS"))
+        .body("placesTotal", is(1));
+
+    // Blocked before the purge has run
+    given().auth().oauth2(token).when().get("/coffee-places").then().statusCode(401);
+
+    while (!accountPurgeService.purgeChunk(userId)) {
+      // Runs the purge job's work inline
+    }
+
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .get("/user/deletion")
+        .then()
+        .statusCode(200)
+        .body("status", is("COMPLETED"))
+        .body("placesDeleted", is(1))
+        .body("photosDeleted", is(1));
+
+    assertPhotoBytesNotRead();
+    assertEquals(
+        0L,
+        QuarkusTransaction.requiringNew()
+            .call(() -> coffeePlacePhotoRepository.count("coffeePlaceId", placeId)));
+    assertEquals(
+        0L, QuarkusTransaction.requiringNew().call(() -> userRepository.count("id", userId)));
+  }
+
+  private void createPlace(String name, double latitude, double longitude) {
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(
+            """
+            {"name": "%s", "address": "1 Geohash Street", "coffeeQuality": 4, "ambient": 4,
+             "latitude": %s, "longitude": %s}
+            """
+                .formatted(name, latitude, longitude))
+        .when()
+        .post("/coffee-places")
+        .then()
+        .statusCode(201);
+  }
+
+  private void createPlace(String name, int coffeeQuality, boolean hasVegMilk) {
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(
+            """
+            {"name": "%s", "address": "1 Trigram Street", "coffeeQuality": %d, "ambient": 4,
+             "hasVegMilk": %s}
+            """
+                .formatted(name, coffeeQuality, hasVegMilk))
+        .when()
+        .post("/coffee-places")
+        .then()
+        .statusCode(201);
+  }
+
+  private void assertPhotoBytesNotRead() {
+    Statistics statistics = sessionFactory.getStatistics();
+    EntityStatistics photoStatistics =
+        statistics.getEntityStatistics(CoffeePlacePhoto.class.getName());
+
+    assertEquals(0, photoStatistics.getLoadCount(), "CoffeePlacePhoto entities were loaded");
+    assertEquals(0, photoStatistics.getFetchCount(), "CoffeePlacePhoto entities were fetched");
+    assertTrue(
+        Arrays.stream(statistics.getQueries()).noneMatch(query -> query.contains("p.photo")),
+        "Photo bytes were selected by a query");
+  }
+}
@@ -0,0 +1,219 @@
+package com.beanscore.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.beanscore.entity.CoffeePlace;
+import com.beanscore.entity.User;
+import com.beanscore.repository.CoffeePlaceRepository;
+import com.beanscore.repository.CoffeePlaceStatsRepository;
+import com.beanscore.repository.UserRepository;
+import com.beanscore.service.CoffeePlaceStatsService;
+import com.beanscore.service.CoffeePlaceStatsService.Verification;
+import com.beanscore.service.JwtService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+import java.time.YearMonth;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class CoffeePlaceStatsResourceTest {
+
+  @Inject UserRepository userRepository;
+
+  @Inject CoffeePlaceRepository coffeePlaceRepository;
+
+  @Inject CoffeePlaceStatsRepository coffeePlaceStatsRepository;
+
+  @Inject CoffeePlaceStatsService statsService;
+
+  @Inject JwtService jwtService;
+
+  String token;
+
+  UUID userId;
+
+  @BeforeEach
+  void setUp() {
+    User user = newUser();
+    token = jwtService.generateToken(user);
+    userId = user.id;
+  }
+
+  @Test
+  void everyWriteUpdatesTheStats() {
+    String id = createPlace("Stats Roasters", 5, true);
+
+    getStats()
+        .body("placeCount", is(1))
+        .body("averageCoffeeQuality", is(5.0f))
+        .body("coffeeQualityHistogram.'5'", is(1))
+        .body("dietaryOptions.vegMilk", is(1))
+        .body("placesPerMonth[0].month", is(YearMonth.now().toString()))
+        .body("placesPerMonth[0].count", is(1));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(place("Stats Roasters", 2, false))
+        .when()
+        .put("/coffee-places/" + id)
+        .then()
+        .statusCode(200);
+    getStats()
+        .body("placeCount", is(1))
+        .body("averageCoffeeQuality", is(2.0f))
+        .body("coffeeQualityHistogram.'5'", is(0))
+        .body("coffeeQualityHistogram.'2'", is(1))
+        .body("dietaryOptions.vegMilk", is(0));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(CoffeePlaceTransferResource.APPLICATION_NDJSON)
+        .body(place("Imported One", 4, true) + "\n" + place("Imported Two", 4, false))
+        .when()
+        .post("/coffee-places/import")
+        .then()
+        .statusCode(200)
+        .body("imported", is(2));
+    getStats()
+        .body("placeCount", is(3))
+        .body("coffeeQualityHistogram.'4'", is(2))
+        .body("dietaryOptions.vegMilk", is(1))
+        .body("placesPerMonth[0].count", is(3));
+
+    given().auth().oauth2(token).when().delete("/coffee-places/" + id).then().statusCode(204);
+    getStats()
+        .body("placeCount", is(2))
+        .body("averageCoffeeQuality", is(4.0f))
+        .body("coffeeQualityHistogram.'2'", is(0))
+        .body("placesPerMonth[0].count", is(2));
+
+    assertEquals(Verification.MATCHED, statsService.verify(userId));
+  }
+
+  @Test
+  void userWithoutStatsIsSeededFromTheirPlaces() {
+    // Written directly, so no statistics row exists yet
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              persistPlace("Seeded Roasters", 3);
+              persistPlace("Seeded Beans", 5);
+            });
+    assertTrue(
+        QuarkusTransaction.requiringNew()
+            .call(() -> coffeePlaceStatsRepository.findTotals(userId))
+            .isEmpty());
+
+    getStats()
+        .body("placeCount", is(2))
+        .body("averageCoffeeQuality", is(4.0f))
+        .body("coffeeQualityHistogram.'3'", is(1))
+        .body("coffeeQualityHistogram.'5'", is(1))
+        .body("placesPerMonth[0].count", is(2));
+
+    assertEquals(Verification.MATCHED, statsService.verify(userId));
+
+    User emptyUser = newUser();
+    assertEquals(Verification.SEEDED, statsService.verify(emptyUser.id));
+    getStats(jwtService.generateToken(emptyUser))
+        .body("placeCount", is(0))
+        .body("averageCoffeeQuality", nullValue())
+        .body("placesPerMonth.size()", is(0));
+  }
+
+  @Test
+  void verifyRebuildsADriftedRow() {
+    createPlace("Drift Roasters", 4, false);
+    createPlace("Drift Beans", 2, true);
+    QuarkusTransaction.requiringNew()
+        .run(
+            () ->
+                coffeePlaceStatsRepository
+                    .getEntityManager()
+                    .createNativeQuery(
+                        "update coffee_place_stats set place_count = place_count + 5,"
+                            + " coffee_quality_5 = 3 where user_id = :userId")
+                    .setParameter("userId", userId)
+                    .executeUpdate());
+
+    assertEquals(Verification.REBUILT, statsService.verify(userId));
+    assertEquals(Verification.MATCHED, statsService.verify(userId));
+
+    getStats()
+        .body("placeCount", is(2))
+        .body("averageCoffeeQuality", is(3.0f))
+        .body("coffeeQualityHistogram.'5'", is(0))
+        .body("dietaryOptions.vegMilk", is(1));
+  }
+
+  private ValidatableResponse getStats() {
+    return getStats(token);
+  }
+
+  private static ValidatableResponse getStats(String token) {
+    return given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .get("/coffee-places/stats")
+        .then()
+        .statusCode(200);
+  }
+
+  private User newUser() {
+    return QuarkusTransaction.requiringNew()
+        .call(
+            () -> {
+              User user = new User();
+              user.email = "stats-" + UUID.randomUUID() + "@beanscore.com";
+              user.name = "Stats Tester";
+              user.password = "not-a-real-hash";
+              userRepository.persist(user);
+              return user;
+            });
+  }
+
+  private void persistPlace(String name, int coffeeQuality) {
+    CoffeePlace coffeePlace = new CoffeePlace();
+    coffeePlace.userId = userId;
+    coffeePlace.name = name;
+    coffeePlace.address = "1 Stats Street";
+    coffeePlace.coffeeQuality = coffeeQuality;
+    coffeePlace.ambient = 3;
+    coffeePlaceRepository.persist(coffeePlace);
+  }
+
+  private static String place(String name, int coffeeQuality, boolean hasVegMilk) {
+    return """
+        {"name": "%s", "address": "1 Stats Street", "coffeeQuality": %d, "ambient": 3, \
+        "hasVegMilk": %s}\
+        """
+        .formatted(name, coffeeQuality, hasVegMilk);
+  }
+
+  private String createPlace(String name, int coffeeQuality, boolean hasVegMilk) {
+    return given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(place(name, coffeeQuality, hasVegMilk))
+        .when()
+        .post("/coffee-places")
+        .then()
+        .statusCode(201)
+        .extract()
+        .path("id");
+  }
+}
@@ -0,0 +1,184 @@
+package com.beanscore.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.beanscore.entity.User;
+import com.beanscore.repository.UserRepository;
+import com.beanscore.service.JwtService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class CoffeePlaceTransferResourceTest {
+
+  @Inject UserRepository userRepository;
+
+  @Inject JwtService jwtService;
+
+  String token;
+
+  @BeforeEach
+  void setUp() {
+    token = newUserToken();
+  }
+
+  @Test
+  void exportedPlacesImportBackUnchanged() {
+    createPlace(token, "Export Roasters", 5, 3);
+    createPlace(token, "Ndjson Beans", 2, 4);
+
+    String exported =
+        given()
+            .auth()
+            .oauth2(token)
+            .when()
+            .get("/coffee-places/export")
+            .then()
+            .statusCode(200)
+            .contentType(CoffeePlaceTransferResource.APPLICATION_NDJSON)
+            .extract()
+            .asString();
+    assertEquals(2, exported.lines().count());
+
+    String otherToken = newUserToken();
+    given()
+        .auth()
+        .oauth2(otherToken)
+        .contentType(CoffeePlaceTransferResource.APPLICATION_NDJSON)
+        .body(exported)
+        .when()
+        .post("/coffee-places/import")
+        .then()
+        .statusCode(200)
+        .body("imported", is(2))
+        .body("failed", is(0))
+        .body("errors", empty());
+
+    given()
+        .auth()
+        .oauth2(otherToken)
+        .when()
+        .get("/coffee-places")
+        .then()
+        .statusCode(200)
+        .body("name", containsInAnyOrder("Export Roasters", "Ndjson Beans"))
+        .body("coffeeQuality", containsInAnyOrder(5, 2))
+        .body("ambient", containsInAnyOrder(3, 4));
+  }
+
+  @Test
+  void importReportsInvalidLinesAndKeepsTheRest() {
+    String body =
+        String.join(
+            "\n",
+            place("Valid Line", 4),
+            "{not json",
+            "",
+            "{\"address\": \"No Name Street\", \"coffeeQuality\": 3, \"ambient\": 3}",
+            place("Too Good", 9));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(CoffeePlaceTransferResource.APPLICATION_NDJSON)
+        .body(body)
+        .when()
+        .post("/coffee-places/import")
+        .then()
+        .statusCode(200)
+        .body("imported", is(1))
+        .body("failed", is(3))
+        .body("errors.line", is(List.of(2, 4, 5)))
+        .body("errors[0].message", startsWith("Invalid JSON"))
+        .body("errors[1].message", containsString("name"))
+        .body("errors[2].message", containsString("coffeeQuality"));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .get("/coffee-places")
+        .then()
+        .statusCode(200)
+        .body("name", is(List.of("Valid Line")));
+  }
+
+  @Test
+  void chunkRejectedByTheDatabaseIsRetriedRowByRow() {
+    // Valid for the request, but longer than the name column, so the chunk insert fails
+    String body =
+        String.join(
+            "\n", place("Before", 3), place("x".repeat(300), 3), place("After", 3));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(CoffeePlaceTransferResource.APPLICATION_NDJSON)
+        .body(body)
+        .when()
+        .post("/coffee-places/import")
+        .then()
+        .statusCode(200)
+        .body("imported", is(2))
+        .body("failed", is(1))
+        .body("errors[0].line", is(2))
+        .body("errors[0].message", startsWith("Could not be saved"));
+
+    given()
+        .auth()
+        .oauth2(token)
+        .when()
+        .get("/coffee-places")
+        .then()
+        .statusCode(200)
+        .body("name", containsInAnyOrder("Before", "After"));
+  }
+
+  private String newUserToken() {
+    return QuarkusTransaction.requiringNew()
+        .call(
+            () -> {
+              User user = new User();
+              user.email = "transfer-" + UUID.randomUUID() + "@beanscore.com";
+              user.name = "Transfer Tester";
+              user.password = "not-a-real-hash";
+              userRepository.persist(user);
+              return jwtService.generateToken(user);
+            });
+  }
+
+  private static String place(String name, int coffeeQuality) {
+    return """
+        {"name": "%s", "address": "1 Export Street", "coffeeQuality": %d, "ambient": 3}\
+        """
+        .formatted(name, coffeeQuality);
+  }
+
+  private static void createPlace(String token, String name, int coffeeQuality, int ambient) {
+    given()
+        .auth()
+        .oauth2(token)
+        .contentType(ContentType.JSON)
+        .body(
+            """
+            {"name": "%s", "address": "1 Export Street", "coffeeQuality": %d, "ambient": %d}
+            """
+                .formatted(name, coffeeQuality, ambient))
+        .when()
+        .post("/coffee-places")
+        .then()
+        .statusCode(201);
+  }
+}
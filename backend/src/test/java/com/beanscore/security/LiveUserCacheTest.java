@@ -0,0 +1,75 @@
+package com.beanscore.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LiveUserCacheTest {
+
+  LiveUserCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new LiveUserCache();
+    cache.ttl = Duration.ofMinutes(1);
+    cache.maxSize = 2;
+  }
+
+  @Test
+  void countsHitsAndMisses() {
+    UUID userId = UUID.randomUUID();
+
+    assertFalse(cache.isKnownLive(userId));
+    cache.markLive(userId);
+    assertTrue(cache.isKnownLive(userId));
+
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  void invalidatedUserCannotBeMarkedLiveAgain() {
+    UUID userId = UUID.randomUUID();
+    cache.markLive(userId);
+
+    cache.invalidate(userId);
+    cache.markLive(userId);
+
+    assertFalse(cache.isKnownLive(userId));
+  }
+
+  @Test
+  void cancelledInvalidationAllowsCachingAgain() {
+    UUID userId = UUID.randomUUID();
+    cache.invalidate(userId);
+
+    cache.cancelInvalidation(userId);
+    cache.markLive(userId);
+
+    assertTrue(cache.isKnownLive(userId));
+  }
+
+  @Test
+  void expiredEntriesAreMisses() {
+    cache.ttl = Duration.ZERO;
+    UUID userId = UUID.randomUUID();
+    cache.markLive(userId);
+
+    assertFalse(cache.isKnownLive(userId));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void neverGrowsBeyondMaxSize() {
+    for (int i = 0; i < 10; i++) {
+      cache.markLive(UUID.randomUUID());
+    }
+
+    assertEquals(2, cache.size());
+  }
+}
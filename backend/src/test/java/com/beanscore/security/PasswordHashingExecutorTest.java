@@ -0,0 +1,90 @@
+package com.beanscore.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.HttpHeaders;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PasswordHashingExecutorTest {
+
+  PasswordHashingExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = new PasswordHashingExecutor();
+    executor.threads = 1;
+    executor.queueSize = 1;
+    executor.retryAfterSeconds = 2;
+    executor.registry = new SimpleMeterRegistry();
+    executor.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.stop();
+  }
+
+  @Test
+  void shedsWorkWithRetryAfterWhenQueueIsFull() throws Exception {
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> busy =
+        CompletableFuture.supplyAsync(
+            () ->
+                executor.call(
+                    () -> {
+                      running.countDown();
+                      await(release);
+                      return "first";
+                    }));
+    assertTrue(running.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> queued =
+        CompletableFuture.supplyAsync(() -> executor.call(() -> "second"));
+    while (executor.queueDepth() == 0) {
+      Thread.onSpinWait();
+    }
+
+    ServiceUnavailableException rejected =
+        assertThrows(ServiceUnavailableException.class, () -> executor.call(() -> "third"));
+    assertEquals("2", rejected.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER));
+    assertEquals(1, executor.rejected());
+
+    release.countDown();
+    assertEquals("first", busy.get(5, TimeUnit.SECONDS));
+    assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+    assertEquals(2, executor.completed());
+  }
+
+  @Test
+  void rehashesOnlyWhenCostDiffers() {
+    PasswordEncoder encoder = new PasswordEncoder();
+    encoder.cost = 4;
+    String hash = encoder.encode("secret");
+
+    assertEquals(4, PasswordEncoder.costOf(hash));
+    assertTrue(encoder.matches("secret", hash));
+    assertFalse(encoder.needsRehash(hash));
+
+    encoder.cost = 5;
+    assertTrue(encoder.needsRehash(hash));
+    assertTrue(encoder.needsRehash("not-a-bcrypt-hash"));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package com.beanscore.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+  static final long NOW = 1_700_000_000L;
+
+  VerifiedTokenCache cache;
+
+  long now;
+
+  @BeforeEach
+  void setUp() {
+    now = NOW;
+    cache =
+        new VerifiedTokenCache() {
+          @Override
+          long nowSeconds() {
+            return now;
+          }
+        };
+    cache.maxSize = 2;
+  }
+
+  @Test
+  void returnsVerifiedTokenUntilItExpires() {
+    JsonWebToken token = token(NOW + 60);
+
+    assertNull(cache.get("a.b.c"));
+    cache.put("a.b.c", token);
+    assertSame(token, cache.get("a.b.c"));
+
+    now = NOW + 60;
+    assertNull(cache.get("a.b.c"));
+    assertEquals(0, cache.size());
+    assertEquals(1, cache.hits());
+    assertEquals(2, cache.misses());
+  }
+
+  @Test
+  void doesNotCacheExpiredTokens() {
+    cache.put("a.b.c", token(NOW));
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void fullCacheEvictsTheEntryClosestToExpiry() {
+    cache.put("one", token(NOW + 10));
+    cache.put("two", token(NOW + 100));
+
+    cache.put("three", token(NOW + 50));
+    assertEquals(2, cache.size());
+    assertNull(cache.get("one"));
+    assertNotNull(cache.get("two"));
+    assertNotNull(cache.get("three"));
+
+    cache.put("four", token(NOW + 200));
+    assertNull(cache.get("three"));
+
+    // "two" has expired by now, so it goes first
+    now = NOW + 150;
+    cache.put("five", token(NOW + 300));
+    assertEquals(2, cache.size());
+    assertNull(cache.get("two"));
+    assertNotNull(cache.get("four"));
+    assertNotNull(cache.get("five"));
+  }
+
+  @Test
+  void replacingAnEntryKeepsOneSlot() {
+    cache.put("one", token(NOW + 10));
+    cache.put("one", token(NOW + 20));
+    cache.put("two", token(NOW + 100));
+
+    assertEquals(2, cache.size());
+    assertNotNull(cache.get("one"));
+  }
+
+  @Test
+  void concurrentPutsOfTheSameTokenKeepTheIndexInStep() throws InterruptedException {
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      workers.add(
+          Thread.ofPlatform()
+              .start(
+                  () -> {
+                    try {
+                      start.await();
+                    } catch (InterruptedException e) {
+                      Thread.currentThread().interrupt();
+                      return;
+                    }
+                    for (int i = 0; i < 2_000; i++) {
+                      cache.put("shared", token(NOW + 1 + i % 50));
+                    }
+                  }));
+    }
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    assertEquals(1, cache.size());
+    assertEquals(cache.size(), cache.indexedSize());
+
+    // Eviction picks the shared token, not the live one put before it
+    cache.put("live", token(NOW + 1000));
+    cache.put("other", token(NOW + 500));
+    assertEquals(2, cache.size());
+    assertEquals(2, cache.indexedSize());
+    assertNull(cache.get("shared"));
+    assertNotNull(cache.get("live"));
+    assertNotNull(cache.get("other"));
+  }
+
+  @Test
+  void sizeZeroDisablesCaching() {
+    cache.maxSize = 0;
+    cache.put("a.b.c", token(NOW + 60));
+
+    assertNull(cache.get("a.b.c"));
+    assertEquals(0, cache.misses());
+  }
+
+  private static JsonWebToken token(long expiresAt) {
+    Map<String, Object> claims = Map.of("exp", expiresAt, "sub", "user");
+    return new JsonWebToken() {
+      @Override
+      public String getName() {
+        return "user";
+      }
+
+      @Override
+      public Set<String> getClaimNames() {
+        return claims.keySet();
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public <T> T getClaim(String claimName) {
+        return (T) claims.get(claimName);
+      }
+    };
+  }
+}
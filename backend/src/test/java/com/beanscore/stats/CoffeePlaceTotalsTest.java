@@ -0,0 +1,90 @@
+package com.beanscore.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.beanscore.entity.CoffeePlace;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CoffeePlaceTotalsTest {
+
+  @Test
+  void countsRatingsDietaryOptionsAndMonths() {
+    CoffeePlaceTotals totals =
+        new CoffeePlaceTotals()
+            .add(place(5, 3, true, false, LocalDateTime.of(2026, 3, 10, 9, 0)))
+            .add(place(4, 3, true, true, LocalDateTime.of(2026, 3, 31, 23, 59)))
+            .add(place(5, 1, false, false, LocalDateTime.of(2026, 4, 1, 0, 0)));
+
+    assertEquals(3, totals.places());
+    assertEquals(14, totals.coffeeQualitySum());
+    assertEquals(7, totals.ambientSum());
+    assertEquals(2, totals.coffeeQualityCount(5));
+    assertEquals(1, totals.coffeeQualityCount(4));
+    assertEquals(0, totals.coffeeQualityCount(1));
+    assertEquals(2, totals.ambientCount(3));
+    assertEquals(2, totals.glutenFree());
+    assertEquals(1, totals.vegMilk());
+    assertEquals(
+        Map.of(YearMonth.of(2026, 3), 2L, YearMonth.of(2026, 4), 1L), totals.addedPerMonth());
+  }
+
+  @Test
+  void updateWithUnchangedRatingsIsEmpty() {
+    CoffeePlace coffeePlace = place(3, 4, true, false, LocalDateTime.of(2026, 1, 5, 12, 0));
+
+    CoffeePlaceTotals change = new CoffeePlaceTotals().remove(coffeePlace);
+    coffeePlace.name = "Renamed";
+    change.add(coffeePlace);
+
+    assertTrue(change.isEmpty());
+  }
+
+  @Test
+  void ratingChangeMovesBetweenHistogramBuckets() {
+    CoffeePlace coffeePlace = place(2, 4, false, false, LocalDateTime.of(2026, 1, 5, 12, 0));
+
+    CoffeePlaceTotals change = new CoffeePlaceTotals().remove(coffeePlace);
+    coffeePlace.coffeeQuality = 5;
+    change.add(coffeePlace);
+
+    assertEquals(0, change.places());
+    assertEquals(3, change.coffeeQualitySum());
+    assertEquals(-1, change.coffeeQualityCount(2));
+    assertEquals(1, change.coffeeQualityCount(5));
+    assertTrue(change.addedPerMonth().isEmpty());
+  }
+
+  @Test
+  void equalsTotalsRebuiltFromCounters() {
+    CoffeePlaceTotals totals =
+        new CoffeePlaceTotals()
+            .add(place(1, 2, false, true, LocalDateTime.of(2025, 12, 1, 8, 0)))
+            .add(place(3, 5, true, true, LocalDateTime.of(2026, 2, 14, 18, 30)));
+
+    assertEquals(totals, CoffeePlaceTotals.of(totals.counters(), totals.addedPerMonth()));
+    // Months counted as zero are the same as months never counted
+    assertEquals(
+        new CoffeePlaceTotals(),
+        CoffeePlaceTotals.of(
+            new long[CoffeePlaceTotals.COUNTERS], Map.of(YearMonth.of(2026, 1), 0L)));
+  }
+
+  private static CoffeePlace place(
+      int coffeeQuality,
+      int ambient,
+      boolean glutenFree,
+      boolean vegMilk,
+      LocalDateTime createdAt) {
+    CoffeePlace coffeePlace = new CoffeePlace();
+    coffeePlace.coffeeQuality = coffeeQuality;
+    coffeePlace.ambient = ambient;
+    coffeePlace.hasGlutenFree = glutenFree;
+    coffeePlace.hasVegMilk = vegMilk;
+    coffeePlace.createdAt = createdAt;
+    return coffeePlace;
+  }
+}
@@ -0,0 +1,187 @@
+package com.beanscore.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSystemPhotoStoreTest {
+
+  private static final LocalDateTime V1 = LocalDateTime.of(2026, 10, 1, 12, 0, 0, 123_456_000);
+  private static final LocalDateTime V2 = V1.plusMinutes(5);
+
+  @TempDir Path root;
+
+  FileSystemPhotoStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new FileSystemPhotoStore();
+    store.root = root;
+  }
+
+  @Test
+  void servesWrittenPhotosAsFiles() throws Exception {
+    UUID id = UUID.randomUUID();
+    byte[] original = {1, 2, 3};
+    byte[] thumbnail = {4};
+
+    store.write(id, V1, PhotoVariant.ORIGINAL, new ByteArrayInputStream(original));
+    store.write(id, V1, PhotoVariant.THUMBNAIL, new ByteArrayInputStream(thumbnail));
+
+    StoredPhoto photo = store.read(id, V1, PhotoVariant.ORIGINAL).orElseThrow();
+    assertTrue(photo.entity() instanceof Path);
+    assertArrayEquals(original, Files.readAllBytes(photo.file()));
+    assertArrayEquals(
+        thumbnail,
+        Files.readAllBytes(store.read(id, V1, PhotoVariant.THUMBNAIL).orElseThrow().file()));
+  }
+
+  @Test
+  void overwritesWithoutLeavingTemporaryFiles() throws Exception {
+    UUID id = UUID.randomUUID();
+
+    store.write(id, V1, PhotoVariant.ORIGINAL, new ByteArrayInputStream(new byte[] {1}));
+    store.write(id, V1, PhotoVariant.ORIGINAL, new ByteArrayInputStream(new byte[] {2}));
+
+    try (var files = Files.list(store.versionDirectory(id, V1))) {
+      assertTrue(files.allMatch(file -> file.getFileName().toString().equals("original")));
+    }
+    assertArrayEquals(
+        new byte[] {2},
+        Files.readAllBytes(store.read(id, V1, PhotoVariant.ORIGINAL).orElseThrow().file()));
+  }
+
+  @Test
+  void newVersionDoesNotOverwriteTheCurrentOne() throws Exception {
+    UUID id = UUID.randomUUID();
+    store.write(id, V1, PhotoVariant.ORIGINAL, new ByteArrayInputStream(new byte[] {1}));
+
+    store.write(id, V2, PhotoVariant.ORIGINAL, new ByteArrayInputStream(new byte[] {2}));
+
+    assertArrayEquals(
+        new byte[] {1},
+        Files.readAllBytes(store.read(id, V1, PhotoVariant.ORIGINAL).orElseThrow().file()));
+    assertArrayEquals(
+        new byte[] {2},
+        Files.readAllBytes(store.read(id, V2, PhotoVariant.ORIGINAL).orElseThrow().file()));
+  }
+
+  @Test
+  void deleteWaitsForCommit() throws Exception {
+    UUID id = UUID.randomUUID();
+    store.write(id, V1, PhotoVariant.ORIGINAL, new ByteArrayInputStream(new byte[] {1}));
+    FakeTransaction transaction = new FakeTransaction();
+    store.transactions = transaction;
+
+    store.delete(id, V1);
+    assertTrue(store.read(id, V1, PhotoVariant.ORIGINAL).isPresent());
+
+    transaction.complete(Status.STATUS_COMMITTED);
+    assertFalse(store.read(id, V1, PhotoVariant.ORIGINAL).isPresent());
+  }
+
+  @Test
+  void rollbackKeepsDeletedPhotoAndRemovesWrittenOne() throws Exception {
+    UUID id = UUID.randomUUID();
+    store.write(id, V1, PhotoVariant.ORIGINAL, new ByteArrayInputStream(new byte[] {1}));
+    FakeTransaction transaction = new FakeTransaction();
+    store.transactions = transaction;
+
+    store.delete(id, V1);
+    store.write(id, V2, PhotoVariant.ORIGINAL, new ByteArrayInputStream(new byte[] {2}));
+    transaction.complete(Status.STATUS_ROLLEDBACK);
+
+    assertArrayEquals(
+        new byte[] {1},
+        Files.readAllBytes(store.read(id, V1, PhotoVariant.ORIGINAL).orElseThrow().file()));
+    assertFalse(Files.exists(store.versionDirectory(id, V2)));
+  }
+
+  @Test
+  void servesUnversionedPhotosUntilTheVersionHasItsOwn() throws Exception {
+    UUID id = UUID.randomUUID();
+    store.write(id, null, PhotoVariant.ORIGINAL, new ByteArrayInputStream(new byte[] {1}));
+    store.write(id, null, PhotoVariant.THUMBNAIL, new ByteArrayInputStream(new byte[] {2}));
+
+    assertArrayEquals(
+        new byte[] {2},
+        Files.readAllBytes(store.read(id, V1, PhotoVariant.THUMBNAIL).orElseThrow().file()));
+
+    store.write(id, V2, PhotoVariant.ORIGINAL, new ByteArrayInputStream(new byte[] {3}));
+    assertFalse(store.read(id, V2, PhotoVariant.THUMBNAIL).isPresent());
+
+    store.delete(id, V1);
+    assertFalse(Files.exists(store.directoryFor(id).resolve("thumbnail")));
+    assertTrue(store.read(id, V2, PhotoVariant.ORIGINAL).isPresent());
+  }
+
+  @Test
+  void deleteRemovesEveryVersion() throws Exception {
+    UUID id = UUID.randomUUID();
+    store.write(id, V1, PhotoVariant.ORIGINAL, new ByteArrayInputStream(new byte[] {1}));
+    store.write(id, V2, PhotoVariant.THUMBNAIL, new ByteArrayInputStream(new byte[] {2}));
+
+    store.delete(id);
+
+    assertFalse(store.read(id, V1, PhotoVariant.ORIGINAL).isPresent());
+    assertFalse(store.read(id, V2, PhotoVariant.THUMBNAIL).isPresent());
+    assertFalse(Files.exists(store.directoryFor(id)));
+  }
+
+  /** An active transaction that runs its synchronizations when {@link #complete} is called. */
+  private static class FakeTransaction implements TransactionSynchronizationRegistry {
+
+    private final List<Synchronization> synchronizations = new ArrayList<>();
+    private int status = Status.STATUS_ACTIVE;
+
+    void complete(int outcome) {
+      status = outcome;
+      synchronizations.forEach(synchronization -> synchronization.afterCompletion(outcome));
+    }
+
+    @Override
+    public Object getTransactionKey() {
+      return this;
+    }
+
+    @Override
+    public void putResource(Object key, Object value) {}
+
+    @Override
+    public Object getResource(Object key) {
+      return null;
+    }
+
+    @Override
+    public void registerInterposedSynchronization(Synchronization synchronization) {
+      synchronizations.add(synchronization);
+    }
+
+    @Override
+    public int getTransactionStatus() {
+      return status;
+    }
+
+    @Override
+    public void setRollbackOnly() {}
+
+    @Override
+    public boolean getRollbackOnly() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.beanscore.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class ImageResizerTest {
+
+  @Test
+  void scalesLongestSideAndKeepsAspectRatio() {
+    BufferedImage source = new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_RGB);
+
+    BufferedImage thumbnail =
+        ImageResizer.resize(source, PhotoVariant.THUMBNAIL.maxDimension(), true);
+
+    assertEquals(640, thumbnail.getWidth());
+    assertEquals(480, thumbnail.getHeight());
+  }
+
+  @Test
+  void neverUpscales() {
+    BufferedImage source = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+
+    BufferedImage full = ImageResizer.resize(source, PhotoVariant.FULL.maxDimension(), true);
+
+    assertEquals(300, full.getWidth());
+    assertEquals(200, full.getHeight());
+  }
+
+  @Test
+  void encodesInTheOriginalFormat() throws IOException {
+    BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+
+    for (String contentType : new String[] {"image/jpeg", "image/png"}) {
+      byte[] encoded = ImageResizer.encode(image, contentType);
+      assertEquals(contentType, SpooledPhoto.detectContentType(encoded));
+
+      BufferedImage decoded = ImageResizer.read(new ByteArrayInputStream(encoded), 640);
+      assertEquals(64, decoded.getWidth());
+      assertEquals(48, decoded.getHeight());
+    }
+  }
+
+  @Test
+  void subsamplesHugeSourcesWhileDecoding() throws IOException {
+    byte[] encoded =
+        ImageResizer.encode(new BufferedImage(4096, 4096, BufferedImage.TYPE_INT_RGB), "image/png");
+
+    BufferedImage decoded = ImageResizer.read(new ByteArrayInputStream(encoded), 640);
+
+    assertTrue(decoded.getWidth() <= 1280, "Decoded at " + decoded.getWidth() + "px");
+    assertTrue(decoded.getWidth() >= 640, "Decoded at " + decoded.getWidth() + "px");
+  }
+
+  @Test
+  void neverDecodesAboveTwiceTheTarget() throws IOException {
+    // 5000 / 1280 rounded down would keep every third pixel and decode 1667px
+    byte[] encoded =
+        ImageResizer.encode(new BufferedImage(5000, 50, BufferedImage.TYPE_INT_RGB), "image/png");
+
+    BufferedImage decoded = ImageResizer.read(new ByteArrayInputStream(encoded), 640);
+
+    assertEquals(1250, decoded.getWidth());
+  }
+}
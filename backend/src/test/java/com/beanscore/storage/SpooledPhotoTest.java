@@ -0,0 +1,143 @@
+package com.beanscore.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpooledPhotoTest {
+
+  private static final long LIMIT = 2 * 1024 * 1024;
+
+  @TempDir Path directory;
+
+  @Test
+  void detectsFormatFromContentNotClaims() throws IOException {
+    SpooledPhoto png = check(new SyntheticImage(SyntheticImage.PNG, 1024));
+    assertEquals("image/png", png.contentType());
+    assertEquals(1024, png.size());
+    assertEquals("image/jpeg", check(new SyntheticImage(SyntheticImage.JPEG, 1024)).contentType());
+
+    PhotoRejectedException rejected =
+        assertThrows(
+            PhotoRejectedException.class,
+            () -> check(new SyntheticImage(new byte[] {'G', 'I', 'F', '8'}, 1024)));
+    assertEquals("Only JPEG and PNG images are allowed", rejected.getMessage());
+  }
+
+  @Test
+  void acceptsImageOfExactlyTheLimit() throws IOException {
+    assertEquals(LIMIT, check(new SyntheticImage(SyntheticImage.JPEG, LIMIT)).size());
+
+    PhotoRejectedException rejected =
+        assertThrows(
+            PhotoRejectedException.class,
+            () -> check(new SyntheticImage(SyntheticImage.JPEG, LIMIT + 1)));
+    assertEquals("Photo file size must be less than 2MB", rejected.getMessage());
+  }
+
+  @Test
+  void checksUploadedFileInPlace() throws IOException {
+    Path file = write(new SyntheticImage(SyntheticImage.PNG, 100_000));
+
+    SpooledPhoto photo = SpooledPhoto.ofFile(file, "Photo", LIMIT, "2MB");
+    assertEquals(ContentHash.LENGTH, photo.contentHash().length());
+    assertEquals(ContentHash.of(Files.readAllBytes(file)), photo.contentHash());
+    try (InputStream content = photo.open()) {
+      assertEquals(100_000, content.readAllBytes().length);
+    }
+    // Left for the HTTP layer, which wrote it, to delete
+    assertTrue(Files.exists(file));
+
+    PhotoRejectedException rejected =
+        assertThrows(
+            PhotoRejectedException.class,
+            () -> SpooledPhoto.ofFile(file, "Thumbnail", 1024, "1KB"));
+    assertEquals("Thumbnail file size must be less than 1KB", rejected.getMessage());
+    assertThrows(
+        PhotoRejectedException.class, () -> SpooledPhoto.ofFile(null, "Photo", LIMIT, "2MB"));
+  }
+
+  @Test
+  void peakAllocationDoesNotGrowWithUploadSize() throws IOException {
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().threadId();
+    Path small = write(new SyntheticImage(SyntheticImage.JPEG, 16 * 1024));
+    Path large = write(new SyntheticImage(SyntheticImage.JPEG, LIMIT));
+
+    // Warm up so class loading is not counted against the first measurement
+    SpooledPhoto.ofFile(small, "Photo", LIMIT, "2MB");
+
+    long before = threads.getThreadAllocatedBytes(threadId);
+    SpooledPhoto.ofFile(small, "Photo", LIMIT, "2MB");
+    long smallAllocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    before = threads.getThreadAllocatedBytes(threadId);
+    SpooledPhoto.ofFile(large, "Photo", LIMIT, "2MB");
+    long largeAllocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    // A buffered implementation would allocate at least the 2MB image for the large upload
+    assertTrue(
+        largeAllocated - smallAllocated < 256 * 1024,
+        "Allocated " + smallAllocated + " bytes for 16KB but " + largeAllocated + " bytes for 2MB");
+  }
+
+  private SpooledPhoto check(InputStream content) throws IOException {
+    return SpooledPhoto.ofFile(write(content), "Photo", LIMIT, "2MB");
+  }
+
+  /** Stands in for the HTTP layer, which writes each part to a temporary file. */
+  private Path write(InputStream content) throws IOException {
+    Path file = Files.createTempFile(directory, "upload-", ".img");
+    try (content) {
+      Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return file;
+  }
+
+  /** Produces an image header followed by filler bytes without ever holding them in memory. */
+  private static final class SyntheticImage extends InputStream {
+
+    static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+    static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final byte[] header;
+    private final long length;
+    long served;
+
+    SyntheticImage(byte[] header, long length) {
+      this.header = header;
+      this.length = length;
+    }
+
+    @Override
+    public int read() {
+      if (served >= length) {
+        return -1;
+      }
+      int b = served < header.length ? header[(int) served] & 0xFF : 0x42;
+      served++;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (served >= length) {
+        return -1;
+      }
+      int n = (int) Math.min(len, length - served);
+      for (int i = 0; i < n; i++) {
+        b[off + i] = (byte) read();
+      }
+      return n;
+    }
+  }
+}